@@ -0,0 +1,371 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package be.thibaulthelsmoortel.helsmoortelUtil.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static be.thibaulthelsmoortel.helsmoortelUtil.util.Counter.*;
+
+/**
+ * Thread-safe variant of {@link Counter}, offering the same counting features.
+ * <p>
+ * Every update is performed using a compare-and-set loop, so the minimum and maximum values are enforced
+ * atomically without the use of locks. Counters of this type can safely be shared between threads.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class AtomicCounter {
+
+    //The initial count the AtomicCounter was set to
+    private volatile int initialCount;
+    //The main counter
+    private final AtomicInteger count;
+    //Default in- or decrement value
+    private volatile int hop;
+    //Minimum and maximum values
+    private volatile int minVal, maxVal;
+
+    /**
+     * Default constructor. Puts the initial count on 0 (like a regular Integer), the hop on 1 and
+     * minimum and maximum values of Integers.
+     */
+    public AtomicCounter() {
+        this(0);
+    }
+
+    /**
+     * Constructor to create a counter that starts from a set count.
+     *
+     * @param count the count to start from
+     */
+    public AtomicCounter(int count) {
+        this(count, 1);
+    }
+
+    /**
+     * Constructor to create a counter that starts from a set count and to set the size of hops.
+     *
+     * @param count the count to start from
+     * @param hop   the default in- or decrement value
+     */
+    public AtomicCounter(int count, int hop) {
+        this(count, hop, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructor to create a counter that starts from a set count, to set the size of hops and to set
+     * minimum and maximum counter values.
+     *
+     * @param count  the count to start from
+     * @param hop    the default in- or decrement value
+     * @param minVal the minimum value of the counter
+     * @param maxVal the maximum value of the counter
+     */
+    public AtomicCounter(int count, int hop, int minVal, int maxVal) {
+        this.initialCount = count;
+        this.count = new AtomicInteger(count);
+        this.hop = hop;
+        this.minVal = minVal;
+        this.maxVal = maxVal;
+    }
+
+    /**
+     * Returns the current count.
+     *
+     * @return the current counter value
+     */
+    public int getCount() {
+        return count.get();
+    }
+
+    /**
+     * Sets the count to a specific number.
+     *
+     * @param count the new counter value
+     */
+    public void setCount(int count) {
+        if (count >= minVal && count <= maxVal) this.count.set(count);
+        else throw new IllegalArgumentException(ERROR_COUNT);
+    }
+
+    /**
+     * Returns the initial count.
+     *
+     * @return the initial counter value
+     */
+    public int getInitialCount() {
+        return initialCount;
+    }
+
+    /**
+     * Sets the initial count. Useful for the reset() method.
+     *
+     * @param initialCount the initial counter value
+     */
+    public void setInitialCount(int initialCount) {
+        if (initialCount >= minVal && initialCount <= maxVal) this.initialCount = initialCount;
+        else throw new IllegalArgumentException(ERROR__RESET);
+    }
+
+    /**
+     * Returns the default in- and decrement value.
+     *
+     * @return the default in- and decrement value
+     */
+    public int getHop() {
+        return hop;
+    }
+
+    /**
+     * Sets the default in- and decrement value.
+     *
+     * @param hop the default in- and decrement value
+     */
+    public void setHop(int hop) {
+        this.hop = hop;
+    }
+
+    /**
+     * Returns the minimum value of the counter.
+     *
+     * @return the minimum value of the counter
+     */
+    public int getMinVal() {
+        return minVal;
+    }
+
+    /**
+     * Sets the minimum value of the counter.
+     *
+     * @param minVal the minimum value of the counter
+     */
+    public void setMinVal(int minVal) {
+        if (minVal <= initialCount) this.minVal = minVal;
+        else throw new IllegalArgumentException(ERROR_MIN_VAL);
+    }
+
+    /**
+     * Returns the maximum value of the counter.
+     *
+     * @return the maximum value of the counter
+     */
+    public int getMaxVal() {
+        return maxVal;
+    }
+
+    /**
+     * Sets the maximum value of the counter.
+     *
+     * @param maxVal the maximum value of the counter
+     */
+    public void setMaxVal(int maxVal) {
+        if (maxVal >= initialCount) this.maxVal = maxVal;
+        else throw new IllegalArgumentException(ERROR_MAX_VAL);
+    }
+
+    /**
+     * Sets the minimum and maximum values of the counter.
+     *
+     * @param minVal the minimum value of the counter
+     * @param maxVal the maximum value of the counter
+     */
+    public void setMinAndMaxVal(int minVal, int maxVal) {
+        setMinVal(minVal);
+        setMaxVal(maxVal);
+    }
+
+    /**
+     * Increments the counter (with the set hop value).
+     */
+    public void increment() {
+        getThenIncrementBy(hop);
+    }
+
+    /**
+     * Decrements the counter (with the set hop value).
+     */
+    public void decrement() {
+        getThenDecrementBy(hop);
+    }
+
+    /**
+     * Increments the counter and returns the new count.
+     *
+     * @return the count after incrementing
+     */
+    public int incrementThenGet() {
+        return incrementByThenGet(hop);
+    }
+
+    /**
+     * Decrements the counter and returns the new count.
+     *
+     * @return the count after decrementing
+     */
+    public int decrementThenGet() {
+        return decrementByThenGet(hop);
+    }
+
+    /**
+     * Returns the count and increments it later.
+     *
+     * @return the count before incrementing
+     */
+    public int getThenIncrement() {
+        return getThenIncrementBy(hop);
+    }
+
+    /**
+     * Returns the count and decrements it later.
+     *
+     * @return the count before decrementing
+     */
+    public int getThenDecrement() {
+        return getThenDecrementBy(hop);
+    }
+
+    /**
+     * Increments the counter with a given value (hop not used).
+     *
+     * @param amount value to increment the counter with
+     */
+    public void incrementBy(int amount) {
+        getThenIncrementBy(amount);
+    }
+
+    /**
+     * Decrements the counter with a given value (hop not used).
+     *
+     * @param amount value to decrement the counter with
+     */
+    public void decrementBy(int amount) {
+        getThenDecrementBy(amount);
+    }
+
+    /**
+     * Increments the counter with a given value (hop not used) and returns the new count.
+     *
+     * @param amount value to increment the counter with
+     * @return the count after incrementing
+     */
+    public int incrementByThenGet(int amount) {
+        return getThenIncrementBy(amount) + amount;
+    }
+
+    /**
+     * Decrements the counter with a given value (hop not used) and returns the new count.
+     *
+     * @param amount value to decrement the counter with
+     * @return the count after decrementing
+     */
+    public int decrementByThenGet(int amount) {
+        return getThenDecrementBy(amount) - amount;
+    }
+
+    /**
+     * Returns the count and increments it with a given value (hop not used) later.
+     *
+     * @param amount value to increment the counter with
+     * @return the count before incrementing
+     */
+    public int getThenIncrementBy(int amount) {
+        return getThenAdd(amount);
+    }
+
+    /**
+     * Returns the count and decrements it with a given value (hop not used) later.
+     *
+     * @param amount value to decrement the counter with
+     * @return the count before decrementing
+     */
+    public int getThenDecrementBy(int amount) {
+        return getThenAdd(-(long) amount);
+    }
+
+    /**
+     * Atomically adds a delta to the count, provided the result stays within the bounds.
+     *
+     * @param delta the value to add to the count
+     * @return the count before adding
+     */
+    private int getThenAdd(long delta) {
+        for (;;) {
+            int current = count.get();
+            long next = current + delta;
+            if (next < minVal || next > maxVal) throw new IllegalArgumentException(ERROR_BOUNDS);
+            if (count.compareAndSet(current, (int) next)) return current;
+        }
+    }
+
+    /**
+     * Returns the distance from the current count to a given value.
+     *
+     * @param value value to check the distance from
+     * @return the distance from the current count to the given value
+     */
+    public int distanceToVal(int value) {
+        int current = count.get();
+        if (value >= minVal && value <= maxVal) return current >= value ? current - value : value - current;
+        else throw new IllegalArgumentException(ERROR_VAL);
+    }
+
+    /**
+     * Returns the distance from the current count to the minimum value.
+     *
+     * @return the distance from the current count to the minimum value
+     */
+    public int distanceToMinVal() {
+        return distanceToVal(minVal);
+    }
+
+    /**
+     * Returns the distance from the current count to the maximum value.
+     *
+     * @return the distance from the current count to the maximum value
+     */
+    public int distanceToMaxVal() {
+        return distanceToVal(maxVal);
+    }
+
+    /**
+     * Returns the current position of the counter as a percentage (where minVal = 0% and maxVal = 100%).
+     *
+     * @return the current position of the counter as a percentage (where minVal = 0% and maxVal = 100%)
+     */
+    public float currentPosition() {
+        long fullDist = minVal + maxVal;
+        return (float) ((count.get() * 100) / fullDist);
+    }
+
+    /**
+     * Resets the counter to its initial count (0 by default).
+     */
+    public void reset() {
+        count.set(initialCount);
+    }
+
+    /**
+     * Resets the counter to a new value (does not change the initial count).
+     *
+     * @param count the new counter value to reset the counter to
+     */
+    public void resetTo(int count) {
+        if (count >= minVal && count <= maxVal) this.count.set(count);
+        else throw new IllegalArgumentException(ERROR__RESET);
+    }
+
+    /**
+     * Resets the counter to a new value. If the second parameter is true, the initial count will be changed
+     * to this new value (if false, it doesn't).
+     *
+     * @param count     the new counter value to reset the counter to
+     * @param initCount flag indicating whether to set the initial count or not
+     */
+    public void resetTo(int count, boolean initCount) {
+        if (initCount) setInitialCount(count);
+        resetTo(count);
+    }
+}
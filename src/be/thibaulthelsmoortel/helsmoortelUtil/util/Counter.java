@@ -12,13 +12,14 @@ package be.thibaulthelsmoortel.helsmoortelUtil.util;
  */
 public class Counter {
 
+    //Error messages
     public static final String ERROR_COUNT = "Count should be between minVal and maxVal!";
     public static final String ERROR_MIN_VAL = "Minimum value should be equal to or smaller than the initial count!";
     public static final String ERROR_MAX_VAL = "Maximum value should be equal to or greater than the initial count!";
     public static final String ERROR_VAL = "Value should be between minimum and maximum values!";
     public static final String ERROR__RESET = "Reset count must be between minVal and maxVal!";
-    //Error messages
-    private static final String ERROR_BOUNDS = "Counter bounds exceeded!";
+    public static final String ERROR_BOUND_POLICY = "Bound policy should not be null!";
+    public static final String ERROR_BOUNDS = "Counter bounds exceeded!";
     //The initial count the Counter was set to
     private int initialCount;
     //The main counter
@@ -27,6 +28,8 @@ public class Counter {
     private int hop;
     //Minimum and maximum values
     private int minVal, maxVal;
+    //Behaviour when an update would exceed the bounds
+    private BoundPolicy boundPolicy = BoundPolicy.THROW;
 
     /**
      * Default constructor. Puts the initial count on 0 (like a regular Integer), the hop on 1 and
@@ -79,6 +82,21 @@ public class Counter {
         this.maxVal = maxVal;
     }
 
+    /**
+     * Constructor to create a counter that starts from a set count, to set the size of hops, to set
+     * minimum and maximum counter values and to set the behaviour when those values would be exceeded.
+     *
+     * @param count       the count to start from
+     * @param hop         the default in- or decrement value
+     * @param minVal      the minimum value of the counter
+     * @param maxVal      the maximum value of the counter
+     * @param boundPolicy the behaviour when an update would exceed the minimum or maximum value
+     */
+    public Counter(int count, int hop, int minVal, int maxVal, BoundPolicy boundPolicy) {
+        this(count, hop, minVal, maxVal);
+        setBoundPolicy(boundPolicy);
+    }
+
     /**
      * Returns the current count.
      *
@@ -184,6 +202,25 @@ public class Counter {
         setMaxVal(maxVal);
     }
 
+    /**
+     * Returns the behaviour when an update would exceed the minimum or maximum value.
+     *
+     * @return the bound policy of the counter
+     */
+    public BoundPolicy getBoundPolicy() {
+        return boundPolicy;
+    }
+
+    /**
+     * Sets the behaviour when an update would exceed the minimum or maximum value.
+     *
+     * @param boundPolicy the bound policy of the counter
+     */
+    public void setBoundPolicy(BoundPolicy boundPolicy) {
+        if (boundPolicy == null) throw new IllegalArgumentException(ERROR_BOUND_POLICY);
+        this.boundPolicy = boundPolicy;
+    }
+
     /**
      * Increments the counter (with the set hop value).
      * <p>
@@ -191,8 +228,7 @@ public class Counter {
      * After method execution: count = 6 (similar to count++!)
      */
     public void increment() {
-        if (count + hop >= minVal && count + hop <= maxVal) this.count += this.hop;
-        else throw new IllegalArgumentException(ERROR_BOUNDS);
+        update((long) count + hop);
     }
 
     /**
@@ -201,8 +237,7 @@ public class Counter {
      * After method execution: count = 4 (similar to count--!)
      */
     public void decrement() {
-        if (count - hop >= minVal && count - hop <= maxVal) this.count -= this.hop;
-        else throw new IllegalArgumentException(ERROR_BOUNDS);
+        update((long) count - hop);
     }
 
     /**
@@ -253,8 +288,7 @@ public class Counter {
      * @param amount value to increment the counter with
      */
     public void incrementBy(int amount) {
-        if (count + amount >= minVal && count + amount <= maxVal) this.count += amount;
-        else throw new IllegalArgumentException(ERROR_BOUNDS);
+        update((long) count + amount);
     }
 
     /**
@@ -263,8 +297,7 @@ public class Counter {
      * @param amount value to decrement the counter with
      */
     public void decrementBy(int amount) {
-        if (count - amount >= minVal && count - amount <= maxVal) this.count -= amount;
-        else throw new IllegalArgumentException(ERROR_BOUNDS);
+        update((long) count - amount);
     }
 
     /**
@@ -313,6 +346,83 @@ public class Counter {
         return temp;
     }
 
+    /**
+     * Tries to increment the counter (with the set hop value). Never throws, regardless of the bound policy.
+     *
+     * @return the outcome of the update
+     */
+    public Status tryIncrement() {
+        return tryUpdate((long) count + hop);
+    }
+
+    /**
+     * Tries to decrement the counter (with the set hop value). Never throws, regardless of the bound policy.
+     *
+     * @return the outcome of the update
+     */
+    public Status tryDecrement() {
+        return tryUpdate((long) count - hop);
+    }
+
+    /**
+     * Tries to increment the counter with a given value (hop not used). Never throws, regardless of the
+     * bound policy.
+     *
+     * @param amount value to increment the counter with
+     * @return the outcome of the update
+     */
+    public Status tryIncrementBy(int amount) {
+        return tryUpdate((long) count + amount);
+    }
+
+    /**
+     * Tries to decrement the counter with a given value (hop not used). Never throws, regardless of the
+     * bound policy.
+     *
+     * @param amount value to decrement the counter with
+     * @return the outcome of the update
+     */
+    public Status tryDecrementBy(int amount) {
+        return tryUpdate((long) count - amount);
+    }
+
+    /**
+     * Moves the counter to a new value, applying the bound policy. Throws when the THROW policy is used
+     * and the new value is out of bounds.
+     *
+     * @param next the new counter value, possibly out of bounds
+     */
+    private void update(long next) {
+        if (tryUpdate(next) == Status.REJECTED && boundPolicy == BoundPolicy.THROW)
+            throw new IllegalArgumentException(ERROR_BOUNDS);
+    }
+
+    /**
+     * Moves the counter to a new value, applying the bound policy.
+     *
+     * @param next the new counter value, possibly out of bounds
+     * @return the outcome of the update
+     */
+    private Status tryUpdate(long next) {
+        if (next >= minVal && next <= maxVal) {
+            this.count = (int) next;
+            return Status.UPDATED;
+        }
+        switch (boundPolicy) {
+            case SATURATE:
+                this.count = next < minVal ? minVal : maxVal;
+                return Status.SATURATED;
+            case WRAP:
+                long range = (long) maxVal - minVal + 1;
+                long offset = (next - minVal) % range;
+                if (offset < 0) offset += range;
+                this.count = (int) (minVal + offset);
+                return Status.WRAPPED;
+            default:
+                return Status.REJECTED;
+        }
+    }
+
     /**
      * Returns the distance from the current count to a given value.
      *
@@ -384,4 +494,25 @@ public class Counter {
         if (initCount) setInitialCount(count);
         resetTo(count);
     }
+
+    /**
+     * Behaviour of a counter when an update would exceed its minimum or maximum value.
+     */
+    public enum BoundPolicy {
+        //Throw an IllegalArgumentException, leaving the count unchanged (default)
+        THROW,
+        //Clamp the count to the exceeded bound
+        SATURATE,
+        //Wrap around to the other bound, as if minVal followed maxVal
+        WRAP,
+        //Silently leave the count unchanged
+        REJECT
+    }
+
+    /**
+     * Outcome of an update of a counter.
+     */
+    public enum Status {
+        UPDATED, SATURATED, WRAPPED, REJECTED
+    }
 }
\ No newline at end of file
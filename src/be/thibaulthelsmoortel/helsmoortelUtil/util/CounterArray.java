@@ -0,0 +1,395 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package be.thibaulthelsmoortel.helsmoortelUtil.util;
+
+import be.thibaulthelsmoortel.helsmoortelUtil.util.Counter.BoundPolicy;
+import be.thibaulthelsmoortel.helsmoortelUtil.util.Counter.Status;
+
+import java.util.Arrays;
+
+import static be.thibaulthelsmoortel.helsmoortelUtil.util.Counter.*;
+
+/**
+ * Fixed size group of bounded {@code long} counters, offering the counting features of {@link LongCounter}
+ * by index.
+ * <p>
+ * Instead of one object per counter, the counts are kept in a single {@code long[]}. As long as all counters
+ * share the same minimum and maximum values, a counter takes 8 bytes. Once bounds are set for an individual
+ * counter, the bounds are kept in two additional arrays (24 bytes per counter).
+ * <p>
+ * Like {@link Counter}, this class is not thread-safe.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class CounterArray {
+
+    public static final String ERROR_SIZE = "Size should not be negative!";
+    //The initial count of every counter
+    private final long initialCount;
+    //The counts, one per counter
+    private final long[] counts;
+    //Default in- or decrement value
+    private long hop;
+    //Minimum and maximum values shared by all counters
+    private long minVal, maxVal;
+    //Minimum and maximum values per counter, null as long as the shared ones are used
+    private long[] minVals, maxVals;
+    //Behaviour when an update would exceed the bounds
+    private BoundPolicy boundPolicy = BoundPolicy.THROW;
+
+    /**
+     * Constructor to create a number of counters starting from 0, with a hop of 1 and the minimum and maximum
+     * values of Longs.
+     *
+     * @param size the number of counters
+     */
+    public CounterArray(int size) {
+        this(size, 0, 1, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Constructor to create a number of counters that start from a set count, to set the size of hops and to
+     * set the minimum and maximum values shared by all counters.
+     *
+     * @param size   the number of counters
+     * @param count  the count to start from
+     * @param hop    the default in- or decrement value
+     * @param minVal the minimum value of the counters
+     * @param maxVal the maximum value of the counters
+     */
+    public CounterArray(int size, long count, long hop, long minVal, long maxVal) {
+        if (size < 0) throw new IllegalArgumentException(ERROR_SIZE);
+        if (count < minVal || count > maxVal) throw new IllegalArgumentException(ERROR_COUNT);
+        this.initialCount = count;
+        this.counts = new long[size];
+        this.hop = hop;
+        this.minVal = minVal;
+        this.maxVal = maxVal;
+        if (count != 0) Arrays.fill(counts, count);
+    }
+
+    /**
+     * Constructor to create a number of counters that start from a set count, to set the size of hops, to set
+     * the minimum and maximum values shared by all counters and to set the behaviour when those values would
+     * be exceeded.
+     *
+     * @param size        the number of counters
+     * @param count       the count to start from
+     * @param hop         the default in- or decrement value
+     * @param minVal      the minimum value of the counters
+     * @param maxVal      the maximum value of the counters
+     * @param boundPolicy the behaviour when an update would exceed the minimum or maximum value
+     */
+    public CounterArray(int size, long count, long hop, long minVal, long maxVal, BoundPolicy boundPolicy) {
+        this(size, count, hop, minVal, maxVal);
+        setBoundPolicy(boundPolicy);
+    }
+
+    /**
+     * Returns the number of counters.
+     *
+     * @return the number of counters
+     */
+    public int size() {
+        return counts.length;
+    }
+
+    /**
+     * Returns the current count of a counter.
+     *
+     * @param index the index of the counter
+     * @return the current counter value
+     */
+    public long getCount(int index) {
+        return counts[index];
+    }
+
+    /**
+     * Sets the count of a counter to a specific number.
+     *
+     * @param index the index of the counter
+     * @param count the new counter value
+     */
+    public void setCount(int index, long count) {
+        if (count >= getMinVal(index) && count <= getMaxVal(index)) counts[index] = count;
+        else throw new IllegalArgumentException(ERROR_COUNT);
+    }
+
+    /**
+     * Returns the initial count of the counters.
+     *
+     * @return the initial counter value
+     */
+    public long getInitialCount() {
+        return initialCount;
+    }
+
+    /**
+     * Returns the default in- and decrement value.
+     *
+     * @return the default in- and decrement value
+     */
+    public long getHop() {
+        return hop;
+    }
+
+    /**
+     * Sets the default in- and decrement value.
+     *
+     * @param hop the default in- and decrement value
+     */
+    public void setHop(long hop) {
+        this.hop = hop;
+    }
+
+    /**
+     * Returns the minimum value of a counter.
+     *
+     * @param index the index of the counter
+     * @return the minimum value of the counter
+     */
+    public long getMinVal(int index) {
+        return minVals == null ? minVal : minVals[index];
+    }
+
+    /**
+     * Returns the maximum value of a counter.
+     *
+     * @param index the index of the counter
+     * @return the maximum value of the counter
+     */
+    public long getMaxVal(int index) {
+        return maxVals == null ? maxVal : maxVals[index];
+    }
+
+    /**
+     * Sets the minimum and maximum values of a single counter. The first call allocates the arrays holding
+     * the bounds of every counter.
+     *
+     * @param index  the index of the counter
+     * @param minVal the minimum value of the counter
+     * @param maxVal the maximum value of the counter
+     */
+    public void setMinAndMaxVal(int index, long minVal, long maxVal) {
+        if (minVal > initialCount) throw new IllegalArgumentException(ERROR_MIN_VAL);
+        if (maxVal < initialCount) throw new IllegalArgumentException(ERROR_MAX_VAL);
+        if (minVals == null) {
+            minVals = new long[counts.length];
+            maxVals = new long[counts.length];
+            Arrays.fill(minVals, this.minVal);
+            Arrays.fill(maxVals, this.maxVal);
+        }
+        minVals[index] = minVal;
+        maxVals[index] = maxVal;
+    }
+
+    /**
+     * Sets the minimum and maximum values of all counters, dropping any bounds set for individual counters.
+     *
+     * @param minVal the minimum value of the counters
+     * @param maxVal the maximum value of the counters
+     */
+    public void setMinAndMaxVal(long minVal, long maxVal) {
+        if (minVal > initialCount) throw new IllegalArgumentException(ERROR_MIN_VAL);
+        if (maxVal < initialCount) throw new IllegalArgumentException(ERROR_MAX_VAL);
+        this.minVal = minVal;
+        this.maxVal = maxVal;
+        this.minVals = null;
+        this.maxVals = null;
+    }
+
+    /**
+     * Returns the behaviour when an update would exceed the minimum or maximum value.
+     *
+     * @return the bound policy of the counters
+     */
+    public BoundPolicy getBoundPolicy() {
+        return boundPolicy;
+    }
+
+    /**
+     * Sets the behaviour when an update would exceed the minimum or maximum value.
+     *
+     * @param boundPolicy the bound policy of the counters
+     */
+    public void setBoundPolicy(BoundPolicy boundPolicy) {
+        if (boundPolicy == null) throw new IllegalArgumentException(ERROR_BOUND_POLICY);
+        this.boundPolicy = boundPolicy;
+    }
+
+    /**
+     * Increments a counter (with the set hop value).
+     *
+     * @param index the index of the counter
+     */
+    public void increment(int index) {
+        update(index, hop, false);
+    }
+
+    /**
+     * Decrements a counter (with the set hop value).
+     *
+     * @param index the index of the counter
+     */
+    public void decrement(int index) {
+        update(index, hop, true);
+    }
+
+    /**
+     * Increments a counter with a given value (hop not used).
+     *
+     * @param index  the index of the counter
+     * @param amount value to increment the counter with
+     */
+    public void incrementBy(int index, long amount) {
+        update(index, amount, false);
+    }
+
+    /**
+     * Decrements a counter with a given value (hop not used).
+     *
+     * @param index  the index of the counter
+     * @param amount value to decrement the counter with
+     */
+    public void decrementBy(int index, long amount) {
+        update(index, amount, true);
+    }
+
+    /**
+     * Increments a counter and returns the new count.
+     *
+     * @param index the index of the counter
+     * @return the count after incrementing
+     */
+    public long incrementThenGet(int index) {
+        increment(index);
+        return counts[index];
+    }
+
+    /**
+     * Decrements a counter and returns the new count.
+     *
+     * @param index the index of the counter
+     * @return the count after decrementing
+     */
+    public long decrementThenGet(int index) {
+        decrement(index);
+        return counts[index];
+    }
+
+    /**
+     * Tries to increment a counter (with the set hop value). Never throws, regardless of the bound policy.
+     *
+     * @param index the index of the counter
+     * @return the outcome of the update
+     */
+    public Status tryIncrement(int index) {
+        return tryUpdate(index, hop, false);
+    }
+
+    /**
+     * Tries to decrement a counter (with the set hop value). Never throws, regardless of the bound policy.
+     *
+     * @param index the index of the counter
+     * @return the outcome of the update
+     */
+    public Status tryDecrement(int index) {
+        return tryUpdate(index, hop, true);
+    }
+
+    /**
+     * Tries to increment a counter with a given value (hop not used). Never throws, regardless of the
+     * bound policy.
+     *
+     * @param index  the index of the counter
+     * @param amount value to increment the counter with
+     * @return the outcome of the update
+     */
+    public Status tryIncrementBy(int index, long amount) {
+        return tryUpdate(index, amount, false);
+    }
+
+    /**
+     * Tries to decrement a counter with a given value (hop not used). Never throws, regardless of the
+     * bound policy.
+     *
+     * @param index  the index of the counter
+     * @param amount value to decrement the counter with
+     * @return the outcome of the update
+     */
+    public Status tryDecrementBy(int index, long amount) {
+        return tryUpdate(index, amount, true);
+    }
+
+    /**
+     * Resets a counter to the initial count.
+     *
+     * @param index the index of the counter
+     */
+    public void reset(int index) {
+        counts[index] = initialCount;
+    }
+
+    /**
+     * Resets a counter to a new value (does not change the initial count).
+     *
+     * @param index the index of the counter
+     * @param count the new counter value to reset the counter to
+     */
+    public void resetTo(int index, long count) {
+        if (count >= getMinVal(index) && count <= getMaxVal(index)) counts[index] = count;
+        else throw new IllegalArgumentException(ERROR__RESET);
+    }
+
+    /**
+     * Resets all counters to the initial count.
+     */
+    public void resetAll() {
+        Arrays.fill(counts, initialCount);
+    }
+
+    /**
+     * Returns the sum of the counts of all counters.
+     *
+     * @return the sum of all counts
+     * @throws ArithmeticException when the sum does not fit in a {@code long}
+     */
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < counts.length; i++) {
+            long next = sum + counts[i];
+            if (LongCounter.overflows(sum, counts[i], false, next)) throw new ArithmeticException(Math.ERROR_OVERFLOW);
+            sum = next;
+        }
+        return sum;
+    }
+
+    private void update(int index, long amount, boolean subtract) {
+        if (tryUpdate(index, amount, subtract) == Status.REJECTED && boundPolicy == BoundPolicy.THROW)
+            throw new IllegalArgumentException(ERROR_BOUNDS);
+    }
+
+    private Status tryUpdate(int index, long amount, boolean subtract) {
+        long count = counts[index];
+        long next = subtract ? count - amount : count + amount;
+        long min = getMinVal(index), max = getMaxVal(index);
+        boolean overflow = LongCounter.overflows(count, amount, subtract, next);
+        if (!overflow && next >= min && next <= max) {
+            counts[index] = next;
+            return Status.UPDATED;
+        }
+        switch (boundPolicy) {
+            case SATURATE:
+                counts[index] = LongCounter.isAbove(amount, subtract, next, overflow, max) ? max : min;
+                return Status.SATURATED;
+            case WRAP:
+                counts[index] = LongCounter.wrap(count, amount, subtract, min, max);
+                return Status.WRAPPED;
+            default:
+                return Status.REJECTED;
+        }
+    }
+}
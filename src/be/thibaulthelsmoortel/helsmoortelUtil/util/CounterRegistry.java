@@ -0,0 +1,246 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package be.thibaulthelsmoortel.helsmoortelUtil.util;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of named {@link AtomicCounter}s, allowing counters to be looked up and inspected at runtime.
+ * <p>
+ * Counters are kept in a concurrent map: looking up an existing counter does not lock, and once a counter is
+ * obtained, updating it never touches the registry again. A {@link Snapshot} of all counters can be taken at
+ * any time without stopping the threads updating them, and exported in a line-oriented text format.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class CounterRegistry {
+
+    public static final String ERROR_NAME = "Counter name should not be empty or contain whitespace!";
+    public static final String ERROR_NOT_FOUND = "Snapshot holds no counter with that name!";
+    private static CounterRegistry classInstance = new CounterRegistry();
+
+    private final ConcurrentHashMap<String, AtomicCounter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the registry shared by the whole application.
+     *
+     * @return the shared registry
+     */
+    public static CounterRegistry getInstance() {
+        return classInstance;
+    }
+
+    /**
+     * Returns the counter with a given name, creating a default counter when there is none yet.
+     *
+     * @param name the name of the counter
+     * @return the counter with the given name
+     */
+    public AtomicCounter counter(String name) {
+        if (name == null) throw new IllegalArgumentException(ERROR_NAME);
+        AtomicCounter counter = counters.get(name);
+        if (counter != null) return counter;
+        validateName(name);
+        return counters.computeIfAbsent(name, key -> new AtomicCounter());
+    }
+
+    /**
+     * Returns the counter with a given name, creating it with the given settings when there is none yet.
+     * The settings of an existing counter are not changed.
+     *
+     * @param name   the name of the counter
+     * @param count  the count to start from
+     * @param hop    the default in- or decrement value
+     * @param minVal the minimum value of the counter
+     * @param maxVal the maximum value of the counter
+     * @return the counter with the given name
+     */
+    public AtomicCounter counter(String name, int count, int hop, int minVal, int maxVal) {
+        if (name == null) throw new IllegalArgumentException(ERROR_NAME);
+        AtomicCounter counter = counters.get(name);
+        if (counter != null) return counter;
+        validateName(name);
+        return counters.computeIfAbsent(name, key -> new AtomicCounter(count, hop, minVal, maxVal));
+    }
+
+    /**
+     * Returns whether a counter with a given name exists.
+     *
+     * @param name the name of the counter
+     * @return {@code boolean} indicating if the counter exists
+     */
+    public boolean contains(String name) {
+        return counters.containsKey(name);
+    }
+
+    /**
+     * Removes the counter with a given name from the registry.
+     *
+     * @param name the name of the counter
+     * @return the removed counter, null if there was none
+     */
+    public AtomicCounter remove(String name) {
+        return counters.remove(name);
+    }
+
+    /**
+     * Returns the names of all counters.
+     *
+     * @return the names of all counters
+     */
+    public Set<String> names() {
+        return counters.keySet();
+    }
+
+    /**
+     * Returns the number of counters.
+     *
+     * @return the number of counters
+     */
+    public int size() {
+        return counters.size();
+    }
+
+    /**
+     * Takes a snapshot of all counters. Every count is read atomically, but counters updated while the snapshot
+     * is taken may show either their old or their new count.
+     *
+     * @return the snapshot of all counters, sorted by name
+     */
+    public Snapshot snapshot() {
+        long timestamp = System.currentTimeMillis();
+        //The map may change while iterating, so collect first and trim afterwards
+        String[] names = new String[counters.size() + 16];
+        int[] counts = new int[names.length];
+        int size = 0;
+        for (Map.Entry<String, AtomicCounter> entry : counters.entrySet()) {
+            if (size == names.length) {
+                names = Arrays.copyOf(names, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            names[size] = entry.getKey();
+            counts[size] = entry.getValue().getCount();
+            size++;
+        }
+        return new Snapshot(timestamp, names, counts, size);
+    }
+
+    private static void validateName(String name) {
+        if (name.isEmpty()) throw new IllegalArgumentException(ERROR_NAME);
+        for (int i = 0; i < name.length(); i++) {
+            if (Character.isWhitespace(name.charAt(i))) throw new IllegalArgumentException(ERROR_NAME);
+        }
+    }
+
+    /**
+     * Point-in-time copy of the counts of a registry.
+     */
+    public static final class Snapshot {
+
+        private final long timestamp;
+        private final String[] names;
+        private final int[] counts;
+
+        private Snapshot(long timestamp, String[] names, int[] counts, int size) {
+            this.timestamp = timestamp;
+            //Sort by name through an index, keeping names and counts together
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> names[a].compareTo(names[b]));
+            this.names = new String[size];
+            this.counts = new int[size];
+            for (int i = 0; i < size; i++) {
+                this.names[i] = names[order[i]];
+                this.counts[i] = counts[order[i]];
+            }
+        }
+
+        /**
+         * Returns the time the snapshot was taken, in milliseconds since the epoch.
+         *
+         * @return the time the snapshot was taken
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        /**
+         * Returns the number of counters in the snapshot.
+         *
+         * @return the number of counters
+         */
+        public int size() {
+            return names.length;
+        }
+
+        /**
+         * Returns the name of the counter at a given position.
+         *
+         * @param index the position of the counter
+         * @return the name of the counter
+         */
+        public String getName(int index) {
+            return names[index];
+        }
+
+        /**
+         * Returns the count of the counter at a given position.
+         *
+         * @param index the position of the counter
+         * @return the count of the counter
+         */
+        public int getCount(int index) {
+            return counts[index];
+        }
+
+        /**
+         * Returns the count of the counter with a given name.
+         *
+         * @param name the name of the counter
+         * @return the count of the counter
+         */
+        public int getCount(String name) {
+            int index = Arrays.binarySearch(names, name);
+            if (index < 0) throw new IllegalArgumentException(ERROR_NOT_FOUND);
+            return counts[index];
+        }
+
+        /**
+         * Writes the snapshot in a line-oriented text format: a comment line holding the timestamp, followed by
+         * one line per counter holding its name and count, separated by a space.
+         * <pre>
+         * # timestamp 1476789123456
+         * requests.total 1024
+         * sessions.active 12
+         * </pre>
+         *
+         * @param out the destination to write to
+         * @throws IOException when writing fails
+         */
+        public void writeTo(Appendable out) throws IOException {
+            out.append("# timestamp ").append(Long.toString(timestamp)).append('\n');
+            for (int i = 0; i < names.length; i++) {
+                out.append(names[i]).append(' ').append(Integer.toString(counts[i])).append('\n');
+            }
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(32 + names.length * 24);
+            try {
+                writeTo(sb);
+            } catch (IOException e) {
+                //StringBuilder never throws
+                throw new IllegalStateException(e);
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package be.thibaulthelsmoortel.helsmoortelUtil.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Exponentially weighted moving mean and variance with time-based decay, for example to show live latencies.
+ * <p>
+ * The weight of a value halves every half-life after it was added, so the statistics follow recent values
+ * regardless of how often values are added. Values added at (nearly) the same time simply count equally, so bursts
+ * are handled correctly. Mean and variance are weighted like in {@link StatsAccumulator}, but with decaying weights.
+ * <p>
+ * Instances are thread-safe and lock-free: the statistics are kept in an immutable state, replaced by a single
+ * compare-and-set on every update, so reading them is a single volatile read. To track many keys (for example
+ * one per endpoint), {@link EwmaTable} keeps the same statistics in primitive arrays.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class EwmaStats {
+
+    public static final String ERROR_HALF_LIFE = "Half-life should be positive!";
+
+    private static final State EMPTY = new State(0L, 0.0, 0.0, 0.0);
+
+    //Natural logarithm of 2 divided by the half-life in nanoseconds
+    private final double decayRate;
+    private final AtomicReference<State> state = new AtomicReference<>(EMPTY);
+
+    /**
+     * Constructor to create statistics whose weights halve every given half-life.
+     *
+     * @param halfLife the half-life of the weights
+     * @param unit     the unit of the half-life
+     */
+    public EwmaStats(long halfLife, TimeUnit unit) {
+        this.decayRate = decayRate(unit.toNanos(halfLife));
+    }
+
+    /**
+     * Adds a value at the current time.
+     *
+     * @param value the value to add
+     */
+    public void add(double value) {
+        add(value, System.nanoTime());
+    }
+
+    /**
+     * Adds a value at a given time.
+     *
+     * @param value the value to add
+     * @param nanos the time of the value, as returned by {@link System#nanoTime()}
+     */
+    public void add(double value, long nanos) {
+        for (;;) {
+            State current = state.get();
+            if (state.compareAndSet(current, current.add(value, nanos, decayRate))) return;
+        }
+    }
+
+    /**
+     * Returns the weighted average of the values, NaN if no such value.
+     *
+     * @return the weighted average
+     */
+    public double mean() {
+        State current = state.get();
+        return current.weight == 0.0 ? Double.NaN : current.mean;
+    }
+
+    /**
+     * Returns the weighted (population) variance of the values, NaN if no such value.
+     *
+     * @return the weighted variance
+     */
+    public double var() {
+        State current = state.get();
+        return current.weight == 0.0 ? Double.NaN : java.lang.Math.max(0.0, current.s) / current.weight;
+    }
+
+    /**
+     * Returns the weighted (population) standard deviation of the values, NaN if no such value.
+     *
+     * @return the weighted standard deviation
+     */
+    public double stddev() {
+        return java.lang.Math.sqrt(var());
+    }
+
+    /**
+     * Returns the total weight of the values as of the last update; a value added just now weighs 1.
+     *
+     * @return the total weight
+     */
+    public double weight() {
+        return state.get().weight;
+    }
+
+    /**
+     * Forgets all values added so far.
+     */
+    public void reset() {
+        state.set(EMPTY);
+    }
+
+    static double decayRate(long halfLifeNanos) {
+        if (halfLifeNanos <= 0) throw new IllegalArgumentException(ERROR_HALF_LIFE);
+        return java.lang.Math.log(2) / halfLifeNanos;
+    }
+
+    /**
+     * Immutable statistics as of the time of the last value.
+     */
+    static final class State {
+
+        final long time;
+        final double weight;
+        final double mean;
+        //Sum of the weighted squared differences from the mean
+        final double s;
+
+        State(long time, double weight, double mean, double s) {
+            this.time = time;
+            this.weight = weight;
+            this.mean = mean;
+            this.s = s;
+        }
+
+        /**
+         * Decays the weight of the previous values to the time of the new value and adds it with weight 1, using
+         * the weighted variant of Welford's algorithm. A value older than the last one is decayed to the time of
+         * the last one instead.
+         */
+        State add(double value, long nanos, double decayRate) {
+            if (weight == 0.0) return new State(nanos, 1.0, value, 0.0);
+            long elapsed = nanos - time;
+            double valueWeight = 1.0, decay = 1.0;
+            if (elapsed > 0) decay = java.lang.Math.exp(-elapsed * decayRate);
+            else valueWeight = java.lang.Math.exp(elapsed * decayRate);
+            double newWeight = weight * decay + valueWeight;
+            double delta = value - mean;
+            double newMean = mean + delta * valueWeight / newWeight;
+            double newS = s * decay + valueWeight * delta * (value - newMean);
+            return new State(elapsed > 0 ? nanos : time, newWeight, newMean, newS);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package be.thibaulthelsmoortel.helsmoortelUtil.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static be.thibaulthelsmoortel.helsmoortelUtil.util.CounterArray.ERROR_SIZE;
+
+/**
+ * Fixed number of {@link EwmaStats}, indexed from 0, kept in a single primitive array instead of an object per
+ * key. Useful to track thousands of keys (for example one per endpoint or per client) without the overhead of
+ * thousands of objects.
+ * <p>
+ * Every entry takes five longs: a version, the time of the last value, and the weight, mean and weighted squared
+ * differences stored as raw double bits. Updates of an entry are guarded by its version, odd while an update is
+ * in progress (a sequence lock): concurrent writers of the same entry wait for each other, writers of different
+ * entries never do. Reads take no lock at all; they retry when an update of the entry happened meanwhile.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class EwmaTable {
+
+    private static final int STRIDE = 5;
+    private static final int VERSION = 0, TIME = 1, WEIGHT = 2, MEAN = 3, S = 4;
+
+    //Natural logarithm of 2 divided by the half-life in nanoseconds
+    private final double decayRate;
+    private final AtomicLongArray data;
+    private final int size;
+
+    /**
+     * Constructor to create a number of statistics whose weights halve every given half-life.
+     *
+     * @param size     the number of statistics
+     * @param halfLife the half-life of the weights
+     * @param unit     the unit of the half-life
+     */
+    public EwmaTable(int size, long halfLife, TimeUnit unit) {
+        if (size < 0) throw new IllegalArgumentException(ERROR_SIZE);
+        this.decayRate = EwmaStats.decayRate(unit.toNanos(halfLife));
+        this.size = size;
+        this.data = new AtomicLongArray(size * STRIDE);
+    }
+
+    /**
+     * Returns the number of statistics.
+     *
+     * @return the number of statistics
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a value to the statistics at an index, at the current time.
+     *
+     * @param index the index of the statistics
+     * @param value the value to add
+     */
+    public void add(int index, double value) {
+        add(index, value, System.nanoTime());
+    }
+
+    /**
+     * Adds a value to the statistics at an index, at a given time.
+     *
+     * @param index the index of the statistics
+     * @param value the value to add
+     * @param nanos the time of the value, as returned by {@link System#nanoTime()}
+     */
+    public void add(int index, double value, long nanos) {
+        int base = base(index);
+        long version = lock(base);
+        try {
+            EwmaStats.State next = read(base).add(value, nanos, decayRate);
+            data.set(base + TIME, next.time);
+            data.set(base + WEIGHT, Double.doubleToRawLongBits(next.weight));
+            data.set(base + MEAN, Double.doubleToRawLongBits(next.mean));
+            data.set(base + S, Double.doubleToRawLongBits(next.s));
+        } finally {
+            data.set(base + VERSION, version + 2);
+        }
+    }
+
+    /**
+     * Returns the weighted average of the values at an index, NaN if no such value.
+     *
+     * @param index the index of the statistics
+     * @return the weighted average
+     */
+    public double mean(int index) {
+        EwmaStats.State state = snapshot(index);
+        return state.weight == 0.0 ? Double.NaN : state.mean;
+    }
+
+    /**
+     * Returns the weighted (population) variance of the values at an index, NaN if no such value.
+     *
+     * @param index the index of the statistics
+     * @return the weighted variance
+     */
+    public double var(int index) {
+        EwmaStats.State state = snapshot(index);
+        return state.weight == 0.0 ? Double.NaN : java.lang.Math.max(0.0, state.s) / state.weight;
+    }
+
+    /**
+     * Returns the weighted (population) standard deviation of the values at an index, NaN if no such value.
+     *
+     * @param index the index of the statistics
+     * @return the weighted standard deviation
+     */
+    public double stddev(int index) {
+        return java.lang.Math.sqrt(var(index));
+    }
+
+    /**
+     * Returns the total weight of the values at an index as of its last update.
+     *
+     * @param index the index of the statistics
+     * @return the total weight
+     */
+    public double weight(int index) {
+        return snapshot(index).weight;
+    }
+
+    /**
+     * Forgets all values added at an index.
+     *
+     * @param index the index of the statistics
+     */
+    public void reset(int index) {
+        int base = base(index);
+        long version = lock(base);
+        data.set(base + TIME, 0L);
+        data.set(base + WEIGHT, 0L);
+        data.set(base + MEAN, 0L);
+        data.set(base + S, 0L);
+        data.set(base + VERSION, version + 2);
+    }
+
+    private int base(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(String.valueOf(index));
+        return index * STRIDE;
+    }
+
+    /**
+     * Waits until no update of the entry is in progress and marks it as being updated.
+     *
+     * @return the version to restore, incremented by 2, once the update is done
+     */
+    private long lock(int base) {
+        for (;;) {
+            long version = data.get(base + VERSION);
+            if ((version & 1) == 0 && data.compareAndSet(base + VERSION, version, version + 1)) return version;
+            Thread.yield();
+        }
+    }
+
+    private EwmaStats.State snapshot(int index) {
+        int base = base(index);
+        for (;;) {
+            long version = data.get(base + VERSION);
+            if ((version & 1) != 0) {
+                Thread.yield();
+                continue;
+            }
+            EwmaStats.State state = read(base);
+            if (data.get(base + VERSION) == version) return state;
+        }
+    }
+
+    private EwmaStats.State read(int base) {
+        return new EwmaStats.State(data.get(base + TIME), Double.longBitsToDouble(data.get(base + WEIGHT)),
+                Double.longBitsToDouble(data.get(base + MEAN)), Double.longBitsToDouble(data.get(base + S)));
+    }
+}
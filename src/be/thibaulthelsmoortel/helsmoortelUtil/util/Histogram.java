@@ -0,0 +1,492 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package be.thibaulthelsmoortel.helsmoortelUtil.util;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram counting values into buckets, to capture the distribution of values next to the moments of
+ * {@link Stats}.
+ * <p>
+ * Three bucket layouts are available:
+ * <ul>
+ * <li>{@link #fixedWidth(double, double, int)}: buckets of equal width, found with a single multiplication;</li>
+ * <li>{@link #logLinear(long, int)}: buckets whose width doubles every power of two (like an HDR histogram), so
+ * every bucket has the same relative precision, found with a few bit operations;</li>
+ * <li>{@link #explicit(double...)}: buckets between given boundaries, found with a binary search.</li>
+ * </ul>
+ * Besides the regular buckets, bucket 0 counts the values below the lowest boundary (underflow) and the last
+ * bucket counts the values from the highest boundary on (overflow).
+ * <p>
+ * Histograms are thread-safe. Counts are kept in a primitive array updated atomically; for values recorded by
+ * many threads at once, {@link #striped(int)} spreads the counts over several padded copies of the array, one of
+ * which is picked per thread, and sums them when read. Reads are not atomic snapshots while values are being
+ * recorded.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class Histogram {
+
+    public static final String ERROR_BOUNDS = "Lowest boundary should be below the highest one!";
+    public static final String ERROR_BUCKETS = "Number of buckets should be positive!";
+    public static final String ERROR_PRECISION = "Significant bits should be between 1 and 20!";
+    public static final String ERROR_BOUNDARIES = "Boundaries should be strictly increasing!";
+    public static final String ERROR_STRIPES = "Number of stripes should be positive!";
+    public static final String ERROR_COUNT = "Count should not be negative!";
+    public static final String ERROR_LAYOUT = "Only histograms with the same buckets can be merged!";
+    public static final String ERROR_PERCENTILE = Stats.ERROR_PERCENTILE;
+    //Longs between the stripes, so that two stripes never share a cache line
+    private static final int PADDING = 16;
+    //Per thread stripe selector, changed on contention
+    private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(
+            () -> new int[]{ThreadLocalRandom.current().nextInt() | 1});
+
+    private final Layout layout;
+    //Number of buckets, including underflow and overflow
+    private final int buckets;
+    private final int stripeMask;
+    private final int stride;
+    private final AtomicLongArray counts;
+
+    private Histogram(Layout layout, int stripes) {
+        this.layout = layout;
+        this.buckets = layout.buckets() + 2;
+        this.stripeMask = stripes - 1;
+        this.stride = stripes == 1 ? buckets : buckets + PADDING;
+        this.counts = new AtomicLongArray(stride * stripes);
+    }
+
+    /**
+     * Creates a histogram with a number of buckets of equal width between two boundaries.
+     * Example: {@code fixedWidth(0, 100, 10)} counts values in [0, 10), [10, 20), ..., [90, 100).
+     *
+     * @param lowest  the lower boundary of the first bucket
+     * @param highest the upper boundary of the last bucket
+     * @param buckets the number of buckets
+     * @return the histogram
+     */
+    public static Histogram fixedWidth(double lowest, double highest, int buckets) {
+        if (!(lowest < highest) || Double.isInfinite(highest - lowest))
+            throw new IllegalArgumentException(ERROR_BOUNDS);
+        if (buckets <= 0) throw new IllegalArgumentException(ERROR_BUCKETS);
+        return new Histogram(new FixedWidth(lowest, highest, buckets), 1);
+    }
+
+    /**
+     * Creates a histogram with buckets for the values from 0 up to a highest value, whose width doubles every
+     * power of two. Every bucket is narrower than the values in it divided by 2^(significantBits - 1); below
+     * 2^significantBits, every value has its own bucket. Example: {@code logLinear(3_600_000_000_000L, 7)}
+     * records latencies in nanoseconds up to an hour with a precision of 1.6%, in about 2350 buckets.
+     * Doubles are truncated towards 0.
+     *
+     * @param highest         the highest value to be recorded
+     * @param significantBits the number of significant bits kept per value
+     * @return the histogram
+     */
+    public static Histogram logLinear(long highest, int significantBits) {
+        if (highest <= 0) throw new IllegalArgumentException(ERROR_BOUNDS);
+        if (significantBits < 1 || significantBits > 20) throw new IllegalArgumentException(ERROR_PRECISION);
+        return new Histogram(new LogLinear(highest, significantBits), 1);
+    }
+
+    /**
+     * Creates a histogram with buckets between given boundaries. Bucket i (counting from 1) counts the values
+     * from boundaries[i - 1] up to, but not including, boundaries[i].
+     *
+     * @param boundaries the strictly increasing boundaries of the buckets
+     * @return the histogram
+     */
+    public static Histogram explicit(double... boundaries) {
+        if (boundaries.length < 2) throw new IllegalArgumentException(ERROR_BUCKETS);
+        for (int i = 1; i < boundaries.length; i++) {
+            if (!(boundaries[i - 1] < boundaries[i])) throw new IllegalArgumentException(ERROR_BOUNDARIES);
+        }
+        return new Histogram(new Explicit(boundaries.clone()), 1);
+    }
+
+    /**
+     * Returns a new, empty histogram with the same buckets, whose counts are spread over a number of stripes to
+     * let many threads record values at once. The number of stripes is rounded down to a power of two;
+     * the number of available processors is a good choice.
+     *
+     * @param stripes the number of stripes
+     * @return the striped histogram
+     */
+    public Histogram striped(int stripes) {
+        if (stripes <= 0) throw new IllegalArgumentException(ERROR_STRIPES);
+        return new Histogram(layout, Integer.highestOneBit(stripes));
+    }
+
+    /**
+     * Counts a value.
+     *
+     * @param value the value to count
+     */
+    public void record(double value) {
+        add(layout.index(value), 1);
+    }
+
+    /**
+     * Counts a value a number of times.
+     *
+     * @param value the value to count
+     * @param count the number of times to count the value
+     */
+    public void record(double value, long count) {
+        if (count < 0) throw new IllegalArgumentException(ERROR_COUNT);
+        if (count != 0) add(layout.index(value), count);
+    }
+
+    /**
+     * Counts a value.
+     *
+     * @param value the value to count
+     */
+    public void record(long value) {
+        add(layout.index(value), 1);
+    }
+
+    /**
+     * Counts all values in the array a[].
+     *
+     * @param a array of double values
+     */
+    public void recordAll(double[] a) {
+        for (int i = 0; i < a.length; i++) {
+            add(layout.index(a[i]), 1);
+        }
+    }
+
+    /**
+     * Returns the number of buckets, including the underflow and overflow buckets.
+     *
+     * @return the number of buckets
+     */
+    public int bucketCount() {
+        return buckets;
+    }
+
+    /**
+     * Returns the index of the bucket counting a value.
+     *
+     * @param value the value
+     * @return the index of the bucket
+     */
+    public int bucketIndex(double value) {
+        return layout.index(value);
+    }
+
+    /**
+     * Returns the lowest value counted by a bucket, -infinity for the underflow bucket.
+     *
+     * @param bucket the index of the bucket
+     * @return the lower boundary of the bucket
+     */
+    public double lowerBound(int bucket) {
+        checkBucket(bucket);
+        return bucket == 0 ? Double.NEGATIVE_INFINITY : layout.boundary(bucket - 1);
+    }
+
+    /**
+     * Returns the upper boundary of a bucket, which is no longer counted by it, +infinity for the overflow
+     * bucket.
+     *
+     * @param bucket the index of the bucket
+     * @return the upper boundary of the bucket
+     */
+    public double upperBound(int bucket) {
+        checkBucket(bucket);
+        return bucket == buckets - 1 ? Double.POSITIVE_INFINITY : layout.boundary(bucket);
+    }
+
+    /**
+     * Returns the number of values counted by a bucket.
+     *
+     * @param bucket the index of the bucket
+     * @return the count of the bucket
+     */
+    public long count(int bucket) {
+        checkBucket(bucket);
+        long count = 0;
+        for (int offset = 0; offset < counts.length(); offset += stride) {
+            count += counts.get(offset + bucket);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the counts of all buckets, including the underflow and overflow buckets.
+     *
+     * @return the counts per bucket
+     */
+    public long[] counts() {
+        long[] result = new long[buckets];
+        for (int offset = 0; offset < counts.length(); offset += stride) {
+            for (int bucket = 0; bucket < buckets; bucket++) {
+                result[bucket] += counts.get(offset + bucket);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the total number of values counted.
+     *
+     * @return the total count
+     */
+    public long totalCount() {
+        long total = 0;
+        for (long count : counts()) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Returns an estimate of the p-th percentile, NaN if no values were counted. The value is interpolated
+     * linearly within the bucket holding the percentile; values in the underflow or overflow bucket are
+     * estimated by the lowest or highest boundary.
+     *
+     * @param p the percentile, between 0 and 100
+     * @return the estimated percentile
+     */
+    public double percentile(double p) {
+        if (!(p >= 0 && p <= 100)) throw new IllegalArgumentException(ERROR_PERCENTILE);
+        long[] counts = counts();
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) return Double.NaN;
+        double rank = p / 100 * total;
+        long seen = 0;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            if (counts[bucket] == 0) continue;
+            if (seen + counts[bucket] >= rank) {
+                if (bucket == 0) return layout.boundary(0);
+                if (bucket == buckets - 1) return layout.boundary(buckets - 2);
+                double lower = layout.boundary(bucket - 1), upper = layout.boundary(bucket);
+                return lower + (upper - lower) * ((rank - seen) / counts[bucket]);
+            }
+            seen += counts[bucket];
+        }
+        return layout.boundary(buckets - 2);
+    }
+
+    /**
+     * Adds the counts of another histogram with the same buckets to this one.
+     *
+     * @param other the histogram to merge into this one
+     */
+    public void merge(Histogram other) {
+        if (!layout.equals(other.layout)) throw new IllegalArgumentException(ERROR_LAYOUT);
+        long[] otherCounts = other.counts();
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            if (otherCounts[bucket] != 0) add(bucket, otherCounts[bucket]);
+        }
+    }
+
+    /**
+     * Sets the counts of all buckets back to 0.
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    private void add(int bucket, long count) {
+        if (stripeMask == 0) {
+            counts.getAndAdd(bucket, count);
+            return;
+        }
+        int[] probe = PROBE.get();
+        for (;;) {
+            int i = (probe[0] & stripeMask) * stride + bucket;
+            long current = counts.get(i);
+            if (counts.compareAndSet(i, current, current + count)) return;
+            //Contended stripe, move this thread elsewhere
+            probe[0] = StripedCounter.rehash(probe[0]);
+        }
+    }
+
+    private void checkBucket(int bucket) {
+        if (bucket < 0 || bucket >= buckets) throw new IndexOutOfBoundsException(String.valueOf(bucket));
+    }
+
+    /**
+     * Division of the values into buckets. Regular buckets are indexed from 1, between the boundaries 0 up to
+     * {@link #buckets()}.
+     */
+    private abstract static class Layout {
+
+        abstract int buckets();
+
+        abstract double boundary(int i);
+
+        abstract int index(double value);
+
+        int index(long value) {
+            return index((double) value);
+        }
+    }
+
+    private static final class FixedWidth extends Layout {
+
+        private final double lowest, highest;
+        private final int buckets;
+        private final double scale, width;
+
+        private FixedWidth(double lowest, double highest, int buckets) {
+            this.lowest = lowest;
+            this.highest = highest;
+            this.buckets = buckets;
+            this.scale = buckets / (highest - lowest);
+            this.width = (highest - lowest) / buckets;
+        }
+
+        @Override
+        int buckets() {
+            return buckets;
+        }
+
+        @Override
+        double boundary(int i) {
+            return i == buckets ? highest : lowest + i * width;
+        }
+
+        @Override
+        int index(double value) {
+            if (value < lowest) return 0;
+            if (!(value < highest)) return buckets + 1;
+            int i = java.lang.Math.min(buckets, (int) ((value - lowest) * scale) + 1);
+            //Rounding may put a value next to a boundary in the neighbouring bucket, the boundaries decide
+            while (i > 1 && value < boundary(i - 1)) i--;
+            while (i < buckets && !(value < boundary(i))) i++;
+            return i;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof FixedWidth)) return false;
+            FixedWidth other = (FixedWidth) o;
+            return lowest == other.lowest && highest == other.highest && buckets == other.buckets;
+        }
+
+        @Override
+        public int hashCode() {
+            return Double.hashCode(lowest) * 31 + Double.hashCode(highest) * 17 + buckets;
+        }
+    }
+
+    private static final class LogLinear extends Layout {
+
+        private final long highest;
+        private final int significantBits;
+        private final int half;
+        private final int buckets;
+
+        private LogLinear(long highest, int significantBits) {
+            this.highest = highest;
+            this.significantBits = significantBits;
+            this.half = 1 << (significantBits - 1);
+            this.buckets = position(highest) + 1;
+        }
+
+        /**
+         * Values below 2^significantBits are their own position. Larger values are shifted right until they have
+         * the significant bits left, in [half, 2 * half); every shift adds half positions.
+         */
+        private int position(long value) {
+            int shift = 64 - Long.numberOfLeadingZeros(value) - significantBits;
+            if (shift <= 0) return (int) value;
+            return shift * half + (int) (value >>> shift);
+        }
+
+        @Override
+        int buckets() {
+            return buckets;
+        }
+
+        @Override
+        double boundary(int i) {
+            if (i == buckets) return highest + 1.0;
+            if (i < 2 * half) return i;
+            int shift = i / half - 1;
+            return (double) ((long) (i - shift * half) << shift);
+        }
+
+        @Override
+        int index(double value) {
+            if (value < 0) return 0;
+            //Values are truncated, so everything below the upper boundary of the last bucket fits
+            if (!(value < highest + 1.0)) return buckets + 1;
+            return index((long) value);
+        }
+
+        @Override
+        int index(long value) {
+            if (value < 0) return 0;
+            if (value > highest) return buckets + 1;
+            return position(value) + 1;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof LogLinear)) return false;
+            LogLinear other = (LogLinear) o;
+            return highest == other.highest && significantBits == other.significantBits;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(highest) * 31 + significantBits;
+        }
+    }
+
+    private static final class Explicit extends Layout {
+
+        private final double[] boundaries;
+
+        private Explicit(double[] boundaries) {
+            this.boundaries = boundaries;
+            for (int i = 0; i < boundaries.length; i++) {
+                boundaries[i] += 0.0;
+            }
+        }
+
+        @Override
+        int buckets() {
+            return boundaries.length - 1;
+        }
+
+        @Override
+        double boundary(int i) {
+            return boundaries[i];
+        }
+
+        @Override
+        int index(double value) {
+            if (Double.isNaN(value)) return boundaries.length;
+            //Adding 0 turns -0.0 into 0.0, which the binary search would otherwise consider smaller
+            int i = Arrays.binarySearch(boundaries, value + 0.0);
+            //A value equal to a boundary belongs to the bucket starting at it
+            return i >= 0 ? i + 1 : -i - 1;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Explicit && Arrays.equals(boundaries, ((Explicit) o).boundaries);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(boundaries);
+        }
+    }
+}
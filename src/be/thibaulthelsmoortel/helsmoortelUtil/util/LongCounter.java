@@ -0,0 +1,553 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package be.thibaulthelsmoortel.helsmoortelUtil.util;
+
+import be.thibaulthelsmoortel.helsmoortelUtil.util.Counter.BoundPolicy;
+import be.thibaulthelsmoortel.helsmoortelUtil.util.Counter.Status;
+
+import java.math.BigInteger;
+
+import static be.thibaulthelsmoortel.helsmoortelUtil.util.Counter.*;
+
+/**
+ * 64-bit variant of {@link Counter}, offering the same counting features for {@code long} values.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class LongCounter {
+
+    //The initial count the LongCounter was set to
+    private long initialCount;
+    //The main counter
+    private long count;
+    //Default in- or decrement value
+    private long hop;
+    //Minimum and maximum values
+    private long minVal, maxVal;
+    //Behaviour when an update would exceed the bounds
+    private BoundPolicy boundPolicy = BoundPolicy.THROW;
+
+    /**
+     * Default constructor. Puts the initial count on 0 (like a regular Long), the hop on 1 and
+     * minimum and maximum values of Longs.
+     */
+    public LongCounter() {
+        this.initialCount = 0;
+        this.count = initialCount;
+        this.hop = 1;
+        this.minVal = Long.MIN_VALUE;
+        this.maxVal = Long.MAX_VALUE;
+    }
+
+    /**
+     * Constructor to create a counter that starts from a set count.
+     *
+     * @param count the count to start from
+     */
+    public LongCounter(long count) {
+        this.initialCount = count;
+        this.count = initialCount;
+        this.hop = 1;
+        this.minVal = Long.MIN_VALUE;
+        this.maxVal = Long.MAX_VALUE;
+    }
+
+    /**
+     * Constructor to create a counter that starts from a set count and to set the size of hops.
+     *
+     * @param count the count to start from
+     * @param hop   the default in- or decrement value
+     */
+    public LongCounter(long count, long hop) {
+        this(count);
+        this.hop = hop;
+    }
+
+    /**
+     * Constructor to create a counter that starts from a set count, to set the size of hops and to set
+     * minimum and maximum counter values.
+     *
+     * @param count  the count to start from
+     * @param hop    the default in- or decrement value
+     * @param minVal the minimum value of the counter
+     * @param maxVal the maximum value of the counter
+     */
+    public LongCounter(long count, long hop, long minVal, long maxVal) {
+        this(count, hop);
+        this.minVal = minVal;
+        this.maxVal = maxVal;
+    }
+
+    /**
+     * Constructor to create a counter that starts from a set count, to set the size of hops, to set
+     * minimum and maximum counter values and to set the behaviour when those values would be exceeded.
+     *
+     * @param count       the count to start from
+     * @param hop         the default in- or decrement value
+     * @param minVal      the minimum value of the counter
+     * @param maxVal      the maximum value of the counter
+     * @param boundPolicy the behaviour when an update would exceed the minimum or maximum value
+     */
+    public LongCounter(long count, long hop, long minVal, long maxVal, BoundPolicy boundPolicy) {
+        this(count, hop, minVal, maxVal);
+        setBoundPolicy(boundPolicy);
+    }
+
+    /**
+     * Returns the current count.
+     *
+     * @return the current counter value
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Sets the count to a specific number.
+     *
+     * @param count the new counter value
+     */
+    public void setCount(long count) {
+        if (count >= minVal && count <= maxVal) this.count = count;
+        else throw new IllegalArgumentException(ERROR_COUNT);
+    }
+
+    /**
+     * Returns the initial count.
+     *
+     * @return the initial counter value
+     */
+    public long getInitialCount() {
+        return initialCount;
+    }
+
+    /**
+     * Sets the initial count. Useful for the reset() method.
+     *
+     * @param initialCount the initial counter value
+     */
+    public void setInitialCount(long initialCount) {
+        if (initialCount >= minVal && initialCount <= maxVal) this.initialCount = initialCount;
+        else throw new IllegalArgumentException(ERROR__RESET);
+    }
+
+    /**
+     * Returns the default in- and decrement value.
+     *
+     * @return the default in- and decrement value
+     */
+    public long getHop() {
+        return hop;
+    }
+
+    /**
+     * Sets the default in- and decrement value.
+     *
+     * @param hop the default in- and decrement value
+     */
+    public void setHop(long hop) {
+        this.hop = hop;
+    }
+
+    /**
+     * Returns the minimum value of the counter.
+     *
+     * @return the minimum value of the counter
+     */
+    public long getMinVal() {
+        return minVal;
+    }
+
+    /**
+     * Sets the minimum value of the counter.
+     *
+     * @param minVal the minimum value of the counter
+     */
+    public void setMinVal(long minVal) {
+        if (minVal <= initialCount) this.minVal = minVal;
+        else throw new IllegalArgumentException(ERROR_MIN_VAL);
+    }
+
+    /**
+     * Returns the maximum value of the counter.
+     *
+     * @return the maximum value of the counter
+     */
+    public long getMaxVal() {
+        return maxVal;
+    }
+
+    /**
+     * Sets the maximum value of the counter.
+     *
+     * @param maxVal the maximum value of the counter
+     */
+    public void setMaxVal(long maxVal) {
+        if (maxVal >= initialCount) this.maxVal = maxVal;
+        else throw new IllegalArgumentException(ERROR_MAX_VAL);
+    }
+
+    /**
+     * Sets the minimum and maximum values of the counter.
+     *
+     * @param minVal the minimum value of the counter
+     * @param maxVal the maximum value of the counter
+     */
+    public void setMinAndMaxVal(long minVal, long maxVal) {
+        setMinVal(minVal);
+        setMaxVal(maxVal);
+    }
+
+    /**
+     * Returns the behaviour when an update would exceed the minimum or maximum value.
+     *
+     * @return the bound policy of the counter
+     */
+    public BoundPolicy getBoundPolicy() {
+        return boundPolicy;
+    }
+
+    /**
+     * Sets the behaviour when an update would exceed the minimum or maximum value.
+     *
+     * @param boundPolicy the bound policy of the counter
+     */
+    public void setBoundPolicy(BoundPolicy boundPolicy) {
+        if (boundPolicy == null) throw new IllegalArgumentException(ERROR_BOUND_POLICY);
+        this.boundPolicy = boundPolicy;
+    }
+
+    /**
+     * Increments the counter (with the set hop value).
+     * <p>
+     * Example: count = 5; hop = 1 (default hop value)
+     * After method execution: count = 6 (similar to count++!)
+     */
+    public void increment() {
+        update(hop, false);
+    }
+
+    /**
+     * Decrements the counter (with the set hop value).
+     * Example: count = 5; hop = 1 (default hop value)
+     * After method execution: count = 4 (similar to count--!)
+     */
+    public void decrement() {
+        update(hop, true);
+    }
+
+    /**
+     * Increments the counter and returns the new count.
+     *
+     * @return the count after incrementing
+     */
+    public long incrementThenGet() {
+        increment();
+        return count;
+    }
+
+    /**
+     * Decrements the counter and returns the new count.
+     *
+     * @return the count after decrementing
+     */
+    public long decrementThenGet() {
+        decrement();
+        return count;
+    }
+
+    /**
+     * Returns the count and increments it later.
+     *
+     * @return the count before incrementing
+     */
+    public long getThenIncrement() {
+        long temp = this.count;
+        increment();
+        return temp;
+    }
+
+    /**
+     * Returns the count and decrements it later.
+     *
+     * @return the count before decrementing
+     */
+    public long getThenDecrement() {
+        long temp = this.count;
+        decrement();
+        return temp;
+    }
+
+    /**
+     * Increments the counter with a given value (hop not used).
+     *
+     * @param amount value to increment the counter with
+     */
+    public void incrementBy(long amount) {
+        update(amount, false);
+    }
+
+    /**
+     * Decrements the counter with a given value (hop not used).
+     *
+     * @param amount value to decrement the counter with
+     */
+    public void decrementBy(long amount) {
+        update(amount, true);
+    }
+
+    /**
+     * Increments the counter with a given value (hop not used) and returns the new count.
+     *
+     * @param amount value to increment the counter with
+     * @return the count after incrementing
+     */
+    public long incrementByThenGet(long amount) {
+        incrementBy(amount);
+        return count;
+    }
+
+    /**
+     * Decrements the counter with a given value (hop not used) and returns the new count.
+     *
+     * @param amount value to decrement the counter with
+     * @return the count after decrementing
+     */
+    public long decrementByThenGet(long amount) {
+        decrementBy(amount);
+        return count;
+    }
+
+    /**
+     * Returns the count and increments it with a given value (hop not used) later.
+     *
+     * @param amount value to increment the counter with
+     * @return the count before incrementing
+     */
+    public long getThenIncrementBy(long amount) {
+        long temp = this.count;
+        incrementBy(amount);
+        return temp;
+    }
+
+    /**
+     * Returns the count and decrements it with a given value (hop not used) later.
+     *
+     * @param amount value to decrement the counter with
+     * @return the count before decrementing
+     */
+    public long getThenDecrementBy(long amount) {
+        long temp = this.count;
+        decrementBy(amount);
+        return temp;
+    }
+
+    /**
+     * Tries to increment the counter (with the set hop value). Never throws, regardless of the bound policy.
+     *
+     * @return the outcome of the update
+     */
+    public Status tryIncrement() {
+        return tryUpdate(hop, false);
+    }
+
+    /**
+     * Tries to decrement the counter (with the set hop value). Never throws, regardless of the bound policy.
+     *
+     * @return the outcome of the update
+     */
+    public Status tryDecrement() {
+        return tryUpdate(hop, true);
+    }
+
+    /**
+     * Tries to increment the counter with a given value (hop not used). Never throws, regardless of the
+     * bound policy.
+     *
+     * @param amount value to increment the counter with
+     * @return the outcome of the update
+     */
+    public Status tryIncrementBy(long amount) {
+        return tryUpdate(amount, false);
+    }
+
+    /**
+     * Tries to decrement the counter with a given value (hop not used). Never throws, regardless of the
+     * bound policy.
+     *
+     * @param amount value to decrement the counter with
+     * @return the outcome of the update
+     */
+    public Status tryDecrementBy(long amount) {
+        return tryUpdate(amount, true);
+    }
+
+    /**
+     * Adds or subtracts an amount, applying the bound policy. Throws when the THROW policy is used
+     * and the new value is out of bounds.
+     *
+     * @param amount   the value to add or subtract
+     * @param subtract flag indicating whether to subtract the amount
+     */
+    private void update(long amount, boolean subtract) {
+        if (tryUpdate(amount, subtract) == Status.REJECTED && boundPolicy == BoundPolicy.THROW)
+            throw new IllegalArgumentException(ERROR_BOUNDS);
+    }
+
+    /**
+     * Adds or subtracts an amount, applying the bound policy.
+     *
+     * @param amount   the value to add or subtract
+     * @param subtract flag indicating whether to subtract the amount
+     * @return the outcome of the update
+     */
+    private Status tryUpdate(long amount, boolean subtract) {
+        long next = subtract ? count - amount : count + amount;
+        boolean overflow = overflows(count, amount, subtract, next);
+        if (!overflow && next >= minVal && next <= maxVal) {
+            this.count = next;
+            return Status.UPDATED;
+        }
+        switch (boundPolicy) {
+            case SATURATE:
+                this.count = isAbove(amount, subtract, next, overflow, maxVal) ? maxVal : minVal;
+                return Status.SATURATED;
+            case WRAP:
+                this.count = wrap(count, amount, subtract, minVal, maxVal);
+                return Status.WRAPPED;
+            default:
+                return Status.REJECTED;
+        }
+    }
+
+    /**
+     * Returns whether adding or subtracting an amount overflowed the range of {@code long} values.
+     *
+     * @param count    the value before the update
+     * @param amount   the value added or subtracted
+     * @param subtract flag indicating whether the amount was subtracted
+     * @param next     the (possibly overflowed) value after the update
+     * @return {@code boolean} indicating if the update overflowed
+     */
+    static boolean overflows(long count, long amount, boolean subtract, long next) {
+        if (subtract) return ((count ^ amount) & (count ^ next)) < 0;
+        else return ((count ^ next) & (amount ^ next)) < 0;
+    }
+
+    /**
+     * Returns whether an out of bounds update exceeded the maximum value (rather than the minimum value).
+     *
+     * @param amount   the value added or subtracted
+     * @param subtract flag indicating whether the amount was subtracted
+     * @param next     the (possibly overflowed) value after the update
+     * @param overflow flag indicating whether the update overflowed
+     * @param maxVal   the maximum value
+     * @return {@code boolean} indicating if the maximum value was exceeded
+     */
+    static boolean isAbove(long amount, boolean subtract, long next, boolean overflow, long maxVal) {
+        if (overflow) return subtract ? amount < 0 : amount > 0;
+        else return next > maxVal;
+    }
+
+    /**
+     * Returns the result of adding or subtracting an amount, wrapped around to stay between minimum and
+     * maximum values (as if minVal followed maxVal).
+     *
+     * @param count    the value before the update
+     * @param amount   the value to add or subtract
+     * @param subtract flag indicating whether to subtract the amount
+     * @param minVal   the minimum value
+     * @param maxVal   the maximum value
+     * @return the wrapped value
+     */
+    static long wrap(long count, long amount, boolean subtract, long minVal, long maxVal) {
+        long next = subtract ? count - amount : count + amount;
+        long range = maxVal - minVal + 1;
+        if (range > 0 && !overflows(count, amount, subtract, next)) {
+            long offset = java.lang.Math.floorMod(next, range) - java.lang.Math.floorMod(minVal, range);
+            if (offset < 0) offset += range;
+            return minVal + offset;
+        }
+        //Ranges or results beyond 63 bits, rare enough to not mind the allocations
+        BigInteger min = BigInteger.valueOf(minVal);
+        BigInteger exact = subtract ? BigInteger.valueOf(count).subtract(BigInteger.valueOf(amount))
+                : BigInteger.valueOf(count).add(BigInteger.valueOf(amount));
+        BigInteger fullRange = BigInteger.valueOf(maxVal).subtract(min).add(BigInteger.ONE);
+        return exact.subtract(min).mod(fullRange).add(min).longValue();
+    }
+
+    /**
+     * Returns the distance from the current count to a given value.
+     *
+     * @param value value to check the distance from
+     * @return the distance from the current count to the given value
+     */
+    public long distanceToVal(long value) {
+        long dist = 0;
+        if (value >= minVal && value <= maxVal) dist = count >= value ? count - value : value - count;
+        else throw new IllegalArgumentException(ERROR_VAL);
+        return dist;
+    }
+
+    /**
+     * Returns the distance from the current count to the minimum value.
+     *
+     * @return the distance from the current count to the minimum value
+     */
+    public long distanceToMinVal() {
+        return distanceToVal(minVal);
+    }
+
+    /**
+     * Returns the distance from the current count to the maximum value.
+     *
+     * @return the distance from the current count to the maximum value
+     */
+    public long distanceToMaxVal() {
+        return distanceToVal(maxVal);
+    }
+
+    /**
+     * Returns the current position of the counter as a percentage (where minVal = 0% and maxVal = 100%).
+     *
+     * @return the current position of the counter as a percentage (where minVal = 0% and maxVal = 100%)
+     */
+    public float currentPosition() {
+        long fullDist = minVal + maxVal;
+        return (float) ((count * 100) / fullDist);
+    }
+
+    /**
+     * Resets the counter to its initial count (0 by default).
+     */
+    public void reset() {
+        this.count = initialCount;
+    }
+
+    /**
+     * Resets the counter to a new value (does not change the initial count).
+     *
+     * @param count the new counter value to reset the counter to
+     */
+    public void resetTo(long count) {
+        if (count >= minVal && count <= maxVal) this.count = count;
+        else throw new IllegalArgumentException(ERROR__RESET);
+    }
+
+    /**
+     * Resets the counter to a new value. If the second parameter is true, the initial count will be changed
+     * to this new value (if false, it doesn't).
+     *
+     * @param count     the new counter value to reset the counter to
+     * @param initCount flag indicating whether to set the initial count or not
+     */
+    public void resetTo(long count, boolean initCount) {
+        //If initCount is true, the initial count will be set to the new count
+        // (if not, the regular resetTo() method will be used).
+        if (initCount) setInitialCount(count);
+        resetTo(count);
+    }
+}
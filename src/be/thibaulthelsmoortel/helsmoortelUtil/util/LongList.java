@@ -0,0 +1,234 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package be.thibaulthelsmoortel.helsmoortelUtil.util;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of {@code long} values, stored in a primitive array instead of boxed {@link Long}s.
+ * <p>
+ * A {@code List<Long>} takes 24 bytes or more per value plus a reference, and every access unboxes. This list
+ * takes 8 bytes per value and hands out its backing array through {@link #array()}, so {@link Stats} and
+ * {@link Math} read the values directly. Like {@link java.util.ArrayList}, the array grows by half its size when
+ * full. Lists are not thread-safe.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class LongList {
+
+    public static final String ERROR_CAPACITY = "Capacity should not be negative!";
+    private static final long[] EMPTY = {};
+
+    private long[] values;
+    private int size;
+
+    /**
+     * Default constructor. Creates an empty list.
+     */
+    public LongList() {
+        this.values = EMPTY;
+    }
+
+    /**
+     * Constructor to create an empty list with room for a number of values.
+     *
+     * @param capacity the number of values the list holds before growing
+     */
+    public LongList(int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException(ERROR_CAPACITY);
+        this.values = capacity == 0 ? EMPTY : new long[capacity];
+    }
+
+    /**
+     * Creates a list holding a copy of the given values.
+     *
+     * @param values the values
+     * @return the list
+     */
+    public static LongList of(long... values) {
+        LongList list = new LongList(values.length);
+        list.addAll(values);
+        return list;
+    }
+
+    /**
+     * Adds a value at the end of the list.
+     *
+     * @param value the value to add
+     */
+    public void add(long value) {
+        if (size == values.length) grow(size + 1);
+        values[size++] = value;
+    }
+
+    /**
+     * Adds all values of an array at the end of the list.
+     *
+     * @param a array of values
+     */
+    public void addAll(long[] a) {
+        addAll(a, 0, a.length);
+    }
+
+    /**
+     * Adds a number of values of an array at the end of the list.
+     *
+     * @param a      array of values
+     * @param offset index of the first value to add
+     * @param length the number of values to add
+     */
+    public void addAll(long[] a, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > a.length - length)
+            throw new IndexOutOfBoundsException("offset " + offset + ", length " + length);
+        ensureCapacity(size + length);
+        System.arraycopy(a, offset, values, size, length);
+        size += length;
+    }
+
+    /**
+     * Adds all values of another list at the end of this list.
+     *
+     * @param list the list of values
+     */
+    public void addAll(LongList list) {
+        addAll(list.values, 0, list.size);
+    }
+
+    /**
+     * Returns the value at an index.
+     *
+     * @param index the index of the value
+     * @return the value at the index
+     */
+    public long get(int index) {
+        checkIndex(index);
+        return values[index];
+    }
+
+    /**
+     * Replaces the value at an index.
+     *
+     * @param index the index of the value
+     * @param value the new value
+     * @return the previous value at the index
+     */
+    public long set(int index, long value) {
+        checkIndex(index);
+        long previous = values[index];
+        values[index] = value;
+        return previous;
+    }
+
+    /**
+     * Returns the number of values in the list.
+     *
+     * @return the size of the list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the list holds no values.
+     *
+     * @return {@code boolean} indicating if the list is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all values, keeping the capacity of the list.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Sorts the values in ascending order.
+     */
+    public void sort() {
+        Arrays.sort(values, 0, size);
+    }
+
+    /**
+     * Makes sure the list holds a number of values before growing.
+     *
+     * @param capacity the number of values
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > values.length) grow(capacity);
+    }
+
+    /**
+     * Shrinks the backing array to the size of the list.
+     */
+    public void trimToSize() {
+        if (size < values.length) values = size == 0 ? EMPTY : Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Returns the backing array of the list, without copying it. Only the first {@link #size()} values belong to
+     * the list. The array is no longer the backing array once the list grows.
+     *
+     * @return the backing array
+     */
+    public long[] array() {
+        return values;
+    }
+
+    /**
+     * Returns a copy of the values in the list.
+     *
+     * @return an array holding the values
+     */
+    public long[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    private void grow(int minCapacity) {
+        if (minCapacity < 0) throw new OutOfMemoryError();
+        int capacity = values.length + (values.length >> 1);
+        if (capacity - minCapacity < 0) capacity = java.lang.Math.max(minCapacity, 10);
+        if (capacity < 0) capacity = Integer.MAX_VALUE - 8;
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof LongList)) return false;
+        LongList other = (LongList) o;
+        if (size != other.size) return false;
+        for (int i = 0; i < size; i++) {
+            if (values[i] != other.values[i]) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < size; i++) {
+            hash = 31 * hash + Long.hashCode(values[i]);
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) builder.append(", ");
+            builder.append(values[i]);
+        }
+        return builder.append(']').toString();
+    }
+}
@@ -0,0 +1,348 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package be.thibaulthelsmoortel.helsmoortelUtil.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+import static be.thibaulthelsmoortel.helsmoortelUtil.util.Counter.*;
+
+/**
+ * Bounded {@code long} counter stored in a memory-mapped file, so its count survives restarts of the process.
+ * <p>
+ * The file consists of a single little-endian record of {@value #FILE_SIZE} bytes:
+ * <pre>
+ * offset  0  int   magic number (0x48434E54, "HCNT")
+ * offset  4  int   layout version
+ * offset  8  long  initial count
+ * offset 16  long  hop
+ * offset 24  long  minimum value
+ * offset 32  long  maximum value
+ * offset 40  long  current count
+ * </pre>
+ * Every field is naturally aligned, so other processes (for example a sidecar) can read the count directly
+ * from the file without any form of IPC. Updates within this process are atomic. The count is written to the
+ * page cache on every update; call {@link #force()} or use {@link #setForceInterval(long, TimeUnit)} to also
+ * have it written to the storage device.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class MappedCounter implements Closeable {
+
+    public static final int FILE_SIZE = 48;
+    public static final String ERROR_CORRUPT = "Counter file is corrupt or was not written by a MappedCounter!";
+    public static final String ERROR_CLOSED = "Counter is closed!";
+    private static final int MAGIC = 0x48434E54;
+    private static final int VERSION = 1;
+    private static final int INITIAL_COUNT_OFFSET = 8;
+    private static final int HOP_OFFSET = 16;
+    private static final int MIN_VAL_OFFSET = 24;
+    private static final int MAX_VAL_OFFSET = 32;
+    private static final int COUNT_OFFSET = 40;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long initialCount;
+    private final long hop;
+    private final long minVal, maxVal;
+    //Minimum time between two forced writes in nanoseconds, 0 when disabled
+    private long forceInterval;
+    private long lastForce;
+    private boolean closed;
+
+    private MappedCounter(FileChannel channel, MappedByteBuffer buffer) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.initialCount = buffer.getLong(INITIAL_COUNT_OFFSET);
+        this.hop = buffer.getLong(HOP_OFFSET);
+        this.minVal = buffer.getLong(MIN_VAL_OFFSET);
+        this.maxVal = buffer.getLong(MAX_VAL_OFFSET);
+        this.lastForce = System.nanoTime();
+    }
+
+    /**
+     * Opens an existing counter file.
+     *
+     * @param path the path of the counter file
+     * @return the counter stored in the file
+     * @throws IOException when the file cannot be read or does not contain a valid counter, a
+     *                     {@link java.nio.file.NoSuchFileException} when it does not exist
+     */
+    public static MappedCounter open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return open(channel, 0, 1, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Opens a counter file, creating it with the given settings when it does not exist yet. The settings of an
+     * existing file are kept. A file whose creation did not complete (for example because the process crashed
+     * while writing it) is created anew.
+     *
+     * @param path   the path of the counter file
+     * @param count  the count to start from
+     * @param hop    the default in- or decrement value
+     * @param minVal the minimum value of the counter
+     * @param maxVal the maximum value of the counter
+     * @return the counter stored in the file
+     * @throws IOException when the file cannot be read or does not contain a valid counter
+     */
+    public static MappedCounter open(Path path, long count, long hop, long minVal, long maxVal) throws IOException {
+        if (minVal > count) throw new IllegalArgumentException(ERROR_MIN_VAL);
+        if (maxVal < count) throw new IllegalArgumentException(ERROR_MAX_VAL);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        return open(channel, count, hop, minVal, maxVal);
+    }
+
+    /**
+     * Maps an opened counter file, writing the given settings when the file holds no counter yet. The file is
+     * locked meanwhile, so two processes opening the same new file do not both write it; the class lock does the
+     * same for threads of this process, which may not lock the same file twice.
+     */
+    private static MappedCounter open(FileChannel channel, long count, long hop, long minVal, long maxVal)
+            throws IOException {
+        try {
+            synchronized (MappedCounter.class) {
+                FileLock lock = channel.lock();
+                try {
+                    long size = channel.size();
+                    if (size != 0 && size != FILE_SIZE) throw new IOException(ERROR_CORRUPT);
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+                    buffer.order(ByteOrder.LITTLE_ENDIAN);
+                    //Mapping extends the file with zeros, the magic number is only written once all else is
+                    if (buffer.getInt(0) == 0) {
+                        buffer.putLong(INITIAL_COUNT_OFFSET, count);
+                        buffer.putLong(HOP_OFFSET, hop);
+                        buffer.putLong(MIN_VAL_OFFSET, minVal);
+                        buffer.putLong(MAX_VAL_OFFSET, maxVal);
+                        buffer.putLong(COUNT_OFFSET, count);
+                        buffer.putInt(4, VERSION);
+                        buffer.force();
+                        buffer.putInt(0, MAGIC);
+                        buffer.force();
+                    } else {
+                        validate(buffer);
+                    }
+                    return new MappedCounter(channel, buffer);
+                } finally {
+                    lock.release();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Checks whether a mapped file holds a valid counter, whose counts lie within its bounds.
+     */
+    private static void validate(MappedByteBuffer buffer) throws IOException {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) throw new IOException(ERROR_CORRUPT);
+        long minVal = buffer.getLong(MIN_VAL_OFFSET);
+        long maxVal = buffer.getLong(MAX_VAL_OFFSET);
+        long initialCount = buffer.getLong(INITIAL_COUNT_OFFSET);
+        long count = buffer.getLong(COUNT_OFFSET);
+        if (minVal > maxVal || initialCount < minVal || initialCount > maxVal) throw new IOException(ERROR_CORRUPT);
+        if (count < minVal || count > maxVal) throw new IOException(ERROR_COUNT);
+    }
+
+    /**
+     * Returns the current count.
+     *
+     * @return the current counter value
+     */
+    public synchronized long getCount() {
+        checkOpen();
+        return buffer.getLong(COUNT_OFFSET);
+    }
+
+    /**
+     * Returns the initial count.
+     *
+     * @return the initial counter value
+     */
+    public long getInitialCount() {
+        return initialCount;
+    }
+
+    /**
+     * Returns the default in- and decrement value.
+     *
+     * @return the default in- and decrement value
+     */
+    public long getHop() {
+        return hop;
+    }
+
+    /**
+     * Returns the minimum value of the counter.
+     *
+     * @return the minimum value of the counter
+     */
+    public long getMinVal() {
+        return minVal;
+    }
+
+    /**
+     * Returns the maximum value of the counter.
+     *
+     * @return the maximum value of the counter
+     */
+    public long getMaxVal() {
+        return maxVal;
+    }
+
+    /**
+     * Sets the minimum time between two writes of the count to the storage device. Writes are triggered by
+     * updates of the counter, no background thread is used.
+     *
+     * @param interval the minimum time between two writes, 0 to disable
+     * @param unit     the unit of the interval
+     */
+    public synchronized void setForceInterval(long interval, TimeUnit unit) {
+        this.forceInterval = unit.toNanos(interval);
+    }
+
+    /**
+     * Increments the counter (with the set hop value).
+     */
+    public void increment() {
+        incrementBy(hop);
+    }
+
+    /**
+     * Decrements the counter (with the set hop value).
+     */
+    public void decrement() {
+        decrementBy(hop);
+    }
+
+    /**
+     * Increments the counter and returns the new count.
+     *
+     * @return the count after incrementing
+     */
+    public long incrementThenGet() {
+        return incrementByThenGet(hop);
+    }
+
+    /**
+     * Decrements the counter and returns the new count.
+     *
+     * @return the count after decrementing
+     */
+    public long decrementThenGet() {
+        return decrementByThenGet(hop);
+    }
+
+    /**
+     * Increments the counter with a given value (hop not used).
+     *
+     * @param amount value to increment the counter with
+     */
+    public void incrementBy(long amount) {
+        incrementByThenGet(amount);
+    }
+
+    /**
+     * Decrements the counter with a given value (hop not used).
+     *
+     * @param amount value to decrement the counter with
+     */
+    public void decrementBy(long amount) {
+        decrementByThenGet(amount);
+    }
+
+    /**
+     * Increments the counter with a given value (hop not used) and returns the new count.
+     *
+     * @param amount value to increment the counter with
+     * @return the count after incrementing
+     */
+    public synchronized long incrementByThenGet(long amount) {
+        return update(amount, false);
+    }
+
+    /**
+     * Decrements the counter with a given value (hop not used) and returns the new count.
+     *
+     * @param amount value to decrement the counter with
+     * @return the count after decrementing
+     */
+    public synchronized long decrementByThenGet(long amount) {
+        return update(amount, true);
+    }
+
+    /**
+     * Resets the counter to its initial count.
+     */
+    public synchronized void reset() {
+        checkOpen();
+        write(initialCount);
+    }
+
+    /**
+     * Resets the counter to a new value (does not change the initial count).
+     *
+     * @param count the new counter value to reset the counter to
+     */
+    public synchronized void resetTo(long count) {
+        checkOpen();
+        if (count >= minVal && count <= maxVal) write(count);
+        else throw new IllegalArgumentException(ERROR__RESET);
+    }
+
+    /**
+     * Writes the count to the storage device.
+     */
+    public synchronized void force() {
+        checkOpen();
+        buffer.force();
+        lastForce = System.nanoTime();
+    }
+
+    /**
+     * Writes the count to the storage device and closes the file. The mapping itself is released once the
+     * counter is garbage collected; until then, any further use of the counter throws an
+     * {@link IllegalStateException}.
+     *
+     * @throws IOException when the file could not be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        buffer.force();
+        channel.close();
+    }
+
+    private void checkOpen() {
+        if (closed) throw new IllegalStateException(ERROR_CLOSED);
+    }
+
+    private long update(long amount, boolean subtract) {
+        checkOpen();
+        long count = buffer.getLong(COUNT_OFFSET);
+        long next = subtract ? count - amount : count + amount;
+        if (LongCounter.overflows(count, amount, subtract, next) || next < minVal || next > maxVal)
+            throw new IllegalArgumentException(ERROR_BOUNDS);
+        write(next);
+        return next;
+    }
+
+    private void write(long count) {
+        buffer.putLong(COUNT_OFFSET, count);
+        if (forceInterval > 0 && System.nanoTime() - lastForce >= forceInterval) force();
+    }
+}
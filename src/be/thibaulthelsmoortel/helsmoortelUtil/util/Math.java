@@ -5,7 +5,12 @@
 
 package be.thibaulthelsmoortel.helsmoortelUtil.util;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.Arrays;
 import java.util.List;
+import java.util.PrimitiveIterator;
 
 /**
  * Class for regularly used math methods.
@@ -15,6 +20,24 @@ import java.util.List;
 public final class Math {
 
     public static final int BMI_CONVERSION_POUNDS_AND_INCHES = 703;
+    public static final String ERROR_OVERFLOW = "Result does not fit in the type!";
+    public static final String ERROR_LENGTH = "Arrays should have the same length!";
+    public static final String ERROR_BITMASK = "Bitmask is too short for the array!";
+    public static final String ERROR_NEGATIVE = "Argument should not be negative!";
+    //Length from which arrays are reduced in parallel
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    //Primes below 41, tried as factors before the Miller-Rabin test
+    private static final int[] SMALL_PRIMES = {2, 3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37};
+    //Bases for which the Miller-Rabin test is deterministic below 2^64
+    private static final long[] MILLER_RABIN_BASES = {2, 325, 9375, 28178, 450775, 9780504, 1795265022};
+    //Factorials fitting in a long
+    private static final long[] FACTORIALS = longFactorials();
+    //Rows of Pascal's triangle kept, up to the last one fitting in a long
+    private static final int PASCAL_ROWS = 67;
+    //Largest factorial kept as BigInteger
+    private static final int BIG_FACTORIAL_CACHE = 1024;
+    //Factorials computed so far, replaced by a longer copy when growing
+    private static volatile BigInteger[] bigFactorials = {BigInteger.ONE};
 
     /**
      * Unavailable constructor
@@ -155,38 +178,328 @@ public final class Math {
     }
 
     /**
-     * Returns a random value between two {@code int} values.
+     * Stores the differences between the values of two arrays in a third one: out[i] is the absolute value of
+     * a[i] - b[i], like {@link #difference(int, int)}. The output may be one of the inputs.
+     *
+     * @param a   array of {@code int} values
+     * @param b   another array of {@code int} values
+     * @param out array receiving the differences
+     */
+    public static void difference(int[] a, int[] b, int[] out) {
+        checkLengths(a.length, b.length, out.length);
+        for (int i = 0; i < a.length; i++) {
+            out[i] = java.lang.Math.abs(a[i] - b[i]);
+        }
+    }
+
+    /**
+     * Stores the differences between the values of two arrays in a third one: out[i] is the absolute value of
+     * a[i] - b[i], like {@link #difference(long, long)}. The output may be one of the inputs.
+     *
+     * @param a   array of {@code long} values
+     * @param b   another array of {@code long} values
+     * @param out array receiving the differences
+     */
+    public static void difference(long[] a, long[] b, long[] out) {
+        checkLengths(a.length, b.length, out.length);
+        for (int i = 0; i < a.length; i++) {
+            out[i] = java.lang.Math.abs(a[i] - b[i]);
+        }
+    }
+
+    /**
+     * Stores the differences between the values of two arrays in a third one: out[i] is the difference between
+     * a[i] and b[i], as returned by {@link #difference(double, double)}, so 0 when either value is NaN or both are
+     * the same infinity. The output may be one of the inputs.
+     *
+     * @param a   array of {@code double} values
+     * @param b   another array of {@code double} values
+     * @param out array receiving the differences
+     */
+    public static void difference(double[] a, double[] b, double[] out) {
+        checkLengths(a.length, b.length, out.length);
+        for (int i = 0; i < a.length; i++) {
+            double d = java.lang.Math.abs(a[i] - b[i]);
+            out[i] = d == d ? d : 0.0;
+        }
+    }
+
+    /**
+     * Stores in a bitmask which values of an array are positive: bit i % 64 of bitmaskOut[i / 64] is set when
+     * in[i] is positive, as returned by {@link #isPositive(int)}. Bits beyond the length of the array are cleared.
+     *
+     * @param in         array of {@code int} values
+     * @param bitmaskOut array receiving the bitmask, of at least (in.length + 63) / 64 words
+     */
+    public static void isPositive(int[] in, long[] bitmaskOut) {
+        checkBitmask(in.length, bitmaskOut);
+        for (int w = 0, start = 0; start < in.length; w++, start += 64) {
+            int end = java.lang.Math.min(in.length, start + 64);
+            long word = 0;
+            for (int i = start; i < end; i++) {
+                //The sign bit of the complement is set for positive values
+                word |= (long) (~in[i] >>> 31) << (i - start);
+            }
+            bitmaskOut[w] = word;
+        }
+    }
+
+    /**
+     * Stores in a bitmask which values of an array are positive: bit i % 64 of bitmaskOut[i / 64] is set when
+     * in[i] is positive, as returned by {@link #isPositive(double)}. Bits beyond the length of the array are
+     * cleared.
+     *
+     * @param in         array of {@code double} values
+     * @param bitmaskOut array receiving the bitmask, of at least (in.length + 63) / 64 words
+     */
+    public static void isPositive(double[] in, long[] bitmaskOut) {
+        checkBitmask(in.length, bitmaskOut);
+        for (int w = 0, start = 0; start < in.length; w++, start += 64) {
+            int end = java.lang.Math.min(in.length, start + 64);
+            long word = 0;
+            for (int i = start; i < end; i++) {
+                word |= (in[i] >= 0 ? 1L : 0L) << (i - start);
+            }
+            bitmaskOut[w] = word;
+        }
+    }
+
+    /**
+     * Stores in a bitmask which values of an array are negative: bit i % 64 of bitmaskOut[i / 64] is set when
+     * in[i] is negative, as returned by {@link #isNegative(int)}. Bits beyond the length of the array are cleared.
+     *
+     * @param in         array of {@code int} values
+     * @param bitmaskOut array receiving the bitmask, of at least (in.length + 63) / 64 words
+     */
+    public static void isNegative(int[] in, long[] bitmaskOut) {
+        checkBitmask(in.length, bitmaskOut);
+        for (int w = 0, start = 0; start < in.length; w++, start += 64) {
+            int end = java.lang.Math.min(in.length, start + 64);
+            long word = 0;
+            for (int i = start; i < end; i++) {
+                word |= (long) (in[i] >>> 31) << (i - start);
+            }
+            bitmaskOut[w] = word;
+        }
+    }
+
+    /**
+     * Stores in a bitmask which values of an array are negative: bit i % 64 of bitmaskOut[i / 64] is set when
+     * in[i] is negative, as returned by {@link #isNegative(double)}. Bits beyond the length of the array are
+     * cleared.
+     *
+     * @param in         array of {@code double} values
+     * @param bitmaskOut array receiving the bitmask, of at least (in.length + 63) / 64 words
+     */
+    public static void isNegative(double[] in, long[] bitmaskOut) {
+        checkBitmask(in.length, bitmaskOut);
+        for (int w = 0, start = 0; start < in.length; w++, start += 64) {
+            int end = java.lang.Math.min(in.length, start + 64);
+            long word = 0;
+            for (int i = start; i < end; i++) {
+                word |= (in[i] < 0 ? 1L : 0L) << (i - start);
+            }
+            bitmaskOut[w] = word;
+        }
+    }
+
+    /**
+     * Returns a random value between two {@code int} values, from {@code lower} (inclusive) up to {@code upper}
+     * (exclusive), drawn from the {@link RandomSource} of the current thread. Returns {@code lower} when both are
+     * equal.
      *
      * @param lower minimum value
      * @param upper maximum value
      * @return a random value between {@code lower} and {@code upper}
+     * @throws IllegalArgumentException when {@code lower} is above {@code upper}
      */
     public static double randomBetween(int lower, int upper) {
-        return (java.lang.Math.random() * upper) + lower;
+        return randomBetween((double) lower, (double) upper);
     }
 
     /**
-     * Returns a random value between two {@code double} values.
+     * Returns a random value between two {@code double} values, from {@code lower} (inclusive) up to
+     * {@code upper} (exclusive), drawn from the {@link RandomSource} of the current thread. Returns {@code lower}
+     * when both are equal.
      *
      * @param lower minimum value
      * @param upper maximum value
      * @return a random value between {@code lower} and {@code upper}
+     * @throws IllegalArgumentException when {@code lower} is above {@code upper} or either is NaN
      */
     public static double randomBetween(double lower, double upper) {
-        return (java.lang.Math.random() * upper) + lower;
+        if (lower == upper) return lower;
+        return RandomSource.current().nextDouble(lower, upper);
     }
 
     /**
-     * Returns the greatest common divisor of two {@code int} values.
+     * Returns the greatest common divisor of two {@code int} values, which is never negative. The divisor of 0 and
+     * any value is that value (without sign). Uses the binary algorithm of Stein, which only shifts and subtracts.
      *
      * @param a an argument
      * @param b another argument
      * @return the greatest common divisor of {@code a} and {@code b}
+     * @throws ArithmeticException when the divisor is 2^31, which only happens for Integer.MIN_VALUE and either
+     *                             Integer.MIN_VALUE or 0
      */
     public static int greatestCommonDivisor(int a, int b) {
-        if (b <= a && (a % b == 0)) return b;
-        else if (a < b) return greatestCommonDivisor(b, a);
-        else return greatestCommonDivisor(b, a % b);
+        //Negating Integer.MIN_VALUE leaves it unchanged, but as an unsigned value it is still 2^31, an even value
+        //which the shifts below turn into 1
+        int x = a < 0 ? -a : a, y = b < 0 ? -b : b;
+        if (x == 0 || y == 0) {
+            int result = x | y;
+            if (result < 0) throw new ArithmeticException(ERROR_OVERFLOW);
+            return result;
+        }
+        int shift = Integer.numberOfTrailingZeros(x | y);
+        x >>>= Integer.numberOfTrailingZeros(x);
+        y >>>= Integer.numberOfTrailingZeros(y);
+        //Both odd: their difference is even, so its trailing zeros can be shifted out right away. Taking the
+        //minimum and the absolute difference (rather than swapping when x > y) keeps the loop free of branches
+        //which would be mispredicted half of the time
+        while (x != y) {
+            int difference = y - x;
+            int zeros = Integer.numberOfTrailingZeros(difference);
+            x = java.lang.Math.min(x, y);
+            y = java.lang.Math.abs(difference) >>> zeros;
+        }
+        if (shift == 31) throw new ArithmeticException(ERROR_OVERFLOW);
+        return x << shift;
+    }
+
+    /**
+     * Returns the greatest common divisor of two {@code long} values, which is never negative.
+     *
+     * @param a an argument
+     * @param b another argument
+     * @return the greatest common divisor of {@code a} and {@code b}
+     * @throws ArithmeticException when the divisor is 2^63, which only happens for Long.MIN_VALUE and either
+     *                             Long.MIN_VALUE or 0
+     */
+    public static long greatestCommonDivisor(long a, long b) {
+        long x = a < 0 ? -a : a, y = b < 0 ? -b : b;
+        if (x == 0 || y == 0) {
+            long result = x | y;
+            if (result < 0) throw new ArithmeticException(ERROR_OVERFLOW);
+            return result;
+        }
+        int shift = Long.numberOfTrailingZeros(x | y);
+        x >>>= Long.numberOfTrailingZeros(x);
+        do {
+            y >>>= Long.numberOfTrailingZeros(y);
+            long difference = y - x;
+            x = java.lang.Math.min(x, y);
+            y = java.lang.Math.abs(difference);
+        } while (y != 0);
+        if (shift == 63) throw new ArithmeticException(ERROR_OVERFLOW);
+        return x << shift;
+    }
+
+    /**
+     * Returns the greatest common divisor of two {@link BigInteger} values, which is never negative.
+     *
+     * @param a an argument
+     * @param b another argument
+     * @return the greatest common divisor of {@code a} and {@code b}
+     */
+    public static BigInteger greatestCommonDivisor(BigInteger a, BigInteger b) {
+        return a.gcd(b);
+    }
+
+    /**
+     * Returns the greatest common divisor of all values in an array, 0 for an empty array. Large arrays are
+     * reduced in parallel.
+     *
+     * @param values array of {@code int} values
+     * @return the greatest common divisor of the given values
+     */
+    public static int greatestCommonDivisor(int[] values) {
+        if (values.length >= PARALLEL_THRESHOLD)
+            return Arrays.stream(values).parallel().reduce(0, Math::greatestCommonDivisor);
+        int gcd = 0;
+        for (int i = 0; i < values.length && gcd != 1; i++) {
+            gcd = greatestCommonDivisor(gcd, values[i]);
+        }
+        return gcd;
+    }
+
+    /**
+     * Returns the greatest common divisor of all values in an array, 0 for an empty array. Large arrays are
+     * reduced in parallel.
+     *
+     * @param values array of {@code long} values
+     * @return the greatest common divisor of the given values
+     */
+    public static long greatestCommonDivisor(long[] values) {
+        if (values.length >= PARALLEL_THRESHOLD)
+            return Arrays.stream(values).parallel().reduce(0, Math::greatestCommonDivisor);
+        long gcd = 0;
+        for (int i = 0; i < values.length && gcd != 1; i++) {
+            gcd = greatestCommonDivisor(gcd, values[i]);
+        }
+        return gcd;
+    }
+
+    /**
+     * Returns the least common multiple of two {@code int} values, which is never negative. The multiple of 0 and
+     * any value is 0.
+     *
+     * @param a an argument
+     * @param b another argument
+     * @return the least common multiple of {@code a} and {@code b}
+     * @throws ArithmeticException when the multiple does not fit in an {@code int}
+     */
+    public static int leastCommonMultiple(int a, int b) {
+        if (a == 0 || b == 0) return 0;
+        long multiple = java.lang.Math.abs((long) a / greatestCommonDivisor(a, b) * b);
+        if (multiple > Integer.MAX_VALUE) throw new ArithmeticException(ERROR_OVERFLOW);
+        return (int) multiple;
+    }
+
+    /**
+     * Returns the least common multiple of two {@code long} values, which is never negative. The multiple of 0
+     * and any value is 0.
+     *
+     * @param a an argument
+     * @param b another argument
+     * @return the least common multiple of {@code a} and {@code b}
+     * @throws ArithmeticException when the multiple does not fit in a {@code long}
+     */
+    public static long leastCommonMultiple(long a, long b) {
+        if (a == 0 || b == 0) return 0;
+        long multiple = java.lang.Math.multiplyExact(a / greatestCommonDivisor(a, b), b);
+        if (multiple == Long.MIN_VALUE) throw new ArithmeticException(ERROR_OVERFLOW);
+        return java.lang.Math.abs(multiple);
+    }
+
+    /**
+     * Returns the least common multiple of two {@link BigInteger} values, which is never negative.
+     *
+     * @param a an argument
+     * @param b another argument
+     * @return the least common multiple of {@code a} and {@code b}
+     */
+    public static BigInteger leastCommonMultiple(BigInteger a, BigInteger b) {
+        if (a.signum() == 0 || b.signum() == 0) return BigInteger.ZERO;
+        return a.divide(a.gcd(b)).multiply(b).abs();
+    }
+
+    /**
+     * Returns the least common multiple of all values in an array, 1 for an empty array. Large arrays are reduced
+     * in parallel.
+     *
+     * @param values array of {@code long} values
+     * @return the least common multiple of the given values
+     * @throws ArithmeticException when the multiple does not fit in a {@code long}
+     */
+    public static long leastCommonMultiple(long[] values) {
+        if (values.length >= PARALLEL_THRESHOLD)
+            return Arrays.stream(values).parallel().reduce(1, Math::leastCommonMultiple);
+        long lcm = 1;
+        for (int i = 0; i < values.length && lcm != 0; i++) {
+            lcm = leastCommonMultiple(lcm, values[i]);
+        }
+        return lcm;
     }
 
     /**
@@ -195,26 +508,409 @@ public final class Math {
      * @param a an argument
      * @param b another argument
      * @return the lowest common divisor of {@code a} and {@code b}
+     * @throws ArithmeticException when the multiple does not fit in an {@code int}
+     * @deprecated misnamed: returns the least common multiple, use {@link #leastCommonMultiple(int, int)}
      */
+    @Deprecated
     public static int lowestCommonDivisor(int a, int b) {
-        return a * (b / greatestCommonDivisor(a, b));
+        return leastCommonMultiple(a, b);
+    }
+
+    /**
+     * Returns whether a number is prime.
+     * <p>
+     * Small factors are ruled out by trial division; other numbers get a Miller-Rabin test with the bases
+     * 2, 325, 9375, 28178, 450775, 9780504 and 1795265022, which is deterministic for all {@code long} values.
+     * Products are reduced with Montgomery multiplication, so no division or {@link BigInteger} is needed.
+     *
+     * @param n the number
+     * @return {@code boolean} indicating if the number is prime
+     */
+    public static boolean isPrime(long n) {
+        if (n < 2) return false;
+        for (int p : SMALL_PRIMES) {
+            if (n % p == 0) return n == p;
+        }
+        if (n < 41L * 41) return true;
+        //n - 1 = d * 2^s
+        int s = Long.numberOfTrailingZeros(n - 1);
+        long d = (n - 1) >>> s;
+        //Inverse of n modulo 2^64 by Newton's iteration, each step doubling the correct bits
+        long inverse = n;
+        for (int i = 0; i < 5; i++) {
+            inverse *= 2 - n * inverse;
+        }
+        long negInverse = -inverse;
+        //Montgomery forms of 1 and n - 1, and R^2 mod n to convert the bases
+        long one = Long.remainderUnsigned(-n, n);
+        long minusOne = n - one;
+        long r2 = one;
+        for (int i = 0; i < 64; i++) {
+            r2 = r2 >= n - r2 ? r2 - (n - r2) : r2 + r2;
+        }
+        witnesses:
+        for (long base : MILLER_RABIN_BASES) {
+            long a = base % n;
+            if (a == 0) continue;
+            long x = montgomeryPower(montgomeryMultiply(a, r2, n, negInverse), d, one, n, negInverse);
+            if (x == one || x == minusOne) continue;
+            for (int i = 1; i < s; i++) {
+                x = montgomeryMultiply(x, x, n, negInverse);
+                if (x == minusOne) continue witnesses;
+                if (x == one) return false;
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the primes from a lower bound up to an upper bound (both inclusive) in ascending order, sieving the
+     * range segment by segment as the iterator advances.
+     *
+     * @param from the lowest number
+     * @param to   the highest number
+     * @return iterator over the primes
+     * @see PrimeSieve
+     */
+    public static PrimitiveIterator.OfLong primes(long from, long to) {
+        return PrimeSieve.primes(from, to);
+    }
+
+    /**
+     * Returns the number of primes from a lower bound up to an upper bound (both inclusive), sieving the segments
+     * of the range in parallel.
+     *
+     * @param from the lowest number
+     * @param to   the highest number
+     * @return the number of primes
+     * @see PrimeSieve
+     */
+    public static long countPrimes(long from, long to) {
+        return PrimeSieve.count(from, to);
+    }
+
+    /**
+     * Returns b^e in Montgomery form, b being in Montgomery form.
+     */
+    private static long montgomeryPower(long b, long e, long one, long n, long negInverse) {
+        long result = one;
+        while (e != 0) {
+            if ((e & 1) != 0) result = montgomeryMultiply(result, b, n, negInverse);
+            b = montgomeryMultiply(b, b, n, negInverse);
+            e >>>= 1;
+        }
+        return result;
+    }
+
+    /**
+     * Returns a * b / 2^64 mod n, for a and b below n and n odd and below 2^63.
+     */
+    private static long montgomeryMultiply(long a, long b, long n, long negInverse) {
+        long low = a * b;
+        long m = low * negInverse;
+        //low + m * n is a multiple of 2^64, its low half only carries when low is not zero
+        long t = multiplyHighUnsigned(a, b) + multiplyHighUnsigned(m, n) + (low != 0 ? 1 : 0);
+        return Long.compareUnsigned(t, n) >= 0 ? t - n : t;
+    }
+
+    /**
+     * Returns the high 64 bits of the unsigned 128-bit product of x and y.
+     */
+    private static long multiplyHighUnsigned(long x, long y) {
+        long x0 = x & 0xFFFFFFFFL, x1 = x >>> 32;
+        long y0 = y & 0xFFFFFFFFL, y1 = y >>> 32;
+        long t = x1 * y0 + ((x0 * y0) >>> 32);
+        long w1 = x0 * y1 + (t & 0xFFFFFFFFL);
+        return x1 * y1 + (t >>> 32) + (w1 >>> 32);
+    }
+
+    /**
+     * Returns the factorial of a number, n!.
+     *
+     * @param n the number
+     * @return the factorial of {@code n}
+     * @throws ArithmeticException when the factorial does not fit in a {@code long} (from 21 on)
+     */
+    public static long factorial(int n) {
+        if (n < 0) throw new IllegalArgumentException(ERROR_NEGATIVE);
+        if (n >= FACTORIALS.length) throw new ArithmeticException(ERROR_OVERFLOW);
+        return FACTORIALS[n];
+    }
+
+    /**
+     * Returns the factorial of a number, n!, rounded to the nearest {@code double}, infinity from 171 on.
+     *
+     * @param n the number
+     * @return the factorial of {@code n}
+     */
+    public static double factorialAsDouble(int n) {
+        if (n < 0) throw new IllegalArgumentException(ERROR_NEGATIVE);
+        double[] factorials = CombinatoricsTables.FACTORIALS;
+        return n < factorials.length ? factorials[n] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the factorial of a number, n!. The factorials up to 1024 are kept once computed.
+     *
+     * @param n the number
+     * @return the factorial of {@code n}
+     */
+    public static BigInteger factorialAsBigInteger(int n) {
+        if (n < 0) throw new IllegalArgumentException(ERROR_NEGATIVE);
+        BigInteger[] factorials = bigFactorials;
+        if (n < factorials.length) return factorials[n];
+        if (n <= BIG_FACTORIAL_CACHE) return growBigFactorials(n)[n];
+        BigInteger cached = growBigFactorials(BIG_FACTORIAL_CACHE)[BIG_FACTORIAL_CACHE];
+        return cached.multiply(product(BIG_FACTORIAL_CACHE + 1, n));
+    }
+
+    /**
+     * Returns the natural logarithm of the factorial of a number, ln(n!), which is also ln(Gamma(n + 1)). Below 171
+     * it is read from a table, from there on it follows from Stirling's series.
+     *
+     * @param n the number
+     * @return the logarithm of the factorial of {@code n}
+     */
+    public static double logFactorial(int n) {
+        if (n < 0) throw new IllegalArgumentException(ERROR_NEGATIVE);
+        double[] logFactorials = CombinatoricsTables.LOG_FACTORIALS;
+        if (n < logFactorials.length) return logFactorials[n];
+        double x = n, inverse = 1 / x, inverse2 = inverse * inverse;
+        double series = inverse * (1.0 / 12 - inverse2 * (1.0 / 360 - inverse2 * (1.0 / 1260 - inverse2 / 1680)));
+        return x * java.lang.Math.log(x) - x + 0.5 * java.lang.Math.log(2 * java.lang.Math.PI * x) + series;
+    }
+
+    /**
+     * Returns the binomial coefficient "n choose k", the number of subsets of k elements out of n, 0 if k is
+     * negative or larger than n. Up to n = 66, for which all coefficients fit in a {@code long}, it is read from a
+     * table of Pascal's triangle.
+     *
+     * @param n the number of elements
+     * @param k the number of chosen elements
+     * @return the binomial coefficient
+     * @throws ArithmeticException when the coefficient does not fit in a {@code long}
+     */
+    public static long binomial(int n, int k) {
+        if (n < 0) throw new IllegalArgumentException(ERROR_NEGATIVE);
+        if (k < 0 || k > n) return 0;
+        if (n < PASCAL_ROWS) return CombinatoricsTables.PASCAL[n * (n + 1) / 2 + k];
+        k = java.lang.Math.min(k, n - k);
+        //After step i, result is C(n - k + i, i), so no intermediate value exceeds the coefficient
+        long result = 1;
+        for (int i = 1; i <= k; i++) {
+            long g = greatestCommonDivisor(result, i);
+            result = multiplyChecked(result / g, (n - k + i) / (i / g));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the binomial coefficient "n choose k" as a {@code double}, 0 if k is negative or larger than n and
+     * infinity when it exceeds the range of a {@code double}. Coefficients with n up to 170 are accurate to a few
+     * ulps; larger ones are derived from {@link #logFactorial(int)} unless k or n - k is small, and are accurate to
+     * about 1e-11.
+     *
+     * @param n the number of elements
+     * @param k the number of chosen elements
+     * @return the binomial coefficient
+     */
+    public static double binomialAsDouble(int n, int k) {
+        if (n < 0) throw new IllegalArgumentException(ERROR_NEGATIVE);
+        if (k < 0 || k > n) return 0;
+        if (n < PASCAL_ROWS) return CombinatoricsTables.PASCAL[n * (n + 1) / 2 + k];
+        double[] factorials = CombinatoricsTables.FACTORIALS;
+        if (n < factorials.length) return factorials[n] / factorials[k] / factorials[n - k];
+        k = java.lang.Math.min(k, n - k);
+        if (k < PASCAL_ROWS) {
+            //A short product is more accurate than the logarithms
+            double result = 1;
+            for (int i = 1; i <= k; i++) {
+                result = result * (n - k + i) / i;
+            }
+            return result;
+        }
+        return java.lang.Math.exp(logBinomial(n, k));
+    }
+
+    /**
+     * Returns the binomial coefficient "n choose k", 0 if k is negative or larger than n.
+     *
+     * @param n the number of elements
+     * @param k the number of chosen elements
+     * @return the binomial coefficient
+     */
+    public static BigInteger binomialAsBigInteger(int n, int k) {
+        if (n < 0) throw new IllegalArgumentException(ERROR_NEGATIVE);
+        if (k < 0 || k > n) return BigInteger.ZERO;
+        if (n < PASCAL_ROWS) return BigInteger.valueOf(CombinatoricsTables.PASCAL[n * (n + 1) / 2 + k]);
+        k = java.lang.Math.min(k, n - k);
+        if (n <= BIG_FACTORIAL_CACHE) {
+            BigInteger[] factorials = growBigFactorials(n);
+            return factorials[n].divide(factorials[k].multiply(factorials[n - k]));
+        }
+        return k == 0 ? BigInteger.ONE : product(n - k + 1, n).divide(factorialAsBigInteger(k));
+    }
+
+    /**
+     * Returns the natural logarithm of the binomial coefficient "n choose k", negative infinity if k is negative
+     * or larger than n.
+     *
+     * @param n the number of elements
+     * @param k the number of chosen elements
+     * @return the logarithm of the binomial coefficient
+     */
+    public static double logBinomial(int n, int k) {
+        if (n < 0) throw new IllegalArgumentException(ERROR_NEGATIVE);
+        if (k < 0 || k > n) return Double.NEGATIVE_INFINITY;
+        return logFactorial(n) - logFactorial(k) - logFactorial(n - k);
+    }
+
+    /**
+     * Returns the multinomial coefficient (k1 + k2 + ...)! / (k1! * k2! * ...), the number of ways to split
+     * k1 + k2 + ... elements in groups of k1, k2, ... elements. It is computed as a product of binomial
+     * coefficients, each of which divides the result.
+     *
+     * @param k the sizes of the groups
+     * @return the multinomial coefficient
+     * @throws ArithmeticException when the coefficient does not fit in a {@code long}
+     */
+    public static long multinomial(int... k) {
+        long result = 1;
+        int n = 0;
+        for (int group : k) {
+            n = addGroup(n, group);
+            result = multiplyChecked(result, binomial(n, group));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the multinomial coefficient (k1 + k2 + ...)! / (k1! * k2! * ...) as a {@code double}, infinity
+     * when it exceeds the range of a {@code double}.
+     *
+     * @param k the sizes of the groups
+     * @return the multinomial coefficient
+     */
+    public static double multinomialAsDouble(int... k) {
+        double result = 1;
+        int n = 0;
+        for (int group : k) {
+            n = addGroup(n, group);
+            result *= binomialAsDouble(n, group);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the multinomial coefficient (k1 + k2 + ...)! / (k1! * k2! * ...).
+     *
+     * @param k the sizes of the groups
+     * @return the multinomial coefficient
+     */
+    public static BigInteger multinomialAsBigInteger(int... k) {
+        BigInteger result = BigInteger.ONE;
+        int n = 0;
+        for (int group : k) {
+            n = addGroup(n, group);
+            result = result.multiply(binomialAsBigInteger(n, group));
+        }
+        return result;
+    }
+
+    private static int addGroup(int n, int group) {
+        if (group < 0) throw new IllegalArgumentException(ERROR_NEGATIVE);
+        if (n > Integer.MAX_VALUE - group) throw new ArithmeticException(ERROR_OVERFLOW);
+        return n + group;
+    }
+
+    private static long multiplyChecked(long a, long b) {
+        if (b != 0 && a > Long.MAX_VALUE / b) throw new ArithmeticException(ERROR_OVERFLOW);
+        return a * b;
+    }
+
+    /**
+     * Returns the product of the numbers lo..hi, halving the range so that the factors stay balanced.
+     */
+    private static BigInteger product(int lo, int hi) {
+        if (hi - lo < 16) {
+            BigInteger result = BigInteger.valueOf(lo);
+            long partial = 1;
+            for (int i = lo + 1; i <= hi; i++) {
+                partial *= i;
+                if (partial > Integer.MAX_VALUE) {
+                    result = result.multiply(BigInteger.valueOf(partial));
+                    partial = 1;
+                }
+            }
+            return result.multiply(BigInteger.valueOf(partial));
+        }
+        int mid = (lo + hi) >>> 1;
+        return product(lo, mid).multiply(product(mid + 1, hi));
+    }
+
+    /**
+     * Returns the cached factorials, extended up to at least n.
+     */
+    private static synchronized BigInteger[] growBigFactorials(int n) {
+        BigInteger[] factorials = bigFactorials;
+        if (n < factorials.length) return factorials;
+        int length = java.lang.Math.max(n + 1, java.lang.Math.min(2 * factorials.length, BIG_FACTORIAL_CACHE + 1));
+        BigInteger[] grown = Arrays.copyOf(factorials, length);
+        for (int i = factorials.length; i < length; i++) {
+            grown[i] = grown[i - 1].multiply(BigInteger.valueOf(i));
+        }
+        bigFactorials = grown;
+        return grown;
+    }
+
+    private static long[] longFactorials() {
+        long[] factorials = new long[21];
+        factorials[0] = 1;
+        for (int i = 1; i < factorials.length; i++) {
+            factorials[i] = factorials[i - 1] * i;
+        }
+        return factorials;
+    }
+
+    /**
+     * Tables computed on first use of the combinatorial functions, the class initialization making them safe to
+     * share between threads.
+     */
+    private static final class CombinatoricsTables {
+
+        //Rows 0..66 of Pascal's triangle, row n starting at index n(n + 1) / 2
+        private static final long[] PASCAL = new long[PASCAL_ROWS * (PASCAL_ROWS + 1) / 2];
+        //Factorials up to 170, correctly rounded, and their logarithms
+        private static final double[] FACTORIALS = new double[171];
+        private static final double[] LOG_FACTORIALS = new double[FACTORIALS.length];
+
+        static {
+            for (int n = 0, row = 0; n < PASCAL_ROWS; row += ++n) {
+                PASCAL[row] = 1;
+                PASCAL[row + n] = 1;
+                for (int k = 1; k < n; k++) {
+                    PASCAL[row + k] = PASCAL[row - n + k - 1] + PASCAL[row - n + k];
+                }
+            }
+            BigInteger[] factorials = growBigFactorials(FACTORIALS.length - 1);
+            for (int n = 0; n < FACTORIALS.length; n++) {
+                FACTORIALS[n] = factorials[n].doubleValue();
+                LOG_FACTORIALS[n] = java.lang.Math.log(FACTORIALS[n]);
+            }
+        }
     }
 
     /**
-     * Returns the average of an array of {@code int} values.
+     * Returns the average of an array of {@code int} values, NaN if no such value. The values are summed in a
+     * {@code long}, so the sum does not overflow.
      *
      * @param values array of {@code int} values
      * @return the average of the given values
      */
     public static double average(int[] values) {
-        int n = values.length, sum = 0, avg = 0;
-        if (n != 0 || values != null) {
-            for (int i = 0; i < n; i++) {
-                sum += values[i];
-            }
-            avg = sum / n;
-        }
-        return avg;
+        if (values == null || values.length == 0) return Double.NaN;
+        return (double) Stats.longSum(values) / values.length;
     }
 
     /**
@@ -236,7 +932,8 @@ public final class Math {
     }
 
     /**
-     * Returns the average of a list of {@code double} values.
+     * Returns the average of a list of {@code double} values. Unboxes every value; a {@link DoubleList} avoids
+     * boxing altogether.
      *
      * @param values list of {@code double} values
      * @return the average of the given values
@@ -253,6 +950,53 @@ public final class Math {
         return avg;
     }
 
+    /**
+     * Returns the average of a list of {@code double} values, NaN if no such value.
+     *
+     * @param values list of {@code double} values
+     * @return the average of the given values
+     */
+    public static double average(DoubleList values) {
+        return Stats.mean(values);
+    }
+
+    /**
+     * Returns the average of a list of {@code int} values, NaN if no such value. The values are summed in a
+     * {@code long}, so the sum does not overflow.
+     *
+     * @param values list of {@code int} values
+     * @return the average of the given values
+     */
+    public static double average(IntList values) {
+        return Stats.mean(values);
+    }
+
+    /**
+     * Returns the average of a list of {@code long} values, NaN if no such value. Should the sum overflow, the
+     * values are summed exactly instead.
+     *
+     * @param values list of {@code long} values
+     * @return the average of the given values
+     */
+    public static double average(LongList values) {
+        int n = values.size();
+        if (n == 0) return Double.NaN;
+        long[] a = values.array();
+        long sum = 0;
+        try {
+            for (int i = 0; i < n; i++) {
+                sum = java.lang.Math.addExact(sum, a[i]);
+            }
+            return (double) sum / n;
+        } catch (ArithmeticException e) {
+            BigDecimal exact = BigDecimal.ZERO;
+            for (int i = 0; i < n; i++) {
+                exact = exact.add(BigDecimal.valueOf(a[i]));
+            }
+            return exact.divide(BigDecimal.valueOf(n), MathContext.DECIMAL64).doubleValue();
+        }
+    }
+
     /**
      * Returns the Body Mass Index (BMI) of an individual
      *
@@ -278,6 +1022,36 @@ public final class Math {
         else return baseFormula * BMI_CONVERSION_POUNDS_AND_INCHES;
     }
 
+    /**
+     * Stores the Body Mass Index (BMI) of several individuals: out[i] is the BMI of mass[i] and height[i]. The
+     * output may be one of the inputs.
+     *
+     * @param mass   array of masses in kilograms
+     * @param height array of heights in metres
+     * @param out    array receiving the BMIs
+     */
+    public static void bodyMassIndex(double[] mass, double[] height, double[] out) {
+        bodyMassIndex(mass, height, out, true);
+    }
+
+    /**
+     * Stores the Body Mass Index (BMI) of several individuals: out[i] is the BMI of mass[i] and height[i]. The
+     * output may be one of the inputs.
+     *
+     * @param mass                 array of masses in kilograms or pounds
+     * @param height               array of heights in metres or inches
+     * @param out                  array receiving the BMIs
+     * @param isMetresAndKilograms {@code boolean} indicating if kilograms and metres are used (true) or pounds and
+     *                             inches (false)
+     */
+    public static void bodyMassIndex(double[] mass, double[] height, double[] out, boolean isMetresAndKilograms) {
+        checkLengths(mass.length, height.length, out.length);
+        double factor = isMetresAndKilograms ? 1 : BMI_CONVERSION_POUNDS_AND_INCHES;
+        for (int i = 0; i < mass.length; i++) {
+            out[i] = mass[i] / (height[i] * height[i]) * factor;
+        }
+    }
+
     /**
      * Returns whether 2 fractures are in proportion.
      *
@@ -303,4 +1077,62 @@ public final class Math {
     public static boolean isProportion(double a, double b, double c, double d) {
         return a * d == b * c;
     }
+
+    /**
+     * Stores in a bitmask which pairs of fractures are in proportion: bit i % 64 of bitmaskOut[i / 64] is set when
+     * a[i] / b[i] and c[i] / d[i] are in proportion, as returned by {@link #isProportion(int, int, int, int)}.
+     * Bits beyond the length of the arrays are cleared.
+     *
+     * @param a          counters of the first fractures
+     * @param b          denominators of the first fractures
+     * @param c          counters of the second fractures
+     * @param d          denominators of the second fractures
+     * @param bitmaskOut array receiving the bitmask, of at least (a.length + 63) / 64 words
+     */
+    public static void isProportion(int[] a, int[] b, int[] c, int[] d, long[] bitmaskOut) {
+        checkLengths(a.length, b.length, c.length);
+        checkLengths(a.length, d.length, a.length);
+        checkBitmask(a.length, bitmaskOut);
+        for (int w = 0, start = 0; start < a.length; w++, start += 64) {
+            int end = java.lang.Math.min(a.length, start + 64);
+            long word = 0;
+            for (int i = start; i < end; i++) {
+                word |= (a[i] * d[i] == b[i] * c[i] ? 1L : 0L) << (i - start);
+            }
+            bitmaskOut[w] = word;
+        }
+    }
+
+    /**
+     * Stores in a bitmask which pairs of fractures are in proportion: bit i % 64 of bitmaskOut[i / 64] is set when
+     * a[i] / b[i] and c[i] / d[i] are in proportion, as returned by {@link #isProportion(double, double, double,
+     * double)}. Bits beyond the length of the arrays are cleared.
+     *
+     * @param a          counters of the first fractures
+     * @param b          denominators of the first fractures
+     * @param c          counters of the second fractures
+     * @param d          denominators of the second fractures
+     * @param bitmaskOut array receiving the bitmask, of at least (a.length + 63) / 64 words
+     */
+    public static void isProportion(double[] a, double[] b, double[] c, double[] d, long[] bitmaskOut) {
+        checkLengths(a.length, b.length, c.length);
+        checkLengths(a.length, d.length, a.length);
+        checkBitmask(a.length, bitmaskOut);
+        for (int w = 0, start = 0; start < a.length; w++, start += 64) {
+            int end = java.lang.Math.min(a.length, start + 64);
+            long word = 0;
+            for (int i = start; i < end; i++) {
+                word |= (a[i] * d[i] == b[i] * c[i] ? 1L : 0L) << (i - start);
+            }
+            bitmaskOut[w] = word;
+        }
+    }
+
+    private static void checkLengths(int a, int b, int c) {
+        if (a != b || a != c) throw new IllegalArgumentException(ERROR_LENGTH);
+    }
+
+    private static void checkBitmask(int length, long[] bitmask) {
+        if (bitmask.length < (length + 63) / 64) throw new IllegalArgumentException(ERROR_BITMASK);
+    }
 }
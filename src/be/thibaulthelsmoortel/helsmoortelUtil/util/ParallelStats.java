@@ -0,0 +1,568 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package be.thibaulthelsmoortel.helsmoortelUtil.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parallel counterpart of {@link Stats}, for very large arrays. Obtained through {@link Stats#parallel()}.
+ * <p>
+ * Arrays are split in chunks which are processed on a {@link ForkJoinPool}; the results of the chunks are then
+ * combined. Mean and variance combine per-chunk {@link StatsAccumulator}s with the parallel variance formula.
+ * Arrays (or subarrays) no longer than the threshold are processed sequentially, by {@link Stats} itself.
+ * <p>
+ * Since the values are added in a different order, sums may differ from the ones of {@link Stats} in the last
+ * bits.
+ *
+ * @author Thibault Helsmoortel
+ */
+public final class ParallelStats {
+
+    public static final int DEFAULT_THRESHOLD = 1 << 16;
+    public static final String ERROR_THRESHOLD = "Threshold should be positive!";
+    private static final String ERROR_INDICES = "Subarray indices out of bounds";
+    private static final int SUM = 0, MAX = 1, MIN = 2;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    /**
+     * Constructor to process arrays on a given pool, splitting them in chunks of at most a given length.
+     *
+     * @param pool      the pool to process the chunks on
+     * @param threshold the maximum length of a chunk, shorter arrays are processed sequentially
+     */
+    public ParallelStats(ForkJoinPool pool, int threshold) {
+        if (threshold <= 0) throw new IllegalArgumentException(ERROR_THRESHOLD);
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Returns the maximum length of a chunk.
+     *
+     * @return the threshold below which arrays are processed sequentially
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Returns the maximum value in the array a[], -infinity if no such value.
+     *
+     * @param a array of double values
+     * @return the maximum value of the given array
+     */
+    public double max(double[] a) {
+        if (a.length <= threshold) return Stats.max(a);
+        return reduce(a, 0, a.length - 1, MAX);
+    }
+
+    /**
+     * Returns the maximum value in the subarray a[lo..hi], -infinity if no such value.
+     *
+     * @param a  array of double values
+     * @param lo index of the first item in the array
+     * @param hi index of the last item in the array
+     * @return the maximum value of the given array
+     */
+    public double max(double[] a, int lo, int hi) {
+        checkIndices(a.length, lo, hi);
+        return reduce(a, lo, hi, MAX);
+    }
+
+    /**
+     * Returns the maximum value in the array a[], Integer.MIN_VALUE if no such value.
+     *
+     * @param a array of integer values
+     * @return the maximum value of the given array
+     */
+    public int max(int[] a) {
+        if (a.length <= threshold) return Stats.max(a);
+        return reduce(a, 0, a.length - 1, MAX);
+    }
+
+    /**
+     * Returns the minimum value in the array a[], +infinity if no such value.
+     *
+     * @param a array of double values
+     * @return the minimum value of the given array
+     */
+    public double min(double[] a) {
+        if (a.length <= threshold) return Stats.min(a);
+        return reduce(a, 0, a.length - 1, MIN);
+    }
+
+    /**
+     * Returns the minimum value in the subarray a[lo..hi], +infinity if no such value.
+     *
+     * @param a  array of double values
+     * @param lo index of the first item in the array
+     * @param hi index of the last item in the array
+     * @return the minimum value of the given array
+     */
+    public double min(double[] a, int lo, int hi) {
+        checkIndices(a.length, lo, hi);
+        return reduce(a, lo, hi, MIN);
+    }
+
+    /**
+     * Returns the minimum value in the array a[], Integer.MAX_VALUE if no such value.
+     *
+     * @param a array of integer values
+     * @return the minimum value of the given array
+     */
+    public int min(int[] a) {
+        if (a.length <= threshold) return Stats.min(a);
+        return reduce(a, 0, a.length - 1, MIN);
+    }
+
+    /**
+     * Returns the average value in the array a[], NaN if no such value.
+     *
+     * @param a array of double values
+     * @return the average value in the array
+     */
+    public double mean(double[] a) {
+        if (a.length <= threshold) return Stats.mean(a);
+        return sum(a) / a.length;
+    }
+
+    /**
+     * Returns the average value in the subarray a[lo..hi], NaN if no such value.
+     *
+     * @param a  array of double values
+     * @param lo index of the first item in the array
+     * @param hi index of the last item in the array
+     * @return the average value in the array
+     */
+    public double mean(double[] a, int lo, int hi) {
+        return sum(a, lo, hi) / (hi - lo + 1);
+    }
+
+    /**
+     * Returns the average value in the array a[], NaN if no such value.
+     *
+     * @param a array of integer values
+     * @return the average value in the array
+     */
+    public double mean(int[] a) {
+        if (a.length <= threshold) return Stats.mean(a);
+        return accumulate(a).mean();
+    }
+
+    /**
+     * Returns the sample variance in the array a[], NaN if no such value.
+     *
+     * @param a array of double values
+     * @return sample variance in the array
+     */
+    public double var(double[] a) {
+        if (a.length <= threshold) return Stats.var(a);
+        return accumulate(a).var();
+    }
+
+    /**
+     * Returns the sample variance in the subarray a[lo..hi], NaN if no such value.
+     *
+     * @param a  array of double values
+     * @param lo index of the first item in the array
+     * @param hi index of the last item in the array
+     * @return sample variance in the array
+     */
+    public double var(double[] a, int lo, int hi) {
+        return accumulate(a, lo, hi).var();
+    }
+
+    /**
+     * Returns the sample variance in the array a[], NaN if no such value.
+     *
+     * @param a array of integer values
+     * @return sample variance in the array
+     */
+    public double var(int[] a) {
+        if (a.length <= threshold) return Stats.var(a);
+        return accumulate(a).var();
+    }
+
+    /**
+     * Returns the population variance in the array a[], NaN if no such value.
+     *
+     * @param a array of double values
+     * @return population variance in the array
+     */
+    public double varp(double[] a) {
+        if (a.length <= threshold) return Stats.varp(a);
+        return accumulate(a).varp();
+    }
+
+    /**
+     * Returns the population variance in the subarray a[lo..hi], NaN if no such value.
+     *
+     * @param a  array of double values
+     * @param lo index of the first item in the array
+     * @param hi index of the last item in the array
+     * @return population variance in the array
+     */
+    public double varp(double[] a, int lo, int hi) {
+        return accumulate(a, lo, hi).varp();
+    }
+
+    /**
+     * Returns the sample standard deviation in the array a[], NaN if no such value.
+     *
+     * @param a array of double values
+     * @return sample standard deviation in the array
+     */
+    public double stddev(double[] a) {
+        return java.lang.Math.sqrt(var(a));
+    }
+
+    /**
+     * Returns the sample standard deviation in the subarray a[lo..hi], NaN if no such value.
+     *
+     * @param a  array of double values
+     * @param lo index of the first item in the array
+     * @param hi index of the last item in the array
+     * @return sample standard deviation in the array
+     */
+    public double stddev(double[] a, int lo, int hi) {
+        return java.lang.Math.sqrt(var(a, lo, hi));
+    }
+
+    /**
+     * Returns the sample standard deviation in the array a[], NaN if no such value.
+     *
+     * @param a array of integer values
+     * @return sample standard deviation in the array
+     */
+    public double stddev(int[] a) {
+        return java.lang.Math.sqrt(var(a));
+    }
+
+    /**
+     * Returns the population standard deviation in the array a[], NaN if no such value.
+     *
+     * @param a array of double values
+     * @return population standard deviation in the array
+     */
+    public double stddevp(double[] a) {
+        return java.lang.Math.sqrt(varp(a));
+    }
+
+    /**
+     * Returns the population standard deviation in the subarray a[lo..hi], NaN if no such value.
+     *
+     * @param a  array of double values
+     * @param lo index of the first item in the array
+     * @param hi index of the last item in the array
+     * @return population standard deviation in the array
+     */
+    public double stddevp(double[] a, int lo, int hi) {
+        return java.lang.Math.sqrt(varp(a, lo, hi));
+    }
+
+    /**
+     * Returns the sum of all values in the array a[].
+     *
+     * @param a array of double values
+     * @return sum of all values in the array
+     */
+    public double sum(double[] a) {
+        if (a.length <= threshold) return Stats.sum(a);
+        return reduce(a, 0, a.length - 1, SUM);
+    }
+
+    /**
+     * Returns the sum of all values in the subarray a[lo..hi].
+     *
+     * @param a  array of double values
+     * @param lo index of the first item in the array
+     * @param hi index of the last item in the array
+     * @return sum of all values in the array
+     */
+    public double sum(double[] a, int lo, int hi) {
+        checkIndices(a.length, lo, hi);
+        return reduce(a, lo, hi, SUM);
+    }
+
+    /**
+     * Returns the sum of all values in the array a[].
+     *
+     * @param a array of integer values
+     * @return sum of all values in the array
+     */
+    public int sum(int[] a) {
+        if (a.length <= threshold) return Stats.sum(a);
+        return reduce(a, 0, a.length - 1, SUM);
+    }
+
+    /**
+     * Returns an accumulator holding all statistics of the array a[].
+     *
+     * @param a array of double values
+     * @return accumulator holding the statistics of the array
+     */
+    public StatsAccumulator accumulate(double[] a) {
+        if (a.length == 0) return new StatsAccumulator();
+        return accumulate(a, 0, a.length - 1);
+    }
+
+    /**
+     * Returns an accumulator holding all statistics of the subarray a[lo..hi].
+     *
+     * @param a  array of double values
+     * @param lo index of the first item in the array
+     * @param hi index of the last item in the array
+     * @return accumulator holding the statistics of the array
+     */
+    public StatsAccumulator accumulate(double[] a, int lo, int hi) {
+        checkIndices(a.length, lo, hi);
+        return pool.invoke(new AccumulateTask(a, null, lo, hi, threshold));
+    }
+
+    /**
+     * Returns an accumulator holding all statistics of the array a[].
+     *
+     * @param a array of integer values
+     * @return accumulator holding the statistics of the array
+     */
+    public StatsAccumulator accumulate(int[] a) {
+        if (a.length == 0) return new StatsAccumulator();
+        return pool.invoke(new AccumulateTask(null, a, 0, a.length - 1, threshold));
+    }
+
+    /**
+     * Returns the sample covariance matrix of a number of columns of equal length, as a flat array: the
+     * covariance of columns i and j is at index i * columns.length + j.
+     *
+     * @param columns the columns, each an array of double values
+     * @return the covariance matrix, row by row
+     */
+    public double[] covarianceMatrix(double[][] columns) {
+        int p = columns.length;
+        int n = Stats.rowCount(columns);
+        return productSums(columns, null, p, n);
+    }
+
+    /**
+     * Returns the sample covariance matrix of a table stored row by row in a flat array, value j of row i being
+     * at index i * columns + j. The covariance of columns i and j is at index i * columns + j of the result.
+     *
+     * @param rows    the values of the table, row by row
+     * @param columns the number of columns
+     * @return the covariance matrix, row by row
+     */
+    public double[] covarianceMatrix(double[] rows, int columns) {
+        int n = Stats.rowCount(rows, columns);
+        return productSums(null, rows, columns, n);
+    }
+
+    /**
+     * Returns the correlation matrix (of Pearson) of a number of columns of equal length, as a flat array: the
+     * correlation of columns i and j is at index i * columns.length + j. Correlations with a constant column
+     * are NaN.
+     *
+     * @param columns the columns, each an array of double values
+     * @return the correlation matrix, row by row
+     */
+    public double[] correlationMatrix(double[][] columns) {
+        return Stats.correlations(covarianceMatrix(columns), columns.length);
+    }
+
+    /**
+     * Returns the correlation matrix (of Pearson) of a table stored row by row in a flat array, value j of row i
+     * being at index i * columns + j. Correlations with a constant column are NaN.
+     *
+     * @param rows    the values of the table, row by row
+     * @param columns the number of columns
+     * @return the correlation matrix, row by row
+     */
+    public double[] correlationMatrix(double[] rows, int columns) {
+        return Stats.correlations(covarianceMatrix(rows, columns), columns);
+    }
+
+    /**
+     * Splits the rows in chunks of at least threshold values, but no more chunks than four per worker since every
+     * chunk needs its own matrix.
+     */
+    private double[] productSums(double[][] columns, double[] rows, int p, int n) {
+        double[] means = Stats.columnMeans(columns, rows, p, n);
+        if (n == 0 || p == 0) return Stats.covariances(new double[p * p], p, n);
+        int chunks = 4 * pool.getParallelism();
+        int leafRows = java.lang.Math.max(java.lang.Math.max(1, threshold / p), (n + chunks - 1) / chunks);
+        double[] sums = pool.invoke(new CovarianceTask(columns, rows, p, 0, n - 1, means, leafRows));
+        return Stats.covariances(sums, p, n);
+    }
+
+    private double reduce(double[] a, int lo, int hi, int operation) {
+        return pool.invoke(new DoubleReduceTask(a, lo, hi, operation, threshold));
+    }
+
+    private int reduce(int[] a, int lo, int hi, int operation) {
+        return pool.invoke(new IntReduceTask(a, lo, hi, operation, threshold));
+    }
+
+    private static void checkIndices(int length, int lo, int hi) {
+        if (lo < 0 || hi >= length || lo > hi) throw new RuntimeException(ERROR_INDICES);
+    }
+
+    /**
+     * Computes the sum, maximum or minimum of a subarray of double values.
+     */
+    private static final class DoubleReduceTask extends RecursiveTask<Double> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double[] a;
+        private final int lo, hi, operation, threshold;
+
+        private DoubleReduceTask(double[] a, int lo, int hi, int operation, int threshold) {
+            this.a = a;
+            this.lo = lo;
+            this.hi = hi;
+            this.operation = operation;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Double compute() {
+            if (hi - lo < threshold) {
+                if (operation == SUM) return Stats.sum(a, lo, hi);
+                else if (operation == MAX) return Stats.max(a, lo, hi);
+                else return Stats.min(a, lo, hi);
+            }
+            int mid = (lo + hi) >>> 1;
+            DoubleReduceTask left = new DoubleReduceTask(a, lo, mid, operation, threshold);
+            left.fork();
+            double right = new DoubleReduceTask(a, mid + 1, hi, operation, threshold).compute();
+            double result = left.join();
+            if (operation == SUM) return result + right;
+            else if (operation == MAX) return java.lang.Math.max(result, right);
+            else return java.lang.Math.min(result, right);
+        }
+    }
+
+    /**
+     * Computes the sum, maximum or minimum of a subarray of integer values.
+     */
+    private static final class IntReduceTask extends RecursiveTask<Integer> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] a;
+        private final int lo, hi, operation, threshold;
+
+        private IntReduceTask(int[] a, int lo, int hi, int operation, int threshold) {
+            this.a = a;
+            this.lo = lo;
+            this.hi = hi;
+            this.operation = operation;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (hi - lo < threshold) {
+                int result = operation == SUM ? 0 : operation == MAX ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+                for (int i = lo; i <= hi; i++) {
+                    if (operation == SUM) result += a[i];
+                    else if (operation == MAX) result = java.lang.Math.max(result, a[i]);
+                    else result = java.lang.Math.min(result, a[i]);
+                }
+                return result;
+            }
+            int mid = (lo + hi) >>> 1;
+            IntReduceTask left = new IntReduceTask(a, lo, mid, operation, threshold);
+            left.fork();
+            int right = new IntReduceTask(a, mid + 1, hi, operation, threshold).compute();
+            int result = left.join();
+            if (operation == SUM) return result + right;
+            else if (operation == MAX) return java.lang.Math.max(result, right);
+            else return java.lang.Math.min(result, right);
+        }
+    }
+
+    /**
+     * Gathers the statistics of a subarray of double or integer values (one of both arrays is null).
+     */
+    private static final class AccumulateTask extends RecursiveTask<StatsAccumulator> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double[] doubles;
+        private final int[] ints;
+        private final int lo, hi, threshold;
+
+        private AccumulateTask(double[] doubles, int[] ints, int lo, int hi, int threshold) {
+            this.doubles = doubles;
+            this.ints = ints;
+            this.lo = lo;
+            this.hi = hi;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected StatsAccumulator compute() {
+            if (hi - lo < threshold) {
+                StatsAccumulator accumulator = new StatsAccumulator();
+                if (doubles != null) accumulator.addAll(doubles, lo, hi);
+                else accumulator.addAll(ints, lo, hi);
+                return accumulator;
+            }
+            int mid = (lo + hi) >>> 1;
+            AccumulateTask left = new AccumulateTask(doubles, ints, lo, mid, threshold);
+            left.fork();
+            StatsAccumulator right = new AccumulateTask(doubles, ints, mid + 1, hi, threshold).compute();
+            StatsAccumulator result = left.join();
+            result.merge(right);
+            return result;
+        }
+    }
+
+    /**
+     * Computes the sums of the products of the deviations from the means for a range of rows.
+     */
+    private static final class CovarianceTask extends RecursiveTask<double[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double[][] columns;
+        private final double[] rows;
+        private final double[] means;
+        private final int p, lo, hi, leafRows;
+
+        private CovarianceTask(double[][] columns, double[] rows, int p, int lo, int hi, double[] means,
+                               int leafRows) {
+            this.columns = columns;
+            this.rows = rows;
+            this.p = p;
+            this.lo = lo;
+            this.hi = hi;
+            this.means = means;
+            this.leafRows = leafRows;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (hi - lo < leafRows) {
+                double[] sums = new double[p * p];
+                Stats.productSums(columns, rows, p, lo, hi, means, sums);
+                return sums;
+            }
+            int mid = (lo + hi) >>> 1;
+            CovarianceTask left = new CovarianceTask(columns, rows, p, lo, mid, means, leafRows);
+            left.fork();
+            double[] right = new CovarianceTask(columns, rows, p, mid + 1, hi, means, leafRows).compute();
+            double[] result = left.join();
+            for (int i = 0; i < result.length; i++) {
+                result[i] += right[i];
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package be.thibaulthelsmoortel.helsmoortelUtil.util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.stream.IntStream;
+
+/**
+ * Segmented sieve of Eratosthenes, telling which numbers of a range are prime.
+ * <p>
+ * Only odd numbers are sieved, one bit each, in segments of 32 KB (over half a million numbers) that fit in the
+ * L1 or L2 cache. Segments only depend on the primes up to the square root of the end of the range, so they are
+ * sieved in parallel. {@link #of(long, long)} keeps the bits of the whole range, for repeated lookups;
+ * {@link #primes(long, long)} and {@link #count(long, long)} sieve one segment at a time and never keep more than
+ * a segment per thread. The primes up to the square root are sieved segment by segment as well and kept as
+ * {@code int} values, so ranges ending at the maximum of 2^50 need about 8 MB and ranges up to 10^10 far less.
+ * <p>
+ * For single numbers, {@link Math#isPrime(long)} is much faster than sieving.
+ *
+ * @author Thibault Helsmoortel
+ */
+public final class PrimeSieve {
+
+    public static final String ERROR_RANGE = "Range should be within 0 and 2^50!";
+    //Words (of 64 odd numbers) per segment
+    private static final int SEGMENT_WORDS = 4096;
+    //Numbers covered by a segment
+    private static final long SEGMENT_SPAN = 2L * 64 * SEGMENT_WORDS;
+    private static final long MAX_VALUE = 1L << 50;
+
+    private final long from, to;
+    //First odd number of the range, number of odd numbers in the range
+    private final long start, odds;
+    //Bit i is set when start + 2i is not prime
+    private final long[] composites;
+
+    private PrimeSieve(long from, long to, long start, long odds, long[] composites) {
+        this.from = from;
+        this.to = to;
+        this.start = start;
+        this.odds = odds;
+        this.composites = composites;
+    }
+
+    /**
+     * Sieves the numbers from a lower bound up to an upper bound (both inclusive) in parallel, keeping a bit per
+     * odd number: a range of 10^9 numbers takes 62.5 MB.
+     *
+     * @param from the lowest number
+     * @param to   the highest number
+     * @return the sieve of the range
+     */
+    public static PrimeSieve of(long from, long to) {
+        checkRange(from, to);
+        long start = from | 1;
+        long odds = to < start ? 0 : (to - start) / 2 + 1;
+        long words = (odds + 63) / 64;
+        if (words > Integer.MAX_VALUE - 8) throw new IllegalArgumentException(ERROR_RANGE);
+        long[] composites = new long[(int) words];
+        int[] basePrimes = basePrimes(to);
+        int segments = (int) ((words + SEGMENT_WORDS - 1) / SEGMENT_WORDS);
+        IntStream.range(0, segments).parallel().forEach(segment -> {
+            int offset = segment * SEGMENT_WORDS;
+            sieveSegment(start + segment * SEGMENT_SPAN, java.lang.Math.min(SEGMENT_WORDS, composites.length - offset),
+                    basePrimes, composites, offset);
+        });
+        //Odd numbers beyond the range are no primes of the range
+        if (odds % 64 != 0) composites[composites.length - 1] |= -1L << (odds % 64);
+        return new PrimeSieve(from, to, start, odds, composites);
+    }
+
+    /**
+     * Returns the lowest number of the range.
+     *
+     * @return the lowest number
+     */
+    public long getFrom() {
+        return from;
+    }
+
+    /**
+     * Returns the highest number of the range.
+     *
+     * @return the highest number
+     */
+    public long getTo() {
+        return to;
+    }
+
+    /**
+     * Returns whether a number of the range is prime.
+     *
+     * @param n the number
+     * @return {@code boolean} indicating if the number is prime
+     */
+    public boolean isPrime(long n) {
+        if (n < from || n > to) throw new IllegalArgumentException(ERROR_RANGE);
+        if ((n & 1) == 0) return n == 2;
+        long i = (n - start) >>> 1;
+        return (composites[(int) (i >>> 6)] & (1L << i)) == 0;
+    }
+
+    /**
+     * Returns the number of primes in the range.
+     *
+     * @return the number of primes
+     */
+    public long count() {
+        long count = from <= 2 && 2 <= to ? 1 : 0;
+        for (long word : composites) {
+            count += Long.bitCount(~word);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the primes of the range in ascending order.
+     *
+     * @return iterator over the primes
+     */
+    public PrimitiveIterator.OfLong iterator() {
+        return new PrimeIterator(from, to) {
+            @Override
+            long[] segment(long segmentStart, int words) {
+                //The segments of the iterator line up with the words of this sieve
+                long[] segment = new long[words];
+                System.arraycopy(composites, (int) ((segmentStart - start) / 128), segment, 0, words);
+                return segment;
+            }
+        };
+    }
+
+    /**
+     * Returns the primes from a lower bound up to an upper bound (both inclusive) in ascending order, sieving
+     * one segment at a time as the iterator advances.
+     *
+     * @param from the lowest number
+     * @param to   the highest number
+     * @return iterator over the primes
+     */
+    public static PrimitiveIterator.OfLong primes(long from, long to) {
+        checkRange(from, to);
+        int[] basePrimes = basePrimes(to);
+        return new PrimeIterator(from, to) {
+            private final long[] segment = new long[SEGMENT_WORDS];
+
+            @Override
+            long[] segment(long segmentStart, int words) {
+                Arrays.fill(segment, 0);
+                sieveSegment(segmentStart, words, basePrimes, segment, 0);
+                return segment;
+            }
+        };
+    }
+
+    /**
+     * Returns the number of primes from a lower bound up to an upper bound (both inclusive), sieving the segments
+     * in parallel without keeping them.
+     *
+     * @param from the lowest number
+     * @param to   the highest number
+     * @return the number of primes
+     */
+    public static long count(long from, long to) {
+        checkRange(from, to);
+        long start = from | 1;
+        if (to < start) return from <= 2 && 2 <= to ? 1 : 0;
+        long odds = (to - start) / 2 + 1;
+        int[] basePrimes = basePrimes(to);
+        long segments = (odds + 64L * SEGMENT_WORDS - 1) / (64L * SEGMENT_WORDS);
+        if (segments > Integer.MAX_VALUE) throw new IllegalArgumentException(ERROR_RANGE);
+        long primes = IntStream.range(0, (int) segments).parallel().mapToLong(segment -> {
+            long segmentStart = start + segment * SEGMENT_SPAN;
+            long remaining = odds - segment * 64L * SEGMENT_WORDS;
+            int words = (int) java.lang.Math.min(SEGMENT_WORDS, (remaining + 63) / 64);
+            long[] bits = new long[words];
+            sieveSegment(segmentStart, words, basePrimes, bits, 0);
+            if (remaining < 64L * words) bits[words - 1] |= -1L << (remaining % 64);
+            long count = 0;
+            for (long word : bits) {
+                count += Long.bitCount(~word);
+            }
+            return count;
+        }).sum();
+        return primes + (from <= 2 && 2 <= to ? 1 : 0);
+    }
+
+    private static void checkRange(long from, long to) {
+        if (from < 0 || to < from || to > MAX_VALUE) throw new IllegalArgumentException(ERROR_RANGE);
+    }
+
+    /**
+     * Returns the odd primes up to the square root of a number. They are sieved segment by segment, with the odd
+     * primes up to their own square root, found the same way.
+     */
+    private static int[] basePrimes(long to) {
+        int limit = (int) java.lang.Math.sqrt((double) to);
+        while ((long) limit * limit > to) limit--;
+        while ((limit + 1L) * (limit + 1L) <= to) limit++;
+        if (limit < 3) return new int[0];
+        int[] basePrimes = basePrimes(limit);
+        //Upper bound of the number of primes up to the limit (Rosser and Schoenfeld)
+        int[] primes = new int[(int) (1.25506 * limit / java.lang.Math.log(limit)) + 1];
+        int count = 0;
+        long odds = (limit - 1) / 2 + 1;
+        long[] segment = new long[(int) java.lang.Math.min(SEGMENT_WORDS, (odds + 63) / 64)];
+        for (long segmentStart = 1; segmentStart <= limit; segmentStart += SEGMENT_SPAN) {
+            Arrays.fill(segment, 0);
+            sieveSegment(segmentStart, segment.length, basePrimes, segment, 0);
+            for (int w = 0; w < segment.length; w++) {
+                for (long word = ~segment[w]; word != 0; word &= word - 1) {
+                    long n = segmentStart + 2 * (64L * w + Long.numberOfTrailingZeros(word));
+                    if (n > limit) return Arrays.copyOf(primes, count);
+                    primes[count++] = (int) n;
+                }
+            }
+        }
+        return Arrays.copyOf(primes, count);
+    }
+
+    /**
+     * Marks the odd composites among the numbers segmentStart + 2i, i below 64 * words, in bits[offset..].
+     */
+    private static void sieveSegment(long segmentStart, int words, int[] basePrimes, long[] bits, int offset) {
+        long size = 64L * words;
+        long end = segmentStart + 2 * (size - 1);
+        if (segmentStart == 1) bits[offset] |= 1L;
+        for (int p : basePrimes) {
+            long square = (long) p * p;
+            if (square > end) break;
+            long first;
+            if (square >= segmentStart) {
+                first = square;
+            } else {
+                long remainder = segmentStart % p;
+                first = remainder == 0 ? segmentStart : segmentStart + p - remainder;
+                if ((first & 1) == 0) first += p;
+            }
+            for (long i = (first - segmentStart) >>> 1; i < size; i += p) {
+                bits[offset + (int) (i >>> 6)] |= 1L << i;
+            }
+        }
+    }
+
+    /**
+     * Iterates over the zero bits of consecutive segments, preceded by 2 when in range.
+     */
+    private abstract static class PrimeIterator implements PrimitiveIterator.OfLong {
+
+        private final long start, to;
+        private final long odds;
+        private long segmentStart;
+        private long[] segment;
+        private int wordIndex;
+        private long word;
+        private boolean two;
+        private long next = -1;
+
+        private PrimeIterator(long from, long to) {
+            this.start = from | 1;
+            this.to = to;
+            this.odds = to < start ? 0 : (to - start) / 2 + 1;
+            this.two = from <= 2 && 2 <= to;
+            this.segmentStart = start - SEGMENT_SPAN;
+            this.segment = new long[0];
+        }
+
+        abstract long[] segment(long segmentStart, int words);
+
+        @Override
+        public boolean hasNext() {
+            if (next >= 0) return true;
+            if (two) {
+                two = false;
+                next = 2;
+                return true;
+            }
+            for (;;) {
+                while (word == 0) {
+                    if (++wordIndex >= segment.length || segment.length == 0) {
+                        if (!nextSegment()) return false;
+                    } else {
+                        word = ~segment[wordIndex];
+                    }
+                }
+                long n = segmentStart + 2 * (64L * wordIndex + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+                if (n > to) return false;
+                next = n;
+                return true;
+            }
+        }
+
+        private boolean nextSegment() {
+            segmentStart += SEGMENT_SPAN;
+            long done = (segmentStart - start) / 2;
+            if (done >= odds) return false;
+            int words = (int) java.lang.Math.min(SEGMENT_WORDS, (odds - done + 63) / 64);
+            segment = segment(segmentStart, words);
+            if (words < segment.length) Arrays.fill(segment, words, segment.length, -1L);
+            wordIndex = 0;
+            word = ~segment[0];
+            return true;
+        }
+
+        @Override
+        public long nextLong() {
+            if (!hasNext()) throw new NoSuchElementException();
+            long result = next;
+            next = -1;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,424 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package be.thibaulthelsmoortel.helsmoortelUtil.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.BufferUnderflowException;
+
+/**
+ * Fixed-memory sketch estimating quantiles (for example p50, p99 or p999) of an unbounded stream of values,
+ * complementing the moments and extremes of {@link Stats}.
+ * <p>
+ * Values are counted in buckets whose bounds grow geometrically (like an HDR histogram), so every estimate lies
+ * within a given relative error of an actual value of the stream: with a relative accuracy of 0.01, p99 of a
+ * stream of latencies is off by at most 1%. The number of buckets is capped, so memory stays the same whether
+ * 1000 or a billion values are added. Should the values span more buckets than allowed, the buckets of the values
+ * closest to zero are collapsed, sacrificing accuracy of the lowest quantiles only.
+ * <p>
+ * Sketches with the same settings can be merged, which makes them suited to combine the measurements of several
+ * threads or machines. {@link #toByteArray()} gives a compact serialized form. Sketches are not thread-safe.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class QuantileSketch {
+
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+    public static final int DEFAULT_MAX_BUCKETS = 2048;
+    public static final String ERROR_ACCURACY = "Relative accuracy should be at least 1e-6 and below 1!";
+    public static final String ERROR_MAX_BUCKETS = "Maximum number of buckets should be positive!";
+    public static final String ERROR_QUANTILE = "Quantile should be between 0 and 1!";
+    public static final String ERROR_VALUE = "Value should be finite!";
+    public static final String ERROR_MERGE = "Only sketches with the same settings can be merged!";
+    public static final String ERROR_FORMAT = "Invalid serialized sketch!";
+    private static final byte VERSION = 1;
+    //Values closer to zero are counted as zero
+    private static final double MIN_INDEXABLE = Double.MIN_NORMAL;
+    private static final double MIN_ACCURACY = 1e-6;
+
+    private final double relativeAccuracy;
+    private final int maxBuckets;
+    private final double gamma;
+    private final double logGamma;
+    private final Store positive, negative;
+    private long zeroCount;
+    private long count;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Default constructor. Uses a relative accuracy of 1% and at most 2048 buckets per sign, which is enough
+     * for values spanning 17 orders of magnitude.
+     */
+    public QuantileSketch() {
+        this(DEFAULT_RELATIVE_ACCURACY, DEFAULT_MAX_BUCKETS);
+    }
+
+    /**
+     * Constructor to create a sketch with a given relative accuracy and a maximum number of buckets per sign.
+     *
+     * @param relativeAccuracy the maximum relative error of an estimate
+     * @param maxBuckets       the maximum number of buckets for positive and for negative values
+     */
+    public QuantileSketch(double relativeAccuracy, int maxBuckets) {
+        //Finer accuracies would give the largest and smallest doubles bucket indices beyond the range of int
+        if (!(relativeAccuracy >= MIN_ACCURACY && relativeAccuracy < 1))
+            throw new IllegalArgumentException(ERROR_ACCURACY);
+        if (maxBuckets <= 0) throw new IllegalArgumentException(ERROR_MAX_BUCKETS);
+        this.relativeAccuracy = relativeAccuracy;
+        this.maxBuckets = maxBuckets;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = java.lang.Math.log(gamma);
+        this.positive = new Store(maxBuckets);
+        this.negative = new Store(maxBuckets);
+    }
+
+    /**
+     * Returns the maximum relative error of an estimate.
+     *
+     * @return the relative accuracy
+     */
+    public double getRelativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    /**
+     * Returns the maximum number of buckets for positive and for negative values.
+     *
+     * @return the maximum number of buckets
+     */
+    public int getMaxBuckets() {
+        return maxBuckets;
+    }
+
+    /**
+     * Adds a value to the sketch.
+     *
+     * @param value the value to add
+     */
+    public void add(double value) {
+        add(value, 1);
+    }
+
+    /**
+     * Adds a value to the sketch a number of times.
+     *
+     * @param value the value to add
+     * @param n     the number of times to add the value
+     */
+    public void add(double value, long n) {
+        if (!(java.lang.Math.abs(value) <= Double.MAX_VALUE)) throw new IllegalArgumentException(ERROR_VALUE);
+        if (n <= 0) return;
+        if (value > MIN_INDEXABLE) positive.add(index(value), n);
+        else if (value < -MIN_INDEXABLE) negative.add(index(-value), n);
+        else zeroCount += n;
+        count += n;
+        sum += value * n;
+        if (value < min) min = value;
+        if (value > max) max = value;
+    }
+
+    /**
+     * Adds all values in the array a[].
+     *
+     * @param a array of double values
+     */
+    public void addAll(double[] a) {
+        for (int i = 0; i < a.length; i++) {
+            add(a[i]);
+        }
+    }
+
+    /**
+     * Returns the estimated value at a given quantile, NaN if the sketch is empty.
+     * Example: {@code quantile(0.99)} returns the 99th percentile. Quantiles 0 and 1 return the exact minimum
+     * and maximum.
+     *
+     * @param q the quantile, between 0 and 1
+     * @return the estimated value at the quantile
+     */
+    public double quantile(double q) {
+        if (!(q >= 0 && q <= 1)) throw new IllegalArgumentException(ERROR_QUANTILE);
+        if (count == 0) return Double.NaN;
+        //Minimum and maximum are known exactly
+        if (q == 0) return min;
+        if (q == 1) return max;
+        double rank = q * (count - 1);
+        long seen = 0;
+        double estimate = max;
+        found:
+        {
+            //From the most negative value up to the most positive value
+            for (int index = negative.maxIndex; index >= negative.minIndex; index--) {
+                seen += negative.get(index);
+                if (seen > rank) {
+                    estimate = -value(index);
+                    break found;
+                }
+            }
+            seen += zeroCount;
+            if (seen > rank) {
+                estimate = 0.0;
+                break found;
+            }
+            for (int index = positive.minIndex; index <= positive.maxIndex; index++) {
+                seen += positive.get(index);
+                if (seen > rank) {
+                    estimate = value(index);
+                    break found;
+                }
+            }
+        }
+        return java.lang.Math.max(min, java.lang.Math.min(max, estimate));
+    }
+
+    /**
+     * Returns the number of values added.
+     *
+     * @return the number of values
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Returns the sum of all values added.
+     *
+     * @return sum of all values
+     */
+    public double sum() {
+        return sum;
+    }
+
+    /**
+     * Returns the average of all values added, NaN if no such value.
+     *
+     * @return the average value
+     */
+    public double mean() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    /**
+     * Returns the exact minimum value added, +infinity if no such value.
+     *
+     * @return the minimum value
+     */
+    public double min() {
+        return min;
+    }
+
+    /**
+     * Returns the exact maximum value added, -infinity if no such value.
+     *
+     * @return the maximum value
+     */
+    public double max() {
+        return max;
+    }
+
+    /**
+     * Adds all values of another sketch with the same settings to this one.
+     *
+     * @param other the sketch to merge into this one
+     */
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy || other.maxBuckets != maxBuckets)
+            throw new IllegalArgumentException(ERROR_MERGE);
+        if (other.count == 0) return;
+        positive.merge(other.positive);
+        negative.merge(other.negative);
+        zeroCount += other.zeroCount;
+        count += other.count;
+        sum += other.sum;
+        min = java.lang.Math.min(min, other.min);
+        max = java.lang.Math.max(max, other.max);
+    }
+
+    /**
+     * Forgets all values added so far.
+     */
+    public void reset() {
+        positive.clear();
+        negative.clear();
+        zeroCount = 0;
+        count = 0;
+        sum = 0.0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Returns the sketch in a compact binary form. Only the used buckets are written, with variable length
+     * counts, so a sketch typically takes a few hundred bytes.
+     *
+     * @return the serialized sketch
+     */
+    public byte[] toByteArray() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        ByteBuffer header = ByteBuffer.allocate(1 + 8 + 4 + 8 + 8 + 8);
+        header.put(VERSION).putDouble(relativeAccuracy).putInt(maxBuckets).putDouble(sum).putDouble(min)
+                .putDouble(max);
+        out.write(header.array(), 0, header.position());
+        writeVarLong(out, zeroCount);
+        positive.writeTo(out);
+        negative.writeTo(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Restores a sketch from its binary form.
+     *
+     * @param bytes the serialized sketch, as returned by {@link #toByteArray()}
+     * @return the restored sketch
+     */
+    public static QuantileSketch fromByteArray(byte[] bytes) {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(bytes);
+            if (in.get() != VERSION) throw new IllegalArgumentException(ERROR_FORMAT);
+            QuantileSketch sketch = new QuantileSketch(in.getDouble(), in.getInt());
+            sketch.sum = in.getDouble();
+            sketch.min = in.getDouble();
+            sketch.max = in.getDouble();
+            sketch.zeroCount = readVarLong(in);
+            sketch.count = sketch.zeroCount + sketch.positive.readFrom(in) + sketch.negative.readFrom(in);
+            return sketch;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException(ERROR_FORMAT, e);
+        }
+    }
+
+    private int index(double value) {
+        return (int) java.lang.Math.ceil(java.lang.Math.log(value) / logGamma);
+    }
+
+    /**
+     * Returns the value representing a bucket, within the relative accuracy of every value in the bucket.
+     */
+    private double value(int index) {
+        return 2 * java.lang.Math.pow(gamma, index) / (gamma + 1);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IllegalArgumentException(ERROR_FORMAT);
+    }
+
+    /**
+     * Fixed size window of bucket counts, indexed from {@code offset}. When a value falls outside the window,
+     * the window moves; buckets which no longer fit at its low end are collapsed into its first bucket.
+     */
+    private static final class Store {
+
+        private final long[] counts;
+        private int offset;
+        //Lowest and highest index holding a count, minIndex > maxIndex when empty
+        private int minIndex = Integer.MAX_VALUE, maxIndex = Integer.MIN_VALUE;
+
+        private Store(int size) {
+            this.counts = new long[size];
+        }
+
+        private long get(int index) {
+            return counts[index - offset];
+        }
+
+        private void add(int index, long n) {
+            if (minIndex > maxIndex) {
+                offset = index - counts.length / 2;
+            } else if (index < offset) {
+                if (maxIndex - index < counts.length) moveTo(index);
+                else index = offset;
+            } else if (index >= offset + counts.length) {
+                moveTo(index - counts.length + 1);
+            }
+            counts[index - offset] += n;
+            if (index < minIndex) minIndex = index;
+            if (index > maxIndex) maxIndex = index;
+        }
+
+        /**
+         * Moves the window to start at a new offset, collapsing the buckets below it into its first bucket.
+         */
+        private void moveTo(int newOffset) {
+            long collapsed = 0;
+            for (int index = minIndex; index < newOffset && index <= maxIndex; index++) {
+                collapsed += counts[index - offset];
+            }
+            int shift = newOffset - offset;
+            if (java.lang.Math.abs((long) shift) >= counts.length) {
+                java.util.Arrays.fill(counts, 0);
+            } else if (shift > 0) {
+                System.arraycopy(counts, shift, counts, 0, counts.length - shift);
+                java.util.Arrays.fill(counts, counts.length - shift, counts.length, 0);
+            } else if (shift < 0) {
+                System.arraycopy(counts, 0, counts, -shift, counts.length + shift);
+                java.util.Arrays.fill(counts, 0, -shift, 0);
+            }
+            offset = newOffset;
+            if (collapsed > 0) {
+                counts[0] += collapsed;
+                minIndex = newOffset;
+                if (maxIndex < newOffset) maxIndex = newOffset;
+            }
+        }
+
+        private void merge(Store other) {
+            for (int index = other.minIndex; index <= other.maxIndex; index++) {
+                long n = other.get(index);
+                if (n > 0) add(index, n);
+            }
+        }
+
+        private void clear() {
+            java.util.Arrays.fill(counts, 0);
+            minIndex = Integer.MAX_VALUE;
+            maxIndex = Integer.MIN_VALUE;
+        }
+
+        private void writeTo(ByteArrayOutputStream out) {
+            if (minIndex > maxIndex) {
+                writeVarLong(out, 0);
+                return;
+            }
+            writeVarLong(out, maxIndex - minIndex + 1);
+            //Zigzag encoding keeps small negative indices short
+            writeVarLong(out, (minIndex << 1) ^ (minIndex >> 31));
+            for (int index = minIndex; index <= maxIndex; index++) {
+                writeVarLong(out, get(index));
+            }
+        }
+
+        private long readFrom(ByteBuffer in) {
+            long length = readVarLong(in);
+            if (length == 0) return 0;
+            if (length > counts.length) throw new IllegalArgumentException(ERROR_FORMAT);
+            int zigzag = (int) readVarLong(in);
+            int first = (zigzag >>> 1) ^ -(zigzag & 1);
+            long total = 0;
+            for (int i = 0; i < length; i++) {
+                long n = readVarLong(in);
+                if (n > 0) add(first + i, n);
+                total += n;
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package be.thibaulthelsmoortel.helsmoortelUtil.util;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Source of random numbers meant for simulations generating many values on many threads at once.
+ * <p>
+ * {@link java.lang.Math#random()} shares a single {@link java.util.Random} between all threads, whose state is
+ * updated by compare-and-set: threads drawing numbers at once keep invalidating each other. A source wraps a
+ * {@link SplittableRandom} instead, which is not shared: {@link #current()} returns a source per thread, so
+ * threads never contend. For reproducible runs, {@link #seeded(long)} creates a source from a seed, and
+ * {@link #split()} derives independent sources from it for worker tasks, which gives the same numbers for the same
+ * seed however the tasks are scheduled.
+ * <p>
+ * Sources are not thread-safe: a source should only be used by one thread at a time, and the source returned by
+ * {@link #current()} should not be handed to another thread.
+ *
+ * @author Thibault Helsmoortel
+ */
+public final class RandomSource {
+
+    public static final String ERROR_BOUNDS = "Lower bound should be below the upper bound!";
+    public static final String ERROR_BOUND = "Bound should be positive!";
+
+    private static final ThreadLocal<RandomSource> CURRENT = ThreadLocal.withInitial(
+            () -> new RandomSource(new SplittableRandom(ThreadLocalRandom.current().nextLong())));
+
+    private final SplittableRandom random;
+
+    private RandomSource(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * Returns the source of the current thread, seeded randomly.
+     *
+     * @return the source of the current thread
+     */
+    public static RandomSource current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Creates a source giving the same numbers for the same seed.
+     *
+     * @param seed the seed
+     * @return the seeded source
+     */
+    public static RandomSource seeded(long seed) {
+        return new RandomSource(new SplittableRandom(seed));
+    }
+
+    /**
+     * Creates a new source, independent of this one, for example for a task running on another thread. Its
+     * numbers are determined by the state of this source, so splitting a seeded source is reproducible.
+     *
+     * @return the new source
+     */
+    public RandomSource split() {
+        return new RandomSource(random.split());
+    }
+
+    /**
+     * Returns a random value from 0 (inclusive) up to 1 (exclusive).
+     *
+     * @return a random value
+     */
+    public double nextDouble() {
+        return random.nextDouble();
+    }
+
+    /**
+     * Returns a random value from a lower bound (inclusive) up to an upper bound (exclusive).
+     *
+     * @param lower the lower bound
+     * @param upper the upper bound
+     * @return a random value between the bounds
+     */
+    public double nextDouble(double lower, double upper) {
+        if (!(lower < upper)) throw new IllegalArgumentException(ERROR_BOUNDS);
+        return between(random.nextDouble(), lower, upper);
+    }
+
+    /**
+     * Returns a random value from 0 (inclusive) up to a bound (exclusive).
+     *
+     * @param bound the upper bound
+     * @return a random value below the bound
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0) throw new IllegalArgumentException(ERROR_BOUND);
+        return random.nextInt(bound);
+    }
+
+    /**
+     * Returns a random value from a lower bound (inclusive) up to an upper bound (exclusive).
+     *
+     * @param lower the lower bound
+     * @param upper the upper bound
+     * @return a random value between the bounds
+     */
+    public int nextInt(int lower, int upper) {
+        if (lower >= upper) throw new IllegalArgumentException(ERROR_BOUNDS);
+        return random.nextInt(lower, upper);
+    }
+
+    /**
+     * Returns a random long value.
+     *
+     * @return a random value
+     */
+    public long nextLong() {
+        return random.nextLong();
+    }
+
+    /**
+     * Fills an array with random values from 0 (inclusive) up to 1 (exclusive).
+     *
+     * @param out the array to fill
+     */
+    public void fill(double[] out) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = random.nextDouble();
+        }
+    }
+
+    /**
+     * Fills an array with random values from a lower bound (inclusive) up to an upper bound (exclusive).
+     *
+     * @param out   the array to fill
+     * @param lower the lower bound
+     * @param upper the upper bound
+     */
+    public void fill(double[] out, double lower, double upper) {
+        if (!(lower < upper)) throw new IllegalArgumentException(ERROR_BOUNDS);
+        for (int i = 0; i < out.length; i++) {
+            out[i] = between(random.nextDouble(), lower, upper);
+        }
+    }
+
+    /**
+     * Fills an array with random values from 0 (inclusive) up to a bound (exclusive).
+     *
+     * @param out   the array to fill
+     * @param bound the upper bound
+     */
+    public void ints(int[] out, int bound) {
+        if (bound <= 0) throw new IllegalArgumentException(ERROR_BOUND);
+        for (int i = 0; i < out.length; i++) {
+            out[i] = random.nextInt(bound);
+        }
+    }
+
+    /**
+     * Fills an array with random values from a lower bound (inclusive) up to an upper bound (exclusive).
+     *
+     * @param out   the array to fill
+     * @param lower the lower bound
+     * @param upper the upper bound
+     */
+    public void ints(int[] out, int lower, int upper) {
+        if (lower >= upper) throw new IllegalArgumentException(ERROR_BOUNDS);
+        for (int i = 0; i < out.length; i++) {
+            out[i] = random.nextInt(lower, upper);
+        }
+    }
+
+    private static double between(double fraction, double lower, double upper) {
+        double range = upper - lower;
+        //A range wider than the largest double is spanned by weighing the bounds instead
+        double value = Double.isInfinite(range) ? lower * (1 - fraction) + upper * fraction : lower + fraction * range;
+        //Rounding may reach the upper bound itself
+        return value < upper ? value : java.lang.Math.nextDown(upper);
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package be.thibaulthelsmoortel.helsmoortelUtil.util;
+
+/**
+ * Statistics over a sliding window holding the last {@code window} values added, for example to smooth a stream
+ * of sensor readings.
+ * <p>
+ * Values are kept in a primitive ring buffer. Mean and variance are updated in constant time when a value enters
+ * or leaves the window; minimum and maximum are tracked with monotonic deques, in amortized constant time. Adding
+ * a value allocates nothing. To avoid drifting away through accumulated rounding errors (and to recover from
+ * infinite values having left the window), mean and variance are recomputed from the buffer once every
+ * {@code window} values, which is still constant time on average.
+ * <p>
+ * Instances are not thread-safe.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class RollingStats {
+
+    public static final String ERROR_WINDOW = "Window should be positive!";
+
+    //Ring buffer of the values, the next value is stored at slot
+    private final double[] values;
+    private int slot;
+    //Candidate minima (increasing values) and maxima (decreasing values) with their sequence numbers, as ring
+    //buffers starting at their head
+    private final double[] minValues, maxValues;
+    private final long[] minSequences, maxSequences;
+    private int minHead, minSize, maxHead, maxSize;
+    //Number of values added so far
+    private long added;
+    private double mean;
+    //Sum of the squared differences from the mean
+    private double m2;
+    private int sinceRecompute;
+
+    /**
+     * Constructor to create statistics over the last values added.
+     *
+     * @param window the number of values in the window
+     */
+    public RollingStats(int window) {
+        if (window <= 0) throw new IllegalArgumentException(ERROR_WINDOW);
+        this.values = new double[window];
+        this.minValues = new double[window];
+        this.maxValues = new double[window];
+        this.minSequences = new long[window];
+        this.maxSequences = new long[window];
+    }
+
+    /**
+     * Returns the moving averages of an array, element i being the average of a[i - window + 1..i]
+     * (or a[0..i] for the first, partial windows).
+     *
+     * @param a      array of double values
+     * @param window the number of values in the window
+     * @return the moving averages
+     */
+    public static double[] means(double[] a, int window) {
+        RollingStats stats = new RollingStats(window);
+        double[] means = new double[a.length];
+        for (int i = 0; i < a.length; i++) {
+            stats.add(a[i]);
+            means[i] = stats.mean();
+        }
+        return means;
+    }
+
+    /**
+     * Adds a value, pushing the oldest value out of the window once it is full.
+     *
+     * @param value the value to add
+     */
+    public void add(double value) {
+        int window = values.length;
+        if (added < window) {
+            double delta = value - mean;
+            mean += delta / (added + 1);
+            m2 += delta * (value - mean);
+        } else {
+            double old = values[slot];
+            double oldMean = mean;
+            mean += (value - old) / window;
+            m2 += (value - old) * (value - mean + old - oldMean);
+        }
+        values[slot] = value;
+        if (++slot == window) slot = 0;
+        long sequence = added++;
+        long oldest = sequence - window;
+
+        if (minSize > 0 && minSequences[minHead] <= oldest) {
+            if (++minHead == window) minHead = 0;
+            minSize--;
+        }
+        while (minSize > 0 && minValues[wrap(minHead + minSize - 1)] >= value) minSize--;
+        int tail = wrap(minHead + minSize++);
+        minValues[tail] = value;
+        minSequences[tail] = sequence;
+
+        if (maxSize > 0 && maxSequences[maxHead] <= oldest) {
+            if (++maxHead == window) maxHead = 0;
+            maxSize--;
+        }
+        while (maxSize > 0 && maxValues[wrap(maxHead + maxSize - 1)] <= value) maxSize--;
+        tail = wrap(maxHead + maxSize++);
+        maxValues[tail] = value;
+        maxSequences[tail] = sequence;
+
+        if (++sinceRecompute >= window) recompute();
+    }
+
+    /**
+     * Returns the number of values in the window.
+     *
+     * @return the number of values
+     */
+    public int count() {
+        return (int) java.lang.Math.min(added, values.length);
+    }
+
+    /**
+     * Returns the maximum number of values in the window.
+     *
+     * @return the window size
+     */
+    public int getWindow() {
+        return values.length;
+    }
+
+    /**
+     * Returns whether the window holds as many values as it can.
+     *
+     * @return {@code boolean} indicating if the window is full
+     */
+    public boolean isFull() {
+        return added >= values.length;
+    }
+
+    /**
+     * Returns the sum of the values in the window.
+     *
+     * @return sum of the values
+     */
+    public double sum() {
+        return mean * count();
+    }
+
+    /**
+     * Returns the average of the values in the window, NaN if no such value.
+     *
+     * @return the average value
+     */
+    public double mean() {
+        return added == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * Returns the sample variance of the values in the window, NaN if no such value.
+     *
+     * @return sample variance
+     */
+    public double var() {
+        return added == 0 ? Double.NaN : java.lang.Math.max(0.0, m2) / (count() - 1);
+    }
+
+    /**
+     * Returns the population variance of the values in the window, NaN if no such value.
+     *
+     * @return population variance
+     */
+    public double varp() {
+        return added == 0 ? Double.NaN : java.lang.Math.max(0.0, m2) / count();
+    }
+
+    /**
+     * Returns the sample standard deviation of the values in the window, NaN if no such value.
+     *
+     * @return sample standard deviation
+     */
+    public double stddev() {
+        return java.lang.Math.sqrt(var());
+    }
+
+    /**
+     * Returns the population standard deviation of the values in the window, NaN if no such value.
+     *
+     * @return population standard deviation
+     */
+    public double stddevp() {
+        return java.lang.Math.sqrt(varp());
+    }
+
+    /**
+     * Returns the minimum value in the window, +infinity if no such value.
+     *
+     * @return the minimum value
+     */
+    public double min() {
+        return minSize == 0 ? Double.POSITIVE_INFINITY : minValues[minHead];
+    }
+
+    /**
+     * Returns the maximum value in the window, -infinity if no such value.
+     *
+     * @return the maximum value
+     */
+    public double max() {
+        return maxSize == 0 ? Double.NEGATIVE_INFINITY : maxValues[maxHead];
+    }
+
+    /**
+     * Empties the window.
+     */
+    public void reset() {
+        added = 0;
+        slot = 0;
+        mean = 0.0;
+        m2 = 0.0;
+        sinceRecompute = 0;
+        minHead = minSize = maxHead = maxSize = 0;
+    }
+
+    private int wrap(int index) {
+        return index >= values.length ? index - values.length : index;
+    }
+
+    private void recompute() {
+        int n = count();
+        double s = 0.0;
+        for (int i = 0; i < n; i++) {
+            s += values[i];
+        }
+        double mu = s / n, sq = 0.0;
+        for (int i = 0; i < n; i++) {
+            sq += (values[i] - mu) * (values[i] - mu);
+        }
+        mean = mu;
+        m2 = sq;
+        sinceRecompute = 0;
+    }
+}
@@ -5,6 +5,17 @@
 
 package be.thibaulthelsmoortel.helsmoortelUtil.util;
 
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * Class for regularly used stats methods.
  *
@@ -12,6 +23,23 @@ package be.thibaulthelsmoortel.helsmoortelUtil.util;
  */
 public final class Stats {
 
+    public static final String ERROR_RANK = "Rank should be within the subarray!";
+    public static final String ERROR_PERCENTILE = "Percentile should be between 0 and 100!";
+    public static final String ERROR_FRACTION = "Fraction should be at least 0 and less than 0.5!";
+    public static final String ERROR_SCRATCH = "Scratch buffer should hold the whole subarray!";
+    public static final String ERROR_COLUMNS = "Columns should all have the same length!";
+    public static final String ERROR_FILE = "File size should be a multiple of 8 bytes!";
+    //Ranges of at most this many values are insertion sorted when selecting
+    private static final int INSERTION_THRESHOLD = 16;
+    //Number of rows and columns handled at once by the covariance matrix
+    private static final int ROW_BLOCK = 256, COLUMN_TILE = 16;
+    //Number of values of a buffer copied to the heap at once, and number of bytes of a file mapped at once
+    private static final int BUFFER_CHUNK = 2048, MAP_SEGMENT = 1 << 30;
+    private static final int SUM = 0, MAX = 1, MIN = 2;
+
+    private static final ParallelStats PARALLEL = new ParallelStats(ForkJoinPool.commonPool(),
+            ParallelStats.DEFAULT_THRESHOLD);
+
     /**
      * Unavailable constructor
      */
@@ -25,12 +53,7 @@ public final class Stats {
      * @return the maximum value of the given array
      */
     public static double max(double[] a) {
-        double max = Double.NEGATIVE_INFINITY;
-        for (int i = 0; i < a.length; i++) {
-            if (Double.isNaN(a[i])) return Double.NaN;
-            if (a[i] > max) max = a[i];
-        }
-        return max;
+        return maxKernel(a, 0, a.length - 1);
     }
 
     /**
@@ -44,12 +67,7 @@ public final class Stats {
     public static double max(double[] a, int lo, int hi) {
         if (lo < 0 || hi >= a.length || lo > hi)
             throw new RuntimeException("Subarray indices out of bounds");
-        double max = Double.NEGATIVE_INFINITY;
-        for (int i = lo; i <= hi; i++) {
-            if (Double.isNaN(a[i])) return Double.NaN;
-            if (a[i] > max) max = a[i];
-        }
-        return max;
+        return maxKernel(a, lo, hi);
     }
 
     /**
@@ -61,7 +79,7 @@ public final class Stats {
     public static int max(int[] a) {
         int max = Integer.MIN_VALUE;
         for (int i = 0; i < a.length; i++) {
-            if (a[i] > max) max = a[i];
+            max = java.lang.Math.max(max, a[i]);
         }
         return max;
     }
@@ -73,12 +91,7 @@ public final class Stats {
      * @return the minimum value of the given array
      */
     public static double min(double[] a) {
-        double min = Double.POSITIVE_INFINITY;
-        for (int i = 0; i < a.length; i++) {
-            if (Double.isNaN(a[i])) return Double.NaN;
-            if (a[i] < min) min = a[i];
-        }
-        return min;
+        return minKernel(a, 0, a.length - 1);
     }
 
     /**
@@ -92,12 +105,7 @@ public final class Stats {
     public static double min(double[] a, int lo, int hi) {
         if (lo < 0 || hi >= a.length || lo > hi)
             throw new RuntimeException("Subarray indices out of bounds");
-        double min = Double.POSITIVE_INFINITY;
-        for (int i = lo; i <= hi; i++) {
-            if (Double.isNaN(a[i])) return Double.NaN;
-            if (a[i] < min) min = a[i];
-        }
-        return min;
+        return minKernel(a, lo, hi);
     }
 
     /**
@@ -109,7 +117,7 @@ public final class Stats {
     public static int min(int[] a) {
         int min = Integer.MAX_VALUE;
         for (int i = 0; i < a.length; i++) {
-            if (a[i] < min) min = a[i];
+            min = java.lang.Math.min(min, a[i]);
         }
         return min;
     }
@@ -151,11 +159,7 @@ public final class Stats {
      */
     public static double mean(int[] a) {
         if (a.length == 0) return Double.NaN;
-        double sum = 0.0;
-        for (int i = 0; i < a.length; i++) {
-            sum = sum + a[i];
-        }
-        return sum / a.length;
+        return (double) longSumKernel(a, 0, a.length - 1) / a.length;
     }
 
     /**
@@ -309,11 +313,7 @@ public final class Stats {
      * @return sum of all values in the array
      */
     public static double sum(double[] a) {
-        double sum = 0.0;
-        for (int i = 0; i < a.length; i++) {
-            sum += a[i];
-        }
-        return sum;
+        return sumKernel(a, 0, a.length - 1);
     }
 
     /**
@@ -327,11 +327,7 @@ public final class Stats {
     public static double sum(double[] a, int lo, int hi) {
         if (lo < 0 || hi >= a.length || lo > hi)
             throw new RuntimeException("Subarray indices out of bounds");
-        double sum = 0.0;
-        for (int i = lo; i <= hi; i++) {
-            sum += a[i];
-        }
-        return sum;
+        return sumKernel(a, lo, hi);
     }
 
     /**
@@ -347,4 +343,1212 @@ public final class Stats {
         }
         return sum;
     }
+
+    /**
+     * Returns the sum of all values in the array a[], accumulated in a {@code long} so that it does not overflow
+     * for arrays of up to 2^32 values, unlike {@link #sum(int[])}.
+     *
+     * @param a array of integer values
+     * @return sum of all values in the array
+     */
+    public static long longSum(int[] a) {
+        return a.length == 0 ? 0 : longSumKernel(a, 0, a.length - 1);
+    }
+
+    /**
+     * Returns the sum of all values in the subarray a[lo..hi], accumulated in a {@code long}.
+     *
+     * @param a  array of integer values
+     * @param lo index of the first item in the array
+     * @param hi index of the last item in the array
+     * @return sum of all values in the array
+     */
+    public static long longSum(int[] a, int lo, int hi) {
+        if (lo < 0 || hi >= a.length || lo > hi)
+            throw new RuntimeException("Subarray indices out of bounds");
+        return longSumKernel(a, lo, hi);
+    }
+
+    /**
+     * Returns the sum of all values in the array a[] using compensated (Neumaier) summation: the rounding error
+     * of every addition is tracked and added back at the end. The result is as accurate as if the sum were
+     * computed with twice the precision and then rounded, independently of the length of the array, where the
+     * error of {@link #sum(double[])} grows with the length. Takes about twice as long as {@link #sum(double[])}.
+     * Example: the compensated sum of {1e100, 1, -1e100} is 1, its plain sum is 0.
+     *
+     * @param a array of double values
+     * @return sum of all values in the array
+     */
+    public static double sumCompensated(double[] a) {
+        return a.length == 0 ? 0.0 : compensatedKernel(a, 0, a.length - 1);
+    }
+
+    /**
+     * Returns the sum of all values in the subarray a[lo..hi] using compensated (Neumaier) summation.
+     *
+     * @param a  array of double values
+     * @param lo index of the first item in the array
+     * @param hi index of the last item in the array
+     * @return sum of all values in the array
+     */
+    public static double sumCompensated(double[] a, int lo, int hi) {
+        if (lo < 0 || hi >= a.length || lo > hi)
+            throw new RuntimeException("Subarray indices out of bounds");
+        return compensatedKernel(a, lo, hi);
+    }
+
+    //The kernels below use four independent accumulators, so consecutive iterations do not wait for each other
+    //and the JIT compiler can map them onto SIMD instructions. Instead of a per-value NaN check (a branch which
+    //prevents vectorization), max and min add up v - v, which only becomes NaN for NaN or infinite values;
+    //only then the values are checked for NaN.
+
+    private static double sumKernel(double[] a, int lo, int hi) {
+        double s0 = 0.0, s1 = 0.0, s2 = 0.0, s3 = 0.0;
+        int i = lo;
+        for (; i + 3 <= hi; i += 4) {
+            s0 += a[i];
+            s1 += a[i + 1];
+            s2 += a[i + 2];
+            s3 += a[i + 3];
+        }
+        for (; i <= hi; i++) {
+            s0 += a[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    private static double maxKernel(double[] a, int lo, int hi) {
+        double m0 = Double.NEGATIVE_INFINITY, m1 = m0, m2 = m0, m3 = m0, check = 0.0;
+        int i = lo;
+        for (; i + 3 <= hi; i += 4) {
+            double v0 = a[i], v1 = a[i + 1], v2 = a[i + 2], v3 = a[i + 3];
+            m0 = v0 > m0 ? v0 : m0;
+            m1 = v1 > m1 ? v1 : m1;
+            m2 = v2 > m2 ? v2 : m2;
+            m3 = v3 > m3 ? v3 : m3;
+            check += (v0 - v0) + (v1 - v1) + (v2 - v2) + (v3 - v3);
+        }
+        for (; i <= hi; i++) {
+            m0 = a[i] > m0 ? a[i] : m0;
+            check += a[i] - a[i];
+        }
+        if (Double.isNaN(check) && containsNaN(a, lo, hi)) return Double.NaN;
+        m0 = m1 > m0 ? m1 : m0;
+        m0 = m2 > m0 ? m2 : m0;
+        return m3 > m0 ? m3 : m0;
+    }
+
+    private static double minKernel(double[] a, int lo, int hi) {
+        double m0 = Double.POSITIVE_INFINITY, m1 = m0, m2 = m0, m3 = m0, check = 0.0;
+        int i = lo;
+        for (; i + 3 <= hi; i += 4) {
+            double v0 = a[i], v1 = a[i + 1], v2 = a[i + 2], v3 = a[i + 3];
+            m0 = v0 < m0 ? v0 : m0;
+            m1 = v1 < m1 ? v1 : m1;
+            m2 = v2 < m2 ? v2 : m2;
+            m3 = v3 < m3 ? v3 : m3;
+            check += (v0 - v0) + (v1 - v1) + (v2 - v2) + (v3 - v3);
+        }
+        for (; i <= hi; i++) {
+            m0 = a[i] < m0 ? a[i] : m0;
+            check += a[i] - a[i];
+        }
+        if (Double.isNaN(check) && containsNaN(a, lo, hi)) return Double.NaN;
+        m0 = m1 < m0 ? m1 : m0;
+        m0 = m2 < m0 ? m2 : m0;
+        return m3 < m0 ? m3 : m0;
+    }
+
+    private static long longSumKernel(int[] a, int lo, int hi) {
+        long s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = lo;
+        for (; i + 3 <= hi; i += 4) {
+            s0 += a[i];
+            s1 += a[i + 1];
+            s2 += a[i + 2];
+            s3 += a[i + 3];
+        }
+        for (; i <= hi; i++) {
+            s0 += a[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    //Neumaier's variant of Kahan summation, in four lanes like sumKernel. The error term of an addition depends
+    //on which operand is the largest; choosing it with a conditional expression (rather than an if) keeps the loop
+    //free of branches.
+
+    private static double compensatedKernel(double[] a, int lo, int hi) {
+        double s0 = 0.0, s1 = 0.0, s2 = 0.0, s3 = 0.0, c0 = 0.0, c1 = 0.0, c2 = 0.0, c3 = 0.0;
+        int i = lo;
+        for (; i + 3 <= hi; i += 4) {
+            double v0 = a[i], v1 = a[i + 1], v2 = a[i + 2], v3 = a[i + 3];
+            double t0 = s0 + v0, t1 = s1 + v1, t2 = s2 + v2, t3 = s3 + v3;
+            c0 += java.lang.Math.abs(s0) >= java.lang.Math.abs(v0) ? (s0 - t0) + v0 : (v0 - t0) + s0;
+            c1 += java.lang.Math.abs(s1) >= java.lang.Math.abs(v1) ? (s1 - t1) + v1 : (v1 - t1) + s1;
+            c2 += java.lang.Math.abs(s2) >= java.lang.Math.abs(v2) ? (s2 - t2) + v2 : (v2 - t2) + s2;
+            c3 += java.lang.Math.abs(s3) >= java.lang.Math.abs(v3) ? (s3 - t3) + v3 : (v3 - t3) + s3;
+            s0 = t0;
+            s1 = t1;
+            s2 = t2;
+            s3 = t3;
+        }
+        for (; i <= hi; i++) {
+            double t0 = s0 + a[i];
+            c0 += java.lang.Math.abs(s0) >= java.lang.Math.abs(a[i]) ? (s0 - t0) + a[i] : (a[i] - t0) + s0;
+            s0 = t0;
+        }
+        //Adds up the lanes the same way
+        double compensation = (c0 + c1) + (c2 + c3);
+        double t = s0 + s1;
+        compensation += java.lang.Math.abs(s0) >= java.lang.Math.abs(s1) ? (s0 - t) + s1 : (s1 - t) + s0;
+        double sum = t;
+        t = sum + s2;
+        compensation += java.lang.Math.abs(sum) >= java.lang.Math.abs(s2) ? (sum - t) + s2 : (s2 - t) + sum;
+        sum = t;
+        t = sum + s3;
+        compensation += java.lang.Math.abs(sum) >= java.lang.Math.abs(s3) ? (sum - t) + s3 : (s3 - t) + sum;
+        sum = t;
+        //Infinite values and overflows turn the compensation into NaN (infinity minus infinity); like
+        //DoubleSummaryStatistics, the plain sum is returned instead
+        double result = sum + compensation;
+        return Double.isNaN(result) && Double.isInfinite(sum) ? sum : result;
+    }
+
+    private static boolean containsNaN(double[] a, int lo, int hi) {
+        for (int i = lo; i <= hi; i++) {
+            if (Double.isNaN(a[i])) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the k-th smallest value (counting from 0) in the array a[], in linear time on average.
+     * Reorders the array, so that a[k] holds the returned value, smaller values precede it and larger values
+     * follow it. The array should not contain NaN.
+     *
+     * @param a array of double values
+     * @param k the rank of the value
+     * @return the k-th smallest value of the given array
+     */
+    public static double select(double[] a, int k) {
+        return select(a, 0, a.length - 1, k);
+    }
+
+    /**
+     * Returns the k-th smallest value (counting from 0) in the subarray a[lo..hi], in linear time on average.
+     * Reorders the subarray, so that a[lo + k] holds the returned value, smaller values precede it and larger
+     * values follow it. The subarray should not contain NaN.
+     *
+     * @param a  array of double values
+     * @param lo index of the first item in the array
+     * @param hi index of the last item in the array
+     * @param k  the rank of the value within the subarray
+     * @return the k-th smallest value of the given subarray
+     */
+    public static double select(double[] a, int lo, int hi, int k) {
+        if (lo < 0 || hi >= a.length || lo > hi)
+            throw new RuntimeException("Subarray indices out of bounds");
+        if (k < 0 || k > hi - lo) throw new IllegalArgumentException(ERROR_RANK);
+        selectKernel(a, lo, hi, lo + k);
+        return a[lo + k];
+    }
+
+    /**
+     * Returns the k-th smallest value (counting from 0) in the array a[], in linear time on average.
+     * Reorders the array, so that a[k] holds the returned value, smaller values precede it and larger values
+     * follow it.
+     *
+     * @param a array of integer values
+     * @param k the rank of the value
+     * @return the k-th smallest value of the given array
+     */
+    public static int select(int[] a, int k) {
+        return select(a, 0, a.length - 1, k);
+    }
+
+    /**
+     * Returns the k-th smallest value (counting from 0) in the subarray a[lo..hi], in linear time on average.
+     * Reorders the subarray, so that a[lo + k] holds the returned value, smaller values precede it and larger
+     * values follow it.
+     *
+     * @param a  array of integer values
+     * @param lo index of the first item in the array
+     * @param hi index of the last item in the array
+     * @param k  the rank of the value within the subarray
+     * @return the k-th smallest value of the given subarray
+     */
+    public static int select(int[] a, int lo, int hi, int k) {
+        if (lo < 0 || hi >= a.length || lo > hi)
+            throw new RuntimeException("Subarray indices out of bounds");
+        if (k < 0 || k > hi - lo) throw new IllegalArgumentException(ERROR_RANK);
+        selectKernel(a, lo, hi, lo + k);
+        return a[lo + k];
+    }
+
+    /**
+     * Returns the median of the array a[], NaN if no such value. Leaves the array unchanged.
+     *
+     * @param a array of double values
+     * @return the median of the given array
+     */
+    public static double median(double[] a) {
+        return percentile(a, 50);
+    }
+
+    /**
+     * Returns the median of the subarray a[lo..hi]. Leaves the array unchanged.
+     *
+     * @param a  array of double values
+     * @param lo index of the first item in the array
+     * @param hi index of the last item in the array
+     * @return the median of the given subarray
+     */
+    public static double median(double[] a, int lo, int hi) {
+        return percentile(a, lo, hi, 50, null);
+    }
+
+    /**
+     * Returns the median of the array a[], NaN if no such value. Leaves the array unchanged.
+     *
+     * @param a array of integer values
+     * @return the median of the given array
+     */
+    public static double median(int[] a) {
+        return percentile(a, 50);
+    }
+
+    /**
+     * Returns the p-th percentile of the array a[], NaN if no such value. Interpolates linearly between the two
+     * closest values, like a spreadsheet's PERCENTILE function. Leaves the array unchanged.
+     *
+     * @param a array of double values
+     * @param p the percentile, between 0 and 100
+     * @return the p-th percentile of the given array
+     */
+    public static double percentile(double[] a, double p) {
+        if (a.length == 0) return Double.NaN;
+        return percentile(a, 0, a.length - 1, p, null);
+    }
+
+    /**
+     * Returns the p-th percentile of the subarray a[lo..hi]. Interpolates linearly between the two closest
+     * values. Leaves the array unchanged.
+     *
+     * @param a  array of double values
+     * @param lo index of the first item in the array
+     * @param hi index of the last item in the array
+     * @param p  the percentile, between 0 and 100
+     * @return the p-th percentile of the given subarray
+     */
+    public static double percentile(double[] a, int lo, int hi, double p) {
+        return percentile(a, lo, hi, p, null);
+    }
+
+    /**
+     * Returns the p-th percentile of the subarray a[lo..hi], selecting it in a scratch buffer of at least
+     * hi - lo + 1 values, so that repeated calls need not allocate. Passing the array itself as scratch buffer
+     * selects in place, reordering the subarray instead of copying it; passing null allocates a buffer.
+     *
+     * @param a       array of double values
+     * @param lo      index of the first item in the array
+     * @param hi      index of the last item in the array
+     * @param p       the percentile, between 0 and 100
+     * @param scratch the buffer to select in, the array itself or null
+     * @return the p-th percentile of the given subarray
+     */
+    public static double percentile(double[] a, int lo, int hi, double p, double[] scratch) {
+        if (lo < 0 || hi >= a.length || lo > hi)
+            throw new RuntimeException("Subarray indices out of bounds");
+        if (!(p >= 0 && p <= 100)) throw new IllegalArgumentException(ERROR_PERCENTILE);
+        if (scratch != a) {
+            scratch = copy(a, lo, hi, scratch);
+            hi -= lo;
+            lo = 0;
+        }
+        if (containsNaN(scratch, lo, hi)) return Double.NaN;
+        double position = p / 100 * (hi - lo);
+        int k = lo + (int) position;
+        selectKernel(scratch, lo, hi, k);
+        double fraction = position - (int) position;
+        if (fraction == 0) return scratch[k];
+        //The next value is the smallest of the larger values
+        return (1 - fraction) * scratch[k] + fraction * minKernel(scratch, k + 1, hi);
+    }
+
+    /**
+     * Returns the p-th percentile of the array a[], NaN if no such value. Interpolates linearly between the two
+     * closest values, like a spreadsheet's PERCENTILE function. Leaves the array unchanged.
+     *
+     * @param a array of integer values
+     * @param p the percentile, between 0 and 100
+     * @return the p-th percentile of the given array
+     */
+    public static double percentile(int[] a, double p) {
+        if (a.length == 0) return Double.NaN;
+        return percentile(a, 0, a.length - 1, p, null);
+    }
+
+    /**
+     * Returns the p-th percentile of the subarray a[lo..hi], selecting it in a scratch buffer of at least
+     * hi - lo + 1 values. Passing the array itself as scratch buffer selects in place, reordering the subarray
+     * instead of copying it; passing null allocates a buffer.
+     *
+     * @param a       array of integer values
+     * @param lo      index of the first item in the array
+     * @param hi      index of the last item in the array
+     * @param p       the percentile, between 0 and 100
+     * @param scratch the buffer to select in, the array itself or null
+     * @return the p-th percentile of the given subarray
+     */
+    public static double percentile(int[] a, int lo, int hi, double p, int[] scratch) {
+        if (lo < 0 || hi >= a.length || lo > hi)
+            throw new RuntimeException("Subarray indices out of bounds");
+        if (!(p >= 0 && p <= 100)) throw new IllegalArgumentException(ERROR_PERCENTILE);
+        if (scratch != a) {
+            scratch = copy(a, lo, hi, scratch);
+            hi -= lo;
+            lo = 0;
+        }
+        double position = p / 100 * (hi - lo);
+        int k = lo + (int) position;
+        selectKernel(scratch, lo, hi, k);
+        double fraction = position - (int) position;
+        if (fraction == 0) return scratch[k];
+        int next = Integer.MAX_VALUE;
+        for (int i = k + 1; i <= hi; i++) {
+            next = java.lang.Math.min(next, scratch[i]);
+        }
+        return (1 - fraction) * scratch[k] + fraction * next;
+    }
+
+    /**
+     * Returns the average of the array a[] without its smallest and largest values, NaN if no such value.
+     * Example: a fraction of 0.1 leaves out the lowest and the highest 10% of the values. Leaves the array
+     * unchanged.
+     *
+     * @param a        array of double values
+     * @param fraction the fraction of values left out at each end, at least 0 and less than 0.5
+     * @return the trimmed mean of the given array
+     */
+    public static double trimmedMean(double[] a, double fraction) {
+        if (a.length == 0) return Double.NaN;
+        return trimmedMean(a, 0, a.length - 1, fraction, null);
+    }
+
+    /**
+     * Returns the average of the subarray a[lo..hi] without its smallest and largest values, selecting them in a
+     * scratch buffer of at least hi - lo + 1 values. Passing the array itself as scratch buffer selects in place,
+     * reordering the subarray instead of copying it; passing null allocates a buffer.
+     *
+     * @param a        array of double values
+     * @param lo       index of the first item in the array
+     * @param hi       index of the last item in the array
+     * @param fraction the fraction of values left out at each end, at least 0 and less than 0.5
+     * @param scratch  the buffer to select in, the array itself or null
+     * @return the trimmed mean of the given subarray
+     */
+    public static double trimmedMean(double[] a, int lo, int hi, double fraction, double[] scratch) {
+        if (lo < 0 || hi >= a.length || lo > hi)
+            throw new RuntimeException("Subarray indices out of bounds");
+        if (!(fraction >= 0 && fraction < 0.5)) throw new IllegalArgumentException(ERROR_FRACTION);
+        if (scratch != a) {
+            scratch = copy(a, lo, hi, scratch);
+            hi -= lo;
+            lo = 0;
+        }
+        if (containsNaN(scratch, lo, hi)) return Double.NaN;
+        int trimmed = (int) ((hi - lo + 1) * fraction);
+        if (trimmed > 0) {
+            selectKernel(scratch, lo, hi, lo + trimmed);
+            selectKernel(scratch, lo + trimmed, hi, hi - trimmed);
+        }
+        return sumKernel(scratch, lo + trimmed, hi - trimmed) / (hi - lo + 1 - 2 * trimmed);
+    }
+
+    /**
+     * Returns the average of the array a[] without its smallest and largest values, NaN if no such value.
+     * Leaves the array unchanged.
+     *
+     * @param a        array of integer values
+     * @param fraction the fraction of values left out at each end, at least 0 and less than 0.5
+     * @return the trimmed mean of the given array
+     */
+    public static double trimmedMean(int[] a, double fraction) {
+        if (a.length == 0) return Double.NaN;
+        if (!(fraction >= 0 && fraction < 0.5)) throw new IllegalArgumentException(ERROR_FRACTION);
+        int[] scratch = a.clone();
+        int hi = a.length - 1;
+        int trimmed = (int) (a.length * fraction);
+        if (trimmed > 0) {
+            selectKernel(scratch, 0, hi, trimmed);
+            selectKernel(scratch, trimmed, hi, hi - trimmed);
+        }
+        double sum = 0.0;
+        for (int i = trimmed; i <= hi - trimmed; i++) {
+            sum += scratch[i];
+        }
+        return sum / (a.length - 2 * trimmed);
+    }
+
+    private static double[] copy(double[] a, int lo, int hi, double[] scratch) {
+        int length = hi - lo + 1;
+        if (scratch == null) scratch = new double[length];
+        else if (scratch.length < length) throw new IllegalArgumentException(ERROR_SCRATCH);
+        System.arraycopy(a, lo, scratch, 0, length);
+        return scratch;
+    }
+
+    private static int[] copy(int[] a, int lo, int hi, int[] scratch) {
+        int length = hi - lo + 1;
+        if (scratch == null) scratch = new int[length];
+        else if (scratch.length < length) throw new IllegalArgumentException(ERROR_SCRATCH);
+        System.arraycopy(a, lo, scratch, 0, length);
+        return scratch;
+    }
+
+    //Introselect: quickselect with a median-of-three pivot, narrowing down to the side holding index k. Should it
+    //not converge after 2 log2(n) partitions (for adversarial inputs), the remaining range is sorted instead,
+    //which bounds the worst case to O(n log n). Small ranges are insertion sorted.
+
+    private static void selectKernel(double[] a, int lo, int hi, int k) {
+        int depth = 2 * (32 - Integer.numberOfLeadingZeros(hi - lo + 1));
+        while (hi - lo > INSERTION_THRESHOLD) {
+            if (depth-- == 0) {
+                Arrays.sort(a, lo, hi + 1);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] < a[lo]) swap(a, lo, mid);
+            if (a[hi] < a[lo]) swap(a, lo, hi);
+            if (a[hi] < a[mid]) swap(a, mid, hi);
+            double pivot = a[mid];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (a[i] < pivot) i++;
+                while (a[j] > pivot) j--;
+                if (i <= j) swap(a, i++, j--);
+            }
+            //a[lo..j] <= pivot, a[i..hi] >= pivot and anything in between equals the pivot
+            if (k <= j) hi = j;
+            else if (k >= i) lo = i;
+            else return;
+        }
+        for (int i = lo + 1; i <= hi; i++) {
+            double value = a[i];
+            int j = i - 1;
+            while (j >= lo && a[j] > value) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = value;
+        }
+    }
+
+    private static void selectKernel(int[] a, int lo, int hi, int k) {
+        int depth = 2 * (32 - Integer.numberOfLeadingZeros(hi - lo + 1));
+        while (hi - lo > INSERTION_THRESHOLD) {
+            if (depth-- == 0) {
+                Arrays.sort(a, lo, hi + 1);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] < a[lo]) swap(a, lo, mid);
+            if (a[hi] < a[lo]) swap(a, lo, hi);
+            if (a[hi] < a[mid]) swap(a, mid, hi);
+            int pivot = a[mid];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (a[i] < pivot) i++;
+                while (a[j] > pivot) j--;
+                if (i <= j) swap(a, i++, j--);
+            }
+            if (k <= j) hi = j;
+            else if (k >= i) lo = i;
+            else return;
+        }
+        for (int i = lo + 1; i <= hi; i++) {
+            int value = a[i];
+            int j = i - 1;
+            while (j >= lo && a[j] > value) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = value;
+        }
+    }
+
+    private static void swap(double[] a, int i, int j) {
+        double t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+
+    private static void swap(int[] a, int i, int j) {
+        int t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+
+    /**
+     * Returns the sample covariance matrix of a number of columns of equal length, as a flat array: the
+     * covariance of columns i and j is at index i * columns.length + j.
+     *
+     * @param columns the columns, each an array of double values
+     * @return the covariance matrix, row by row
+     */
+    public static double[] covarianceMatrix(double[][] columns) {
+        int p = columns.length;
+        int n = rowCount(columns);
+        double[] means = columnMeans(columns, null, p, n);
+        double[] sums = new double[p * p];
+        if (n > 0) productSums(columns, null, p, 0, n - 1, means, sums);
+        return covariances(sums, p, n);
+    }
+
+    /**
+     * Returns the sample covariance matrix of a table stored row by row in a flat array, value j of row i being
+     * at index i * columns + j. The covariance of columns i and j is at index i * columns + j of the result.
+     *
+     * @param rows    the values of the table, row by row
+     * @param columns the number of columns
+     * @return the covariance matrix, row by row
+     */
+    public static double[] covarianceMatrix(double[] rows, int columns) {
+        int n = rowCount(rows, columns);
+        double[] means = columnMeans(null, rows, columns, n);
+        double[] sums = new double[columns * columns];
+        if (n > 0) productSums(null, rows, columns, 0, n - 1, means, sums);
+        return covariances(sums, columns, n);
+    }
+
+    /**
+     * Returns the correlation matrix (of Pearson) of a number of columns of equal length, as a flat array: the
+     * correlation of columns i and j is at index i * columns.length + j. Correlations with a constant column
+     * are NaN.
+     *
+     * @param columns the columns, each an array of double values
+     * @return the correlation matrix, row by row
+     */
+    public static double[] correlationMatrix(double[][] columns) {
+        return correlations(covarianceMatrix(columns), columns.length);
+    }
+
+    /**
+     * Returns the correlation matrix (of Pearson) of a table stored row by row in a flat array, value j of row i
+     * being at index i * columns + j. Correlations with a constant column are NaN.
+     *
+     * @param rows    the values of the table, row by row
+     * @param columns the number of columns
+     * @return the correlation matrix, row by row
+     */
+    public static double[] correlationMatrix(double[] rows, int columns) {
+        return correlations(covarianceMatrix(rows, columns), columns);
+    }
+
+    //The matrices are computed in two passes: the column means, then the sums of the products of the deviations
+    //from the means. The second pass handles the rows in blocks; the deviations of a block are gathered column by
+    //column in a buffer once, which is then read for every pair of columns, in tiles of columns that fit in the
+    //L1 cache. Only the upper triangle is computed, the lower one is mirrored afterwards.
+
+    static int rowCount(double[][] columns) {
+        if (columns.length == 0) return 0;
+        int n = columns[0].length;
+        for (double[] column : columns) {
+            if (column.length != n) throw new IllegalArgumentException(ERROR_COLUMNS);
+        }
+        return n;
+    }
+
+    static int rowCount(double[] rows, int columns) {
+        if (columns <= 0 || rows.length % columns != 0) throw new IllegalArgumentException(ERROR_COLUMNS);
+        return rows.length / columns;
+    }
+
+    /**
+     * Returns the means of the columns. A second pass adds the mean deviation from the first estimate, which
+     * corrects its rounding errors: the mean of a constant column is then exactly its value, so its variance and
+     * covariances are exactly 0 (and its correlations NaN).
+     */
+    static double[] columnMeans(double[][] columns, double[] rows, int p, int n) {
+        double[] means = new double[p];
+        if (columns != null) {
+            for (int c = 0; c < p; c++) {
+                if (n == 0) {
+                    means[c] = Double.NaN;
+                    continue;
+                }
+                double[] column = columns[c];
+                double mean = sumKernel(column, 0, n - 1) / n, correction = 0.0;
+                for (int r = 0; r < n; r++) {
+                    correction += column[r] - mean;
+                }
+                means[c] = mean + correction / n;
+            }
+        } else {
+            for (int r = 0; r < n; r++) {
+                for (int c = 0, base = r * p; c < p; c++) {
+                    means[c] += rows[base + c];
+                }
+            }
+            for (int c = 0; c < p; c++) {
+                means[c] /= n;
+            }
+            double[] corrections = new double[p];
+            for (int r = 0; r < n; r++) {
+                for (int c = 0, base = r * p; c < p; c++) {
+                    corrections[c] += rows[base + c] - means[c];
+                }
+            }
+            for (int c = 0; c < p; c++) {
+                means[c] += corrections[c] / n;
+            }
+        }
+        return means;
+    }
+
+    /**
+     * Adds the sums of the products of the deviations from the means over rows lo..hi to the upper triangle of
+     * sums, reading either the columns or the rows.
+     */
+    static void productSums(double[][] columns, double[] rows, int p, int lo, int hi, double[] means,
+                            double[] sums) {
+        double[] block = new double[p * ROW_BLOCK];
+        for (int start = lo; start <= hi; start += ROW_BLOCK) {
+            int m = java.lang.Math.min(ROW_BLOCK, hi - start + 1);
+            if (columns != null) {
+                for (int c = 0; c < p; c++) {
+                    double[] column = columns[c];
+                    double mean = means[c];
+                    for (int r = 0, offset = c * ROW_BLOCK; r < m; r++) {
+                        block[offset + r] = column[start + r] - mean;
+                    }
+                }
+            } else {
+                for (int r = 0; r < m; r++) {
+                    for (int c = 0, base = (start + r) * p; c < p; c++) {
+                        block[c * ROW_BLOCK + r] = rows[base + c] - means[c];
+                    }
+                }
+            }
+            for (int j0 = 0; j0 < p; j0 += COLUMN_TILE) {
+                int j1 = java.lang.Math.min(p, j0 + COLUMN_TILE);
+                for (int i = 0; i < j1; i++) {
+                    int j = java.lang.Math.max(i, j0);
+                    int x = i * ROW_BLOCK;
+                    //Four columns at once, sharing the loads of column i
+                    for (; j + 3 < j1; j += 4) {
+                        int y = j * ROW_BLOCK;
+                        double s0 = 0.0, s1 = 0.0, s2 = 0.0, s3 = 0.0;
+                        for (int k = 0; k < m; k++) {
+                            double v = block[x + k];
+                            s0 += v * block[y + k];
+                            s1 += v * block[y + ROW_BLOCK + k];
+                            s2 += v * block[y + 2 * ROW_BLOCK + k];
+                            s3 += v * block[y + 3 * ROW_BLOCK + k];
+                        }
+                        sums[i * p + j] += s0;
+                        sums[i * p + j + 1] += s1;
+                        sums[i * p + j + 2] += s2;
+                        sums[i * p + j + 3] += s3;
+                    }
+                    for (; j < j1; j++) {
+                        sums[i * p + j] += dot(block, x, j * ROW_BLOCK, m);
+                    }
+                }
+            }
+        }
+    }
+
+    private static double dot(double[] a, int i, int j, int length) {
+        double s0 = 0.0, s1 = 0.0, s2 = 0.0, s3 = 0.0;
+        int k = 0;
+        for (; k + 3 < length; k += 4) {
+            s0 += a[i + k] * a[j + k];
+            s1 += a[i + k + 1] * a[j + k + 1];
+            s2 += a[i + k + 2] * a[j + k + 2];
+            s3 += a[i + k + 3] * a[j + k + 3];
+        }
+        for (; k < length; k++) {
+            s0 += a[i + k] * a[j + k];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    /**
+     * Turns the upper triangle of the sums of the products into the full covariance matrix, in place.
+     */
+    static double[] covariances(double[] sums, int p, int n) {
+        for (int i = 0; i < p; i++) {
+            for (int j = i; j < p; j++) {
+                sums[i * p + j] /= n - 1;
+                sums[j * p + i] = sums[i * p + j];
+            }
+        }
+        return sums;
+    }
+
+    /**
+     * Turns a covariance matrix into a correlation matrix, in place.
+     */
+    static double[] correlations(double[] covariances, int p) {
+        double[] deviations = new double[p];
+        for (int i = 0; i < p; i++) {
+            deviations[i] = java.lang.Math.sqrt(covariances[i * p + i]);
+        }
+        for (int i = 0; i < p; i++) {
+            for (int j = 0; j < p; j++) {
+                if (i == j) covariances[i * p + j] /= covariances[i * p + j];
+                else covariances[i * p + j] /= deviations[i] * deviations[j];
+            }
+        }
+        return covariances;
+    }
+
+    /**
+     * Returns an accumulator holding all statistics of the array a[], gathered in a single pass.
+     *
+     * @param a array of double values
+     * @return accumulator holding the statistics of the array
+     */
+    public static StatsAccumulator accumulate(double[] a) {
+        StatsAccumulator accumulator = new StatsAccumulator();
+        accumulator.addAll(a);
+        return accumulator;
+    }
+
+    /**
+     * Returns an accumulator holding all statistics of the subarray a[lo..hi], gathered in a single pass.
+     *
+     * @param a  array of double values
+     * @param lo index of the first item in the array
+     * @param hi index of the last item in the array
+     * @return accumulator holding the statistics of the array
+     */
+    public static StatsAccumulator accumulate(double[] a, int lo, int hi) {
+        StatsAccumulator accumulator = new StatsAccumulator();
+        accumulator.addAll(a, lo, hi);
+        return accumulator;
+    }
+
+    /**
+     * Returns an accumulator holding all statistics of the array a[], gathered in a single pass.
+     *
+     * @param a array of integer values
+     * @return accumulator holding the statistics of the array
+     */
+    public static StatsAccumulator accumulate(int[] a) {
+        StatsAccumulator accumulator = new StatsAccumulator();
+        accumulator.addAll(a);
+        return accumulator;
+    }
+
+    /**
+     * Returns the sum of all values in a list.
+     *
+     * @param list list of double values
+     * @return sum of all values in the list
+     */
+    public static double sum(DoubleList list) {
+        return sumKernel(list.array(), 0, list.size() - 1);
+    }
+
+    /**
+     * Returns the average value in a list, NaN if no such value.
+     *
+     * @param list list of double values
+     * @return the average value in the list
+     */
+    public static double mean(DoubleList list) {
+        if (list.isEmpty()) return Double.NaN;
+        return sumKernel(list.array(), 0, list.size() - 1) / list.size();
+    }
+
+    /**
+     * Returns the sample variance in a list, NaN if no such value.
+     *
+     * @param list list of double values
+     * @return sample variance in the list
+     */
+    public static double var(DoubleList list) {
+        return accumulate(list).var();
+    }
+
+    /**
+     * Returns the population variance in a list, NaN if no such value.
+     *
+     * @param list list of double values
+     * @return population variance in the list
+     */
+    public static double varp(DoubleList list) {
+        return accumulate(list).varp();
+    }
+
+    /**
+     * Returns the sample standard deviation in a list, NaN if no such value.
+     *
+     * @param list list of double values
+     * @return sample standard deviation in the list
+     */
+    public static double stddev(DoubleList list) {
+        return java.lang.Math.sqrt(var(list));
+    }
+
+    /**
+     * Returns the population standard deviation in a list, NaN if no such value.
+     *
+     * @param list list of double values
+     * @return population standard deviation in the list
+     */
+    public static double stddevp(DoubleList list) {
+        return java.lang.Math.sqrt(varp(list));
+    }
+
+    /**
+     * Returns the maximum value in a list, -infinity if no such value.
+     *
+     * @param list list of double values
+     * @return the maximum value of the list
+     */
+    public static double max(DoubleList list) {
+        return maxKernel(list.array(), 0, list.size() - 1);
+    }
+
+    /**
+     * Returns the minimum value in a list, +infinity if no such value.
+     *
+     * @param list list of double values
+     * @return the minimum value of the list
+     */
+    public static double min(DoubleList list) {
+        return minKernel(list.array(), 0, list.size() - 1);
+    }
+
+    /**
+     * Returns the median of a list, NaN if no such value. Leaves the list unchanged.
+     *
+     * @param list list of double values
+     * @return the median of the list
+     */
+    public static double median(DoubleList list) {
+        return percentile(list, 50);
+    }
+
+    /**
+     * Returns the p-th percentile of a list, NaN if no such value. Leaves the list unchanged.
+     *
+     * @param list list of double values
+     * @param p    the percentile, between 0 and 100
+     * @return the p-th percentile of the list
+     */
+    public static double percentile(DoubleList list, double p) {
+        if (list.isEmpty()) return Double.NaN;
+        return percentile(list.array(), 0, list.size() - 1, p, null);
+    }
+
+    /**
+     * Returns an accumulator holding all statistics of a list, gathered in a single pass.
+     *
+     * @param list list of double values
+     * @return accumulator holding the statistics of the list
+     */
+    public static StatsAccumulator accumulate(DoubleList list) {
+        StatsAccumulator accumulator = new StatsAccumulator();
+        if (!list.isEmpty()) accumulator.addAll(list.array(), 0, list.size() - 1);
+        return accumulator;
+    }
+
+    /**
+     * Returns the sum of all values in a list, accumulated in a {@code long}.
+     *
+     * @param list list of integer values
+     * @return sum of all values in the list
+     */
+    public static long longSum(IntList list) {
+        return longSumKernel(list.array(), 0, list.size() - 1);
+    }
+
+    /**
+     * Returns the average value in a list, NaN if no such value.
+     *
+     * @param list list of integer values
+     * @return the average value in the list
+     */
+    public static double mean(IntList list) {
+        if (list.isEmpty()) return Double.NaN;
+        return (double) longSumKernel(list.array(), 0, list.size() - 1) / list.size();
+    }
+
+    /**
+     * Returns the maximum value in a list, Integer.MIN_VALUE if no such value.
+     *
+     * @param list list of integer values
+     * @return the maximum value of the list
+     */
+    public static int max(IntList list) {
+        int max = Integer.MIN_VALUE;
+        int[] a = list.array();
+        for (int i = 0; i < list.size(); i++) {
+            max = java.lang.Math.max(max, a[i]);
+        }
+        return max;
+    }
+
+    /**
+     * Returns the minimum value in a list, Integer.MAX_VALUE if no such value.
+     *
+     * @param list list of integer values
+     * @return the minimum value of the list
+     */
+    public static int min(IntList list) {
+        int min = Integer.MAX_VALUE;
+        int[] a = list.array();
+        for (int i = 0; i < list.size(); i++) {
+            min = java.lang.Math.min(min, a[i]);
+        }
+        return min;
+    }
+
+    /**
+     * Returns an accumulator holding all statistics of a list, gathered in a single pass.
+     *
+     * @param list list of integer values
+     * @return accumulator holding the statistics of the list
+     */
+    public static StatsAccumulator accumulate(IntList list) {
+        StatsAccumulator accumulator = new StatsAccumulator();
+        if (!list.isEmpty()) accumulator.addAll(list.array(), 0, list.size() - 1);
+        return accumulator;
+    }
+
+    /**
+     * Returns the sum of the remaining values of a buffer (from its position up to its limit), which may be a
+     * direct or memory-mapped buffer. The values are read in small chunks, so the buffer is never copied to the
+     * heap as a whole; its position is left unchanged.
+     *
+     * @param b buffer of double values
+     * @return sum of the remaining values in the buffer
+     */
+    public static double sum(DoubleBuffer b) {
+        return reduce(b, SUM);
+    }
+
+    /**
+     * Returns the average of the remaining values of a buffer, NaN if no such value.
+     *
+     * @param b buffer of double values
+     * @return the average of the remaining values in the buffer
+     */
+    public static double mean(DoubleBuffer b) {
+        if (!b.hasRemaining()) return Double.NaN;
+        return reduce(b, SUM) / b.remaining();
+    }
+
+    /**
+     * Returns the sample variance of the remaining values of a buffer, NaN if no such value.
+     *
+     * @param b buffer of double values
+     * @return sample variance of the remaining values in the buffer
+     */
+    public static double var(DoubleBuffer b) {
+        return accumulate(b).var();
+    }
+
+    /**
+     * Returns the population variance of the remaining values of a buffer, NaN if no such value.
+     *
+     * @param b buffer of double values
+     * @return population variance of the remaining values in the buffer
+     */
+    public static double varp(DoubleBuffer b) {
+        return accumulate(b).varp();
+    }
+
+    /**
+     * Returns the sample standard deviation of the remaining values of a buffer, NaN if no such value.
+     *
+     * @param b buffer of double values
+     * @return sample standard deviation of the remaining values in the buffer
+     */
+    public static double stddev(DoubleBuffer b) {
+        return java.lang.Math.sqrt(var(b));
+    }
+
+    /**
+     * Returns the population standard deviation of the remaining values of a buffer, NaN if no such value.
+     *
+     * @param b buffer of double values
+     * @return population standard deviation of the remaining values in the buffer
+     */
+    public static double stddevp(DoubleBuffer b) {
+        return java.lang.Math.sqrt(varp(b));
+    }
+
+    /**
+     * Returns the maximum of the remaining values of a buffer, -infinity if no such value.
+     *
+     * @param b buffer of double values
+     * @return the maximum of the remaining values in the buffer
+     */
+    public static double max(DoubleBuffer b) {
+        return reduce(b, MAX);
+    }
+
+    /**
+     * Returns the minimum of the remaining values of a buffer, +infinity if no such value.
+     *
+     * @param b buffer of double values
+     * @return the minimum of the remaining values in the buffer
+     */
+    public static double min(DoubleBuffer b) {
+        return reduce(b, MIN);
+    }
+
+    /**
+     * Returns an accumulator holding all statistics of the remaining values of a buffer, gathered in a single
+     * pass. The position of the buffer is left unchanged.
+     *
+     * @param b buffer of double values
+     * @return accumulator holding the statistics of the buffer
+     */
+    public static StatsAccumulator accumulate(DoubleBuffer b) {
+        StatsAccumulator accumulator = new StatsAccumulator();
+        accumulator.addAll(b);
+        return accumulator;
+    }
+
+    /**
+     * Returns the sum of the remaining values of a buffer (from its position up to its limit). The position of
+     * the buffer is left unchanged. Like {@link #sum(int[])}, the sum silently overflows; use
+     * {@link #longSum(IntBuffer)} for large buffers.
+     *
+     * @param b buffer of integer values
+     * @return sum of the remaining values in the buffer
+     */
+    public static int sum(IntBuffer b) {
+        int sum = 0;
+        for (int i = b.position(); i < b.limit(); i++) {
+            sum += b.get(i);
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the sum of the remaining values of a buffer (from its position up to its limit), accumulated in a
+     * {@code long} so that it does not overflow. The position of the buffer is left unchanged.
+     *
+     * @param b buffer of integer values
+     * @return sum of the remaining values in the buffer
+     */
+    public static long longSum(IntBuffer b) {
+        long sum = 0;
+        for (int i = b.position(); i < b.limit(); i++) {
+            sum += b.get(i);
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the average of the remaining values of a buffer, NaN if no such value.
+     *
+     * @param b buffer of integer values
+     * @return the average of the remaining values in the buffer
+     */
+    public static double mean(IntBuffer b) {
+        if (!b.hasRemaining()) return Double.NaN;
+        double sum = 0.0;
+        for (int i = b.position(); i < b.limit(); i++) {
+            sum += b.get(i);
+        }
+        return sum / b.remaining();
+    }
+
+    /**
+     * Returns the maximum of the remaining values of a buffer, Integer.MIN_VALUE if no such value.
+     *
+     * @param b buffer of integer values
+     * @return the maximum of the remaining values in the buffer
+     */
+    public static int max(IntBuffer b) {
+        int max = Integer.MIN_VALUE;
+        for (int i = b.position(); i < b.limit(); i++) {
+            max = java.lang.Math.max(max, b.get(i));
+        }
+        return max;
+    }
+
+    /**
+     * Returns the minimum of the remaining values of a buffer, Integer.MAX_VALUE if no such value.
+     *
+     * @param b buffer of integer values
+     * @return the minimum of the remaining values in the buffer
+     */
+    public static int min(IntBuffer b) {
+        int min = Integer.MAX_VALUE;
+        for (int i = b.position(); i < b.limit(); i++) {
+            min = java.lang.Math.min(min, b.get(i));
+        }
+        return min;
+    }
+
+    /**
+     * Returns an accumulator holding all statistics of the remaining values of a buffer, gathered in a single
+     * pass. The position of the buffer is left unchanged.
+     *
+     * @param b buffer of integer values
+     * @return accumulator holding the statistics of the buffer
+     */
+    public static StatsAccumulator accumulate(IntBuffer b) {
+        StatsAccumulator accumulator = new StatsAccumulator();
+        accumulator.addAll(b);
+        return accumulator;
+    }
+
+    /**
+     * Returns an accumulator holding all statistics of a file of doubles (for example a column of a time series),
+     * gathered in a single pass. The file is memory-mapped in segments of at most 1 GB, which are read in place:
+     * files far larger than the heap can be processed. Mapped segments are released by the garbage collector.
+     *
+     * @param file  the file holding nothing but doubles
+     * @param order the byte order of the doubles in the file
+     * @return accumulator holding the statistics of the file
+     * @throws IOException when the file cannot be read
+     */
+    public static StatsAccumulator accumulate(Path file, ByteOrder order) throws IOException {
+        StatsAccumulator accumulator = new StatsAccumulator();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size % Double.BYTES != 0) throw new IllegalArgumentException(ERROR_FILE);
+            for (long position = 0; position < size; position += MAP_SEGMENT) {
+                long length = java.lang.Math.min(MAP_SEGMENT, size - position);
+                MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                accumulator.addAll(segment.order(order).asDoubleBuffer());
+            }
+        }
+        return accumulator;
+    }
+
+    private static double reduce(DoubleBuffer b, int operation) {
+        DoubleBuffer values = b.duplicate();
+        double[] chunk = new double[java.lang.Math.min(BUFFER_CHUNK, values.remaining())];
+        double result = operation == SUM ? 0.0 : operation == MAX ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        while (values.hasRemaining()) {
+            int n = java.lang.Math.min(chunk.length, values.remaining());
+            values.get(chunk, 0, n);
+            if (operation == SUM) result += sumKernel(chunk, 0, n - 1);
+            else if (operation == MAX) result = java.lang.Math.max(result, maxKernel(chunk, 0, n - 1));
+            else result = java.lang.Math.min(result, minKernel(chunk, 0, n - 1));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the parallel counterpart of these methods, using the common fork-join pool.
+     * Example: {@code Stats.parallel().var(a)}
+     *
+     * @return stats methods processing large arrays in parallel
+     */
+    public static ParallelStats parallel() {
+        return PARALLEL;
+    }
 }
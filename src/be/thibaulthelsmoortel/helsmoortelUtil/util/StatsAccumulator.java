@@ -0,0 +1,269 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package be.thibaulthelsmoortel.helsmoortelUtil.util;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Mutable accumulator gathering the statistics of {@link Stats} in a single pass over the values.
+ * <p>
+ * Count, sum, minimum and maximum are tracked directly; mean and variance use Welford's algorithm, which needs
+ * no second pass and stays accurate for large values. Arrays are added in blocks that fit in the L1 cache, whose
+ * statistics are merged into the accumulator, so they are still read from memory only once. Computing mean,
+ * variance, standard deviation, minimum and maximum of an array thus reads the array only once, where calling
+ * the separate {@link Stats} methods would read it five times or more. Like {@link Stats#max(double[])}, the
+ * minimum and maximum become NaN as soon as a NaN value is added.
+ * <p>
+ * Accumulators are not thread-safe.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class StatsAccumulator {
+
+    //Number of values processed at once when adding arrays
+    private static final int BLOCK = 2048;
+
+    private long count;
+    private double sum;
+    private double mean;
+    //Sum of the squared differences from the mean
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Adds a single value.
+     *
+     * @param value the value to add
+     */
+    public void add(double value) {
+        count++;
+        sum += value;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        min = java.lang.Math.min(min, value);
+        max = java.lang.Math.max(max, value);
+    }
+
+    /**
+     * Adds all values in the array a[].
+     *
+     * @param a array of double values
+     */
+    public void addAll(double[] a) {
+        if (a.length > 0) addAll(a, 0, a.length - 1);
+    }
+
+    /**
+     * Adds all values in the subarray a[lo..hi].
+     *
+     * @param a  array of double values
+     * @param lo index of the first item in the array
+     * @param hi index of the last item in the array
+     */
+    public void addAll(double[] a, int lo, int hi) {
+        if (lo < 0 || hi >= a.length || lo > hi)
+            throw new RuntimeException("Subarray indices out of bounds");
+        //Blocks small enough to stay in the L1 cache are read twice (for the sum, then for the squared
+        //differences from the block mean) and merged, which avoids a division per value
+        for (int start = lo; start <= hi; start += BLOCK) {
+            int end = java.lang.Math.min(hi, start + BLOCK - 1);
+            double s = 0.0, lowest = Double.POSITIVE_INFINITY, highest = Double.NEGATIVE_INFINITY;
+            for (int i = start; i <= end; i++) {
+                s += a[i];
+                lowest = java.lang.Math.min(lowest, a[i]);
+                highest = java.lang.Math.max(highest, a[i]);
+            }
+            int n = end - start + 1;
+            double mu = s / n, sq = 0.0;
+            for (int i = start; i <= end; i++) {
+                sq += (a[i] - mu) * (a[i] - mu);
+            }
+            merge(n, s, mu, sq, lowest, highest);
+        }
+    }
+
+    /**
+     * Adds all values in the array a[].
+     *
+     * @param a array of integer values
+     */
+    public void addAll(int[] a) {
+        if (a.length > 0) addAll(a, 0, a.length - 1);
+    }
+
+    /**
+     * Adds all values in the subarray a[lo..hi].
+     *
+     * @param a  array of integer values
+     * @param lo index of the first item in the array
+     * @param hi index of the last item in the array
+     */
+    public void addAll(int[] a, int lo, int hi) {
+        if (lo < 0 || hi >= a.length || lo > hi)
+            throw new RuntimeException("Subarray indices out of bounds");
+        for (int i = lo; i <= hi; i++) {
+            add(a[i]);
+        }
+    }
+
+    /**
+     * Adds the remaining values of a buffer (from its position up to its limit), which may be a direct or
+     * memory-mapped buffer. The values are copied to the heap one block at a time; the position of the buffer is
+     * left unchanged.
+     *
+     * @param b buffer of double values
+     */
+    public void addAll(DoubleBuffer b) {
+        DoubleBuffer values = b.duplicate();
+        double[] block = new double[java.lang.Math.min(BLOCK, values.remaining())];
+        while (values.hasRemaining()) {
+            int n = java.lang.Math.min(block.length, values.remaining());
+            values.get(block, 0, n);
+            addAll(block, 0, n - 1);
+        }
+    }
+
+    /**
+     * Adds the remaining values of a buffer (from its position up to its limit). The position of the buffer is
+     * left unchanged.
+     *
+     * @param b buffer of integer values
+     */
+    public void addAll(IntBuffer b) {
+        for (int i = b.position(); i < b.limit(); i++) {
+            add(b.get(i));
+        }
+    }
+
+    /**
+     * Adds all values of another accumulator, as if they had been added to this one. Mean and variance are
+     * combined with the parallel variance formula of Chan et al., so accumulators of separate chunks of an
+     * array can be gathered independently and merged afterwards.
+     *
+     * @param other the accumulator to merge into this one
+     */
+    public void merge(StatsAccumulator other) {
+        merge(other.count, other.sum, other.mean, other.m2, other.min, other.max);
+    }
+
+    private void merge(long otherCount, double otherSum, double otherMean, double otherM2, double otherMin,
+                       double otherMax) {
+        if (otherCount == 0) return;
+        if (count == 0) {
+            count = otherCount;
+            sum = otherSum;
+            mean = otherMean;
+            m2 = otherM2;
+            min = otherMin;
+            max = otherMax;
+            return;
+        }
+        long n = count + otherCount;
+        double delta = otherMean - mean;
+        mean += delta * otherCount / n;
+        m2 += otherM2 + delta * delta * ((double) count * otherCount / n);
+        count = n;
+        sum += otherSum;
+        min = java.lang.Math.min(min, otherMin);
+        max = java.lang.Math.max(max, otherMax);
+    }
+
+    /**
+     * Returns the number of values added.
+     *
+     * @return the number of values
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Returns the sum of all values.
+     *
+     * @return sum of all values
+     */
+    public double sum() {
+        return sum;
+    }
+
+    /**
+     * Returns the average value, NaN if no such value.
+     *
+     * @return the average value
+     */
+    public double mean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * Returns the sample variance, NaN if no such value.
+     *
+     * @return sample variance
+     */
+    public double var() {
+        return count == 0 ? Double.NaN : m2 / (count - 1);
+    }
+
+    /**
+     * Returns the population variance, NaN if no such value.
+     *
+     * @return population variance
+     */
+    public double varp() {
+        return count == 0 ? Double.NaN : m2 / count;
+    }
+
+    /**
+     * Returns the sample standard deviation, NaN if no such value.
+     *
+     * @return sample standard deviation
+     */
+    public double stddev() {
+        return java.lang.Math.sqrt(var());
+    }
+
+    /**
+     * Returns the population standard deviation, NaN if no such value.
+     *
+     * @return population standard deviation
+     */
+    public double stddevp() {
+        return java.lang.Math.sqrt(varp());
+    }
+
+    /**
+     * Returns the minimum value, +infinity if no such value.
+     *
+     * @return the minimum value
+     */
+    public double min() {
+        return min;
+    }
+
+    /**
+     * Returns the maximum value, -infinity if no such value.
+     *
+     * @return the maximum value
+     */
+    public double max() {
+        return max;
+    }
+
+    /**
+     * Forgets all values added so far.
+     */
+    public void reset() {
+        count = 0;
+        sum = 0.0;
+        mean = 0.0;
+        m2 = 0.0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+}
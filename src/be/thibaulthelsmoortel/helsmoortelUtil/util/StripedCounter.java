@@ -0,0 +1,289 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package be.thibaulthelsmoortel.helsmoortelUtil.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import static be.thibaulthelsmoortel.helsmoortelUtil.util.Counter.ERROR_BOUNDS;
+import static be.thibaulthelsmoortel.helsmoortelUtil.util.Counter.ERROR_COUNT;
+
+/**
+ * Bounded counter meant for counts that are updated by many threads at once.
+ * <p>
+ * The count is spread over a number of cells (one per available processor), in the same way as
+ * {@link java.util.concurrent.atomic.LongAdder}. Threads update their own cell, so increments scale with the
+ * number of cores. Reading the count sums all cells.
+ * <p>
+ * The minimum and maximum values are enforced through reservations: every cell holds a number of
+ * permits to move up or down, taken in batches from a shared pool. An increment turns an up permit into a
+ * down permit of the same cell (and vice versa for a decrement), so the shared pool is only touched once a
+ * cell runs out of permits. Once the shared pool runs dry, the permits held by the other cells are collected
+ * before the update is rejected.
+ * <p>
+ * Like {@link java.util.concurrent.atomic.LongAdder#sum()}, {@link #getCount()} is not an atomic snapshot
+ * while updates are in progress, but it is exact as soon as the counter is quiescent.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class StripedCounter {
+
+    //Maximum number of permits a cell takes from the shared pool at once
+    private static final long MAX_RESERVATION = 1024;
+    private static final long LOW_MASK = 0xFFFFFFFFL;
+    //Per thread cell selector, changed on contention
+    private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(
+            () -> new int[]{ThreadLocalRandom.current().nextInt() | 1});
+
+    private final Cell[] cells;
+    //Permits not reserved by any cell
+    private final AtomicLong upPool, downPool;
+    private final int initialCount;
+    private final int hop;
+    private final int minVal, maxVal;
+
+    /**
+     * Default constructor. Puts the initial count on 0 (like a regular Integer), the hop on 1 and
+     * minimum and maximum values of Integers.
+     */
+    public StripedCounter() {
+        this(0);
+    }
+
+    /**
+     * Constructor to create a counter that starts from a set count.
+     *
+     * @param count the count to start from
+     */
+    public StripedCounter(int count) {
+        this(count, 1);
+    }
+
+    /**
+     * Constructor to create a counter that starts from a set count and to set the size of hops.
+     *
+     * @param count the count to start from
+     * @param hop   the default in- or decrement value
+     */
+    public StripedCounter(int count, int hop) {
+        this(count, hop, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructor to create a counter that starts from a set count, to set the size of hops and to set
+     * minimum and maximum counter values.
+     *
+     * @param count  the count to start from
+     * @param hop    the default in- or decrement value
+     * @param minVal the minimum value of the counter
+     * @param maxVal the maximum value of the counter
+     */
+    public StripedCounter(int count, int hop, int minVal, int maxVal) {
+        if (count < minVal || count > maxVal) throw new IllegalArgumentException(ERROR_COUNT);
+        this.initialCount = count;
+        this.hop = hop;
+        this.minVal = minVal;
+        this.maxVal = maxVal;
+        this.upPool = new AtomicLong((long) maxVal - count);
+        this.downPool = new AtomicLong((long) count - minVal);
+        int size = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1);
+        this.cells = new Cell[size];
+        for (int i = 0; i < size; i++) cells[i] = new Cell();
+    }
+
+    /**
+     * Returns the current count.
+     *
+     * @return the current counter value
+     */
+    public int getCount() {
+        long sum = initialCount;
+        for (Cell cell : cells) sum += cell.value;
+        return (int) sum;
+    }
+
+    /**
+     * Returns the initial count.
+     *
+     * @return the initial counter value
+     */
+    public int getInitialCount() {
+        return initialCount;
+    }
+
+    /**
+     * Returns the default in- and decrement value.
+     *
+     * @return the default in- and decrement value
+     */
+    public int getHop() {
+        return hop;
+    }
+
+    /**
+     * Returns the minimum value of the counter.
+     *
+     * @return the minimum value of the counter
+     */
+    public int getMinVal() {
+        return minVal;
+    }
+
+    /**
+     * Returns the maximum value of the counter.
+     *
+     * @return the maximum value of the counter
+     */
+    public int getMaxVal() {
+        return maxVal;
+    }
+
+    /**
+     * Increments the counter (with the set hop value).
+     */
+    public void increment() {
+        incrementBy(hop);
+    }
+
+    /**
+     * Decrements the counter (with the set hop value).
+     */
+    public void decrement() {
+        decrementBy(hop);
+    }
+
+    /**
+     * Increments the counter with a given value (hop not used).
+     *
+     * @param amount value to increment the counter with
+     */
+    public void incrementBy(int amount) {
+        add(amount);
+    }
+
+    /**
+     * Decrements the counter with a given value (hop not used).
+     *
+     * @param amount value to decrement the counter with
+     */
+    public void decrementBy(int amount) {
+        add(-(long) amount);
+    }
+
+    /**
+     * Resets the counter to its initial count.
+     * <p>
+     * Like {@link java.util.concurrent.atomic.LongAdder#reset()}, this is only reliable when no other thread
+     * updates the counter at the same time.
+     */
+    public void reset() {
+        for (Cell cell : cells) {
+            cell.value = 0;
+            cell.permits = 0;
+        }
+        upPool.set((long) maxVal - initialCount);
+        downPool.set((long) initialCount - minVal);
+    }
+
+    private void add(long delta) {
+        if (delta == 0) return;
+        boolean up = delta > 0;
+        long amount = up ? delta : -delta;
+        int[] probe = PROBE.get();
+        Cell cell = cells[probe[0] & (cells.length - 1)];
+        boolean collected = false;
+        for (;;) {
+            long permits = cell.permits;
+            long available = up ? permits >>> 32 : permits & LOW_MASK;
+            if (available >= amount) {
+                if (Cell.PERMITS.compareAndSet(cell, permits, transfer(permits, amount, up))) {
+                    Cell.VALUE.getAndAdd(cell, delta);
+                    return;
+                }
+                //Contended cell, move this thread elsewhere
+                probe[0] = rehash(probe[0]);
+                cell = cells[probe[0] & (cells.length - 1)];
+            } else if (!reserve(cell, amount - available, up)) {
+                if (collected) throw new IllegalArgumentException(ERROR_BOUNDS);
+                collect(up);
+                collected = true;
+            }
+        }
+    }
+
+    /**
+     * Moves permits from the shared pool to a cell.
+     */
+    private boolean reserve(Cell cell, long needed, boolean up) {
+        AtomicLong pool = up ? upPool : downPool;
+        long batch;
+        for (;;) {
+            long inPool = pool.get();
+            if (inPool < needed) return false;
+            batch = java.lang.Math.max(needed, java.lang.Math.min(inPool / cells.length, MAX_RESERVATION));
+            if (pool.compareAndSet(inPool, inPool - batch)) break;
+        }
+        for (;;) {
+            long permits = cell.permits;
+            long next = up ? permits + (batch << 32) : permits + batch;
+            if (Cell.PERMITS.compareAndSet(cell, permits, next)) return true;
+        }
+    }
+
+    /**
+     * Returns the permits in one direction of every cell to the shared pool.
+     */
+    private void collect(boolean up) {
+        AtomicLong pool = up ? upPool : downPool;
+        for (Cell cell : cells) {
+            for (;;) {
+                long permits = cell.permits;
+                long taken = up ? permits >>> 32 : permits & LOW_MASK;
+                if (taken == 0) break;
+                long next = up ? permits & LOW_MASK : permits & ~LOW_MASK;
+                if (Cell.PERMITS.compareAndSet(cell, permits, next)) {
+                    pool.addAndGet(taken);
+                    break;
+                }
+            }
+        }
+    }
+
+    private static long transfer(long permits, long amount, boolean up) {
+        //An increment frees room to decrement again and vice versa
+        return up ? permits - (amount << 32) + amount : permits + (amount << 32) - amount;
+    }
+
+    /**
+     * Moves a per thread cell selector to another, pseudo-random cell (xorshift).
+     */
+    static int rehash(int probe) {
+        probe ^= probe << 13;
+        probe ^= probe >>> 17;
+        probe ^= probe << 5;
+        return probe;
+    }
+
+    /**
+     * Counter stripe, padded to avoid false sharing with its neighbours.
+     */
+    @SuppressWarnings("unused")
+    private static final class Cell {
+
+        private static final AtomicLongFieldUpdater<Cell> VALUE =
+                AtomicLongFieldUpdater.newUpdater(Cell.class, "value");
+        private static final AtomicLongFieldUpdater<Cell> PERMITS =
+                AtomicLongFieldUpdater.newUpdater(Cell.class, "permits");
+
+        private long p0, p1, p2, p3, p4, p5, p6;
+        //Contribution of this cell to the count
+        private volatile long value;
+        //Up permits in the high 32 bits, down permits in the low 32 bits
+        private volatile long permits;
+        private long q0, q1, q2, q3, q4, q5, q6;
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package be.thibaulthelsmoortel.helsmoortelUtil.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free token bucket rate limiter.
+ * <p>
+ * The bucket holds at most {@code capacity} tokens and is refilled at a fixed rate. Instead of counting tokens,
+ * the bucket keeps a single timestamp: the moment at which it would be full again (the generic cell rate
+ * algorithm, which is both a token bucket and a leaky bucket used as a meter). Refilling therefore happens
+ * lazily, by comparing that timestamp with {@link System#nanoTime()}, and no timer thread is needed. Acquiring
+ * tokens is a single compare-and-set.
+ * <p>
+ * Blocking acquires park the calling thread with {@link LockSupport#parkNanos(long)}, which does not pin any
+ * lock and thus also suits virtual threads.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class TokenBucket {
+
+    public static final String ERROR_CAPACITY = "Capacity should be positive!";
+    public static final String ERROR_RATE = "Rate should be positive!";
+    public static final String ERROR_TOKENS = "Number of tokens should be between 0 and the capacity!";
+
+    private final long capacity;
+    //Time needed to refill a single token, in nanoseconds
+    private final long interval;
+    //Time needed to refill a full bucket, in nanoseconds
+    private final long burst;
+    //Moment at which the bucket is full again, in nanoseconds
+    private final AtomicLong fullAt;
+
+    /**
+     * Constructor to create a full bucket holding a given number of tokens and refilled at a given rate.
+     * Example: {@code new TokenBucket(100, 10, 1, TimeUnit.SECONDS)} allows bursts of 100 and 10 per second.
+     *
+     * @param capacity the maximum number of tokens in the bucket
+     * @param tokens   the number of tokens added per period
+     * @param period   the duration of a period
+     * @param unit     the unit of the period
+     */
+    public TokenBucket(long capacity, long tokens, long period, TimeUnit unit) {
+        validate(capacity, tokens, period, unit);
+        this.capacity = capacity;
+        this.interval = interval(tokens, period, unit);
+        this.burst = capacity * interval;
+        this.fullAt = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Checks whether the given settings are valid for a bucket.
+     *
+     * @param capacity the maximum number of tokens in the bucket
+     * @param tokens   the number of tokens added per period
+     * @param period   the duration of a period
+     * @param unit     the unit of the period
+     */
+    static void validate(long capacity, long tokens, long period, TimeUnit unit) {
+        if (capacity <= 0) throw new IllegalArgumentException(ERROR_CAPACITY);
+        if (tokens <= 0 || period <= 0) throw new IllegalArgumentException(ERROR_RATE);
+        //Leaves room to add waits and costs to nanoTime values without overflowing
+        if (capacity > Long.MAX_VALUE / 4 / interval(tokens, period, unit))
+            throw new IllegalArgumentException(ERROR_CAPACITY);
+    }
+
+    private static long interval(long tokens, long period, TimeUnit unit) {
+        return java.lang.Math.max(1, unit.toNanos(period) / tokens);
+    }
+
+    /**
+     * Returns the maximum number of tokens in the bucket.
+     *
+     * @return the capacity of the bucket
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of tokens currently in the bucket.
+     *
+     * @return the number of available tokens
+     */
+    public long availableTokens() {
+        long now = System.nanoTime();
+        long missing = fullAt.get() - now;
+        if (missing <= 0) return capacity;
+        return (burst - missing) / interval;
+    }
+
+    /**
+     * Returns whether the bucket is full, meaning it has not been used for a while.
+     *
+     * @return {@code boolean} indicating if the bucket is full
+     */
+    public boolean isFull() {
+        return fullAt.get() - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Tries to take a single token from the bucket, without waiting.
+     *
+     * @return {@code boolean} indicating if the token was taken
+     */
+    public boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    /**
+     * Tries to take a number of tokens from the bucket, without waiting.
+     *
+     * @param tokens the number of tokens
+     * @return {@code boolean} indicating if the tokens were taken
+     */
+    public boolean tryAcquire(long tokens) {
+        return reserve(tokens, 0) == 0;
+    }
+
+    /**
+     * Tries to take a number of tokens from the bucket, waiting at most a given time for them.
+     * Gives up immediately (without taking any tokens) when they would not be available in time.
+     *
+     * @param tokens  the number of tokens
+     * @param timeout the maximum time to wait
+     * @param unit    the unit of the timeout
+     * @return {@code boolean} indicating if the tokens were taken
+     * @throws InterruptedException when interrupted while waiting
+     */
+    public boolean tryAcquire(long tokens, long timeout, TimeUnit unit) throws InterruptedException {
+        long wait = reserve(tokens, unit.toNanos(timeout));
+        if (wait < 0) return false;
+        park(wait);
+        return true;
+    }
+
+    /**
+     * Takes a single token from the bucket, waiting until it is available.
+     *
+     * @throws InterruptedException when interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        acquire(1);
+    }
+
+    /**
+     * Takes a number of tokens from the bucket, waiting until they are available.
+     *
+     * @param tokens the number of tokens
+     * @throws InterruptedException when interrupted while waiting
+     */
+    public void acquire(long tokens) throws InterruptedException {
+        park(reserve(tokens, Long.MAX_VALUE));
+    }
+
+    /**
+     * Reserves tokens if they are available within a maximum wait.
+     *
+     * @return the time to wait before the tokens may be used, -1 when the tokens were not reserved
+     */
+    private long reserve(long tokens, long maxWait) {
+        if (tokens < 0 || tokens > capacity) throw new IllegalArgumentException(ERROR_TOKENS);
+        long cost = tokens * interval;
+        for (;;) {
+            long now = System.nanoTime();
+            long current = fullAt.get();
+            long start = current - now > 0 ? current : now;
+            long next = start + cost;
+            long wait = next - now - burst;
+            if (wait < 0) wait = 0;
+            if (wait > maxWait) return -1;
+            if (fullAt.compareAndSet(current, next)) return wait;
+        }
+    }
+
+    private static void park(long nanos) throws InterruptedException {
+        long deadline = System.nanoTime() + nanos;
+        while (nanos > 0) {
+            LockSupport.parkNanos(nanos);
+            if (Thread.interrupted()) throw new InterruptedException();
+            nanos = deadline - System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package be.thibaulthelsmoortel.helsmoortelUtil.util;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded map of {@link TokenBucket}s sharing the same settings, one per key (for example per user or per
+ * client address).
+ * <p>
+ * Buckets are created on first use. Looking up an existing bucket does not lock; creating one does, so the
+ * maximum number of keys is never exceeded. Once it is reached, a bucket is evicted for every new key, chosen
+ * by a clock sweeping over the buckets in the order they were created:
+ * <ul>
+ * <li>a full bucket is evicted at once: it behaves exactly like a new one, so forgetting it changes nothing;</li>
+ * <li>a bucket used since the clock last passed by gets a second chance;</li>
+ * <li>any other bucket is only evicted when no full bucket follows within a few buckets, since that grants its
+ * key a full bucket on its next use.</li>
+ * </ul>
+ * Every bucket the clock passes is either evicted or had been used since it last passed, so evicting takes
+ * constant time amortized over the lookups.
+ *
+ * @param <K> the type of the keys
+ * @author Thibault Helsmoortel
+ */
+public class TokenBucketMap<K> {
+
+    public static final String ERROR_MAX_KEYS = "Maximum number of keys should be positive!";
+    //Number of buckets searched for a full one after finding an unused bucket that is not full
+    private static final int LOOKAHEAD = 8;
+
+    private final ConcurrentHashMap<K, Entry<K>> buckets = new ConcurrentHashMap<>();
+    private final int maxKeys;
+    private final long capacity;
+    private final long tokens;
+    private final long period;
+    private final TimeUnit unit;
+    //Entries in the order of the clock, guarded by this map
+    private Entry<?>[] ring;
+    private int used;
+    private int hand;
+
+    /**
+     * Constructor to create a map of buckets holding a given number of tokens and refilled at a given rate.
+     *
+     * @param maxKeys  the maximum number of buckets kept
+     * @param capacity the maximum number of tokens in a bucket
+     * @param tokens   the number of tokens added per period
+     * @param period   the duration of a period
+     * @param unit     the unit of the period
+     */
+    public TokenBucketMap(int maxKeys, long capacity, long tokens, long period, TimeUnit unit) {
+        if (maxKeys <= 0) throw new IllegalArgumentException(ERROR_MAX_KEYS);
+        TokenBucket.validate(capacity, tokens, period, unit);
+        this.maxKeys = maxKeys;
+        this.capacity = capacity;
+        this.tokens = tokens;
+        this.period = period;
+        this.unit = unit;
+        this.ring = new Entry<?>[java.lang.Math.min(maxKeys, 16)];
+    }
+
+    /**
+     * Returns the bucket of a given key, creating it when there is none yet.
+     *
+     * @param key the key
+     * @return the bucket of the key
+     */
+    public TokenBucket bucket(K key) {
+        Entry<K> entry = buckets.get(key);
+        if (entry == null) return create(key).bucket;
+        //Only written when needed, to keep the entry from bouncing between caches
+        if (!entry.referenced) entry.referenced = true;
+        return entry.bucket;
+    }
+
+    /**
+     * Tries to take a single token from the bucket of a given key, without waiting.
+     *
+     * @param key the key
+     * @return {@code boolean} indicating if the token was taken
+     */
+    public boolean tryAcquire(K key) {
+        return bucket(key).tryAcquire(1);
+    }
+
+    /**
+     * Tries to take a number of tokens from the bucket of a given key, without waiting.
+     *
+     * @param key    the key
+     * @param tokens the number of tokens
+     * @return {@code boolean} indicating if the tokens were taken
+     */
+    public boolean tryAcquire(K key, long tokens) {
+        return bucket(key).tryAcquire(tokens);
+    }
+
+    /**
+     * Returns the number of buckets currently kept.
+     *
+     * @return the number of buckets
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    private synchronized Entry<K> create(K key) {
+        Entry<K> entry = buckets.get(key);
+        if (entry != null) return entry;
+        entry = new Entry<>(key, new TokenBucket(capacity, tokens, period, unit));
+        int slot;
+        if (used < maxKeys) {
+            if (used == ring.length) ring = Arrays.copyOf(ring, (int) java.lang.Math.min(maxKeys, 2L * used));
+            slot = used++;
+        } else {
+            slot = victim();
+            buckets.remove(ring[slot].key);
+        }
+        ring[slot] = entry;
+        buckets.put(key, entry);
+        return entry;
+    }
+
+    /**
+     * Moves the clock to the bucket to evict and returns its slot, leaving the hand right after it so that the
+     * new bucket is the last one the clock reaches again.
+     */
+    private int victim() {
+        int fallback = -1;
+        int searched = 0;
+        for (;;) {
+            int slot = hand;
+            Entry<?> entry = ring[slot];
+            hand = slot + 1 == ring.length ? 0 : slot + 1;
+            if (entry.bucket.isFull()) return slot;
+            if (fallback >= 0) {
+                if (++searched == LOOKAHEAD) {
+                    hand = fallback + 1 == ring.length ? 0 : fallback + 1;
+                    return fallback;
+                }
+            } else if (entry.referenced) {
+                entry.referenced = false;
+            } else {
+                fallback = slot;
+            }
+        }
+    }
+
+    /**
+     * Bucket of a key, with the reference bit of the clock.
+     */
+    private static final class Entry<K> {
+
+        private final K key;
+        private final TokenBucket bucket;
+        //Set when the bucket is used, cleared when the clock passes by
+        private volatile boolean referenced;
+
+        private Entry(K key, TokenBucket bucket) {
+            this.key = key;
+            this.bucket = bucket;
+        }
+    }
+}
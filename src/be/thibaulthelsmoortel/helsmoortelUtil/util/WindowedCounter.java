@@ -0,0 +1,336 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package be.thibaulthelsmoortel.helsmoortelUtil.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static be.thibaulthelsmoortel.helsmoortelUtil.util.Counter.ERROR_BOUNDS;
+
+/**
+ * Counter of the events that happened during the last period of time (the window), for example the number of
+ * requests in the last 10 seconds.
+ * <p>
+ * The window is divided into buckets of a fixed duration (the resolution), kept in a ring. Every bucket holds
+ * the number of events of one period together with the rotation of the ring it belongs to, in a single
+ * {@code long}, so increments are a single compare-and-set without any allocation. Buckets of past rotations
+ * are simply ignored and reused, so no clean-up thread is needed. The window covers the current, incomplete
+ * bucket and the buckets before it, so it spans between {@code window - resolution} and {@code window}.
+ * <p>
+ * The number of events in the window is kept as a running total as well. Buckets leaving the window are
+ * subtracted from it once, by whichever thread first notices the move to a later bucket, so increments and
+ * {@link #sumOverWindow()} take constant time (amortized over the buckets that left the window).
+ * <p>
+ * Like {@link Counter}, a minimum and maximum value can be set. An increment which would take the number of
+ * events in the window beyond the maximum value is refused; room is reserved in the running total before the
+ * bucket is updated, so the maximum value holds under contention as well. An increment racing with the move to
+ * the next bucket may keep its events in the total a little longer than the window, which only makes the
+ * counter refuse events early, never exceed the maximum value.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class WindowedCounter {
+
+    public static final String ERROR_RESOLUTION = "Resolution should be positive and not exceed the window!";
+    public static final String ERROR_AMOUNT = "Amount should not be negative!";
+    private static final long COUNT_MASK = 0xFFFFFFFFL;
+    //Rotation distances from here on mean a bucket belongs to a later rotation
+    private static final long LATER = 1L << 31;
+
+    //Rotation in the high 32 bits, number of events in the low 32 bits
+    private final AtomicLongArray buckets;
+    private final long resolution;
+    private final long window;
+    //Time the counter was created, slots are counted from here
+    private final long origin;
+    //Minimum and maximum number of events in the window
+    private final long minVal, maxVal;
+    //Number of events in the buckets not yet subtracted
+    private final AtomicLong total = new AtomicLong();
+    //Last slot whose bucket was subtracted from the total
+    private final AtomicLong expired = new AtomicLong();
+
+    /**
+     * Constructor to create a counter over a given window, with buckets of a given resolution.
+     *
+     * @param window     the duration of the window
+     * @param resolution the duration of a single bucket
+     * @param unit       the unit of the window and resolution
+     */
+    public WindowedCounter(long window, long resolution, TimeUnit unit) {
+        this(window, resolution, unit, 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * Constructor to create a counter over a given window, with buckets of a given resolution and to set
+     * minimum and maximum values for the number of events in the window.
+     *
+     * @param window     the duration of the window
+     * @param resolution the duration of a single bucket
+     * @param unit       the unit of the window and resolution
+     * @param minVal     the minimum number of events in the window
+     * @param maxVal     the maximum number of events in the window
+     */
+    public WindowedCounter(long window, long resolution, TimeUnit unit, long minVal, long maxVal) {
+        this.resolution = unit.toNanos(resolution);
+        this.window = unit.toNanos(window);
+        if (this.resolution <= 0 || this.resolution > this.window) throw new IllegalArgumentException(ERROR_RESOLUTION);
+        if (minVal > maxVal) throw new IllegalArgumentException(Counter.ERROR_MIN_VAL);
+        //Rounded up without adding, which could overflow for windows close to Long.MAX_VALUE nanoseconds
+        long size = this.window / this.resolution + (this.window % this.resolution == 0 ? 0 : 1);
+        if (size > Integer.MAX_VALUE) throw new IllegalArgumentException(ERROR_RESOLUTION);
+        this.buckets = new AtomicLongArray((int) size);
+        this.minVal = minVal;
+        this.maxVal = maxVal;
+        this.origin = System.nanoTime();
+        reset();
+    }
+
+    /**
+     * Returns the duration of the window in nanoseconds.
+     *
+     * @return the duration of the window
+     */
+    public long getWindow() {
+        return window;
+    }
+
+    /**
+     * Returns the duration of a single bucket in nanoseconds.
+     *
+     * @return the duration of a bucket
+     */
+    public long getResolution() {
+        return resolution;
+    }
+
+    /**
+     * Returns the minimum number of events in the window.
+     *
+     * @return the minimum value of the counter
+     */
+    public long getMinVal() {
+        return minVal;
+    }
+
+    /**
+     * Returns the maximum number of events in the window.
+     *
+     * @return the maximum value of the counter
+     */
+    public long getMaxVal() {
+        return maxVal;
+    }
+
+    /**
+     * Registers a single event.
+     */
+    public void increment() {
+        incrementBy(1);
+    }
+
+    /**
+     * Registers a number of events at once.
+     *
+     * @param amount the number of events
+     */
+    public void incrementBy(int amount) {
+        if (!tryIncrementBy(amount)) throw new IllegalArgumentException(ERROR_BOUNDS);
+    }
+
+    /**
+     * Tries to register a single event, refusing it when the maximum value would be exceeded.
+     *
+     * @return {@code boolean} indicating if the event was registered
+     */
+    public boolean tryIncrement() {
+        return tryIncrementBy(1);
+    }
+
+    /**
+     * Tries to register a number of events at once, refusing them when the maximum value would be exceeded.
+     *
+     * @param amount the number of events
+     * @return {@code boolean} indicating if the events were registered
+     */
+    public boolean tryIncrementBy(int amount) {
+        if (amount < 0) throw new IllegalArgumentException(ERROR_AMOUNT);
+        long slot = slot();
+        expire(slot);
+        if (!reserve(amount)) return false;
+        for (;;) {
+            int index = index(slot);
+            long rotation = rotation(slot);
+            long bucket = buckets.get(index);
+            long age = (rotation - tag(bucket)) & COUNT_MASK;
+            if (age >= LATER) {
+                //The bucket was reused by a later rotation while this thread lagged behind
+                slot = slot();
+                expire(slot);
+                continue;
+            }
+            //Events of a past rotation still in the bucket are subtracted by the thread replacing them
+            long stale = age == 0 ? 0 : bucket & COUNT_MASK;
+            long next = (age == 0 ? bucket & COUNT_MASK : 0) + amount;
+            if (next > COUNT_MASK) {
+                total.addAndGet(-amount);
+                return false;
+            }
+            if (buckets.compareAndSet(index, bucket, pack(rotation, next))) {
+                if (stale != 0) total.addAndGet(-stale);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of events in the window.
+     *
+     * @return the number of events in the window
+     */
+    public long sumOverWindow() {
+        expire(slot());
+        return total.get();
+    }
+
+    /**
+     * Returns the average number of events per second in the window.
+     *
+     * @return the number of events per second
+     */
+    public double rate() {
+        return rate(TimeUnit.SECONDS);
+    }
+
+    /**
+     * Returns the average number of events per time unit in the window.
+     *
+     * @param unit the time unit
+     * @return the number of events per time unit
+     */
+    public double rate(TimeUnit unit) {
+        return (double) sumOverWindow() * unit.toNanos(1) / window;
+    }
+
+    /**
+     * Returns whether the number of events in the window lies between the minimum and maximum values.
+     *
+     * @return {@code boolean} indicating if the number of events is within bounds
+     */
+    public boolean isWithinBounds() {
+        long sum = sumOverWindow();
+        return sum >= minVal && sum <= maxVal;
+    }
+
+    /**
+     * Returns the number of events still allowed in the window before reaching the maximum value.
+     *
+     * @return the distance from the number of events in the window to the maximum value
+     */
+    public long distanceToMaxVal() {
+        return maxVal - sumOverWindow();
+    }
+
+    /**
+     * Returns the number of events still needed in the window to reach the minimum value.
+     *
+     * @return the distance from the number of events in the window to the minimum value
+     */
+    public long distanceToMinVal() {
+        return java.lang.Math.max(0, minVal - sumOverWindow());
+    }
+
+    /**
+     * Forgets all events.
+     * <p>
+     * Like {@link java.util.concurrent.atomic.LongAdder#reset()}, this is only reliable when no other thread
+     * updates the counter at the same time.
+     */
+    public void reset() {
+        long slot = slot();
+        //Mark every bucket as belonging to a past rotation
+        long stale = pack(rotation(slot) - 1, 0);
+        for (int i = 0; i < buckets.length(); i++) buckets.set(i, stale);
+        total.set(0);
+        expired.set(slot - buckets.length());
+    }
+
+    /**
+     * Takes room for a number of events in the running total, unless it would exceed the maximum value.
+     */
+    private boolean reserve(long amount) {
+        if (maxVal == Long.MAX_VALUE) {
+            total.addAndGet(amount);
+            return true;
+        }
+        for (;;) {
+            long sum = total.get();
+            if (sum + amount > maxVal) return false;
+            if (total.compareAndSet(sum, sum + amount)) return true;
+        }
+    }
+
+    /**
+     * Subtracts the buckets of the slots that left the window ending in the given slot from the running total.
+     * Every slot is claimed by a single thread; after a pause longer than the window, all buckets are swept once.
+     */
+    private void expire(long slot) {
+        int size = buckets.length();
+        long target = slot - size;
+        for (;;) {
+            long last = expired.get();
+            if (last >= target) return;
+            if (target - last > size) {
+                if (expired.compareAndSet(last, target)) {
+                    for (int i = 0; i < size; i++) retire(i, slot);
+                    return;
+                }
+            } else if (expired.compareAndSet(last, last + 1)) {
+                retire(index(last + 1), slot);
+            }
+        }
+    }
+
+    /**
+     * Empties a bucket when it belongs to a rotation before the one it has in the window ending in the given slot,
+     * subtracting its events from the running total.
+     */
+    private void retire(int index, long slot) {
+        //Buckets after the current one belong to the previous rotation
+        long rotation = rotation(slot) - (index > index(slot) ? 1 : 0);
+        for (;;) {
+            long bucket = buckets.get(index);
+            long age = (rotation - tag(bucket)) & COUNT_MASK;
+            long count = bucket & COUNT_MASK;
+            if (age == 0 || age >= LATER || count == 0) return;
+            if (buckets.compareAndSet(index, bucket, pack(tag(bucket), 0))) {
+                total.addAndGet(-count);
+                return;
+            }
+        }
+    }
+
+    private long slot() {
+        return (System.nanoTime() - origin) / resolution;
+    }
+
+    private int index(long slot) {
+        return (int) java.lang.Math.floorMod(slot, (long) buckets.length());
+    }
+
+    private long rotation(long slot) {
+        return java.lang.Math.floorDiv(slot, (long) buckets.length()) & COUNT_MASK;
+    }
+
+    private static long tag(long bucket) {
+        return bucket >>> 32;
+    }
+
+    private static long pack(long rotation, long count) {
+        return (rotation << 32) | count;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package util;
+
+import be.thibaulthelsmoortel.helsmoortelUtil.util.AtomicCounter;
+import org.apache.log4j.Logger;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test case for AtomicCounter.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class AtomicCounterTests {
+
+    private static final Logger LOGGER = Logger.getLogger(AtomicCounterTests.class);
+    private static final int THREADS = 64;
+    private static final int INCREMENTS = 10000;
+
+    /**
+     * Tests whether no updates are lost when many threads increment the same counter.
+     *
+     * @throws Exception when a worker thread fails
+     */
+    @Test
+    public void shouldNotLoseUpdates() throws Exception {
+        final AtomicCounter counter = new AtomicCounter();
+        List<Integer> results = runConcurrently(() -> {
+            for (int i = 0; i < INCREMENTS; i++) {
+                counter.increment();
+            }
+            return INCREMENTS;
+        });
+        LOGGER.debug("Final count: " + counter.getCount());
+        assertEquals(THREADS * INCREMENTS, counter.getCount());
+        assertEquals(THREADS, results.size());
+    }
+
+    /**
+     * Tests whether the maximum value is never exceeded under contention.
+     *
+     * @throws Exception when a worker thread fails
+     */
+    @Test
+    public void shouldRespectBoundsUnderContention() throws Exception {
+        final int maxVal = THREADS * INCREMENTS / 4;
+        final AtomicCounter counter = new AtomicCounter(0, 1, 0, maxVal);
+        List<Integer> results = runConcurrently(() -> {
+            int succeeded = 0;
+            for (int i = 0; i < INCREMENTS; i++) {
+                try {
+                    counter.incrementBy(1);
+                    succeeded++;
+                } catch (IllegalArgumentException e) {
+                    //Bounds reached, keep trying so contention stays high
+                }
+            }
+            return succeeded;
+        });
+        int total = 0;
+        for (int succeeded : results) total += succeeded;
+        assertEquals(maxVal, counter.getCount());
+        assertEquals(maxVal, total);
+    }
+
+    /**
+     * Tests whether the single threaded behaviour matches the one of Counter.
+     */
+    @Test
+    public void shouldCountLikeCounter() {
+        AtomicCounter counter = new AtomicCounter(5, 2, 0, 10);
+        assertEquals(5, counter.getThenIncrement());
+        assertEquals(9, counter.incrementThenGet());
+        assertEquals(9, counter.getThenDecrementBy(4));
+        assertEquals(5, counter.getCount());
+        assertEquals(5, counter.distanceToMaxVal());
+        counter.resetTo(3);
+        assertEquals(3, counter.getCount());
+        counter.reset();
+        assertEquals(5, counter.getCount());
+        try {
+            counter.incrementBy(6);
+        } catch (IllegalArgumentException e) {
+            assertEquals(5, counter.getCount());
+            return;
+        }
+        assertTrue("Exceeding the bounds should throw", false);
+    }
+
+    private List<Integer> runConcurrently(Callable<Integer> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        List<Integer> results = new ArrayList<>();
+        for (Future<Integer> future : futures) results.add(future.get());
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        return results;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package util;
+
+import be.thibaulthelsmoortel.helsmoortelUtil.util.Counter.BoundPolicy;
+import be.thibaulthelsmoortel.helsmoortelUtil.util.Counter.Status;
+import be.thibaulthelsmoortel.helsmoortelUtil.util.CounterArray;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test case for CounterArray.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class CounterArrayTests {
+
+    /**
+     * Tests whether bounds set for a single counter leave the other counters on the shared bounds, until the
+     * shared bounds are set again.
+     */
+    @Test
+    public void shouldKeepBoundsPerCounter() {
+        CounterArray counters = new CounterArray(4, 0, 1, -5, 5, BoundPolicy.SATURATE);
+        counters.setMinAndMaxVal(2, -1, 1);
+        assertEquals(-1, counters.getMinVal(2));
+        assertEquals(1, counters.getMaxVal(2));
+        assertEquals(-5, counters.getMinVal(1));
+        assertEquals(5, counters.getMaxVal(3));
+        assertEquals(Status.SATURATED, counters.tryIncrementBy(2, 3));
+        assertEquals(1, counters.getCount(2));
+        assertEquals(Status.UPDATED, counters.tryIncrementBy(1, 3));
+        assertEquals(3, counters.getCount(1));
+
+        counters.setMinAndMaxVal(-2, 2);
+        assertEquals(-2, counters.getMinVal(2));
+        assertEquals(2, counters.getMaxVal(1));
+        assertEquals(Status.SATURATED, counters.tryDecrementBy(0, 3));
+        assertEquals(-2, counters.getCount(0));
+    }
+
+    /**
+     * Tests the sum of all counts.
+     */
+    @Test
+    public void shouldSum() {
+        CounterArray counters = new CounterArray(3);
+        counters.incrementBy(0, 7);
+        counters.decrementBy(2, 3);
+        assertEquals(4, counters.sum());
+        counters.resetAll();
+        assertEquals(0, counters.sum());
+    }
+
+    /**
+     * Tests whether a sum too large for a long is detected.
+     */
+    @Test(expected = ArithmeticException.class)
+    public void shouldDetectSumOverflow() {
+        CounterArray counters = new CounterArray(2);
+        counters.incrementBy(0, Long.MAX_VALUE);
+        counters.incrementBy(1, 1);
+        counters.sum();
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package util;
+
+import be.thibaulthelsmoortel.helsmoortelUtil.util.AtomicCounter;
+import be.thibaulthelsmoortel.helsmoortelUtil.util.CounterRegistry;
+import be.thibaulthelsmoortel.helsmoortelUtil.util.CounterRegistry.Snapshot;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Test case for CounterRegistry.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class CounterRegistryTests {
+
+    /**
+     * Tests whether a name always returns the same counter, keeping the settings it was created with.
+     */
+    @Test
+    public void shouldReturnSameCounter() {
+        CounterRegistry registry = new CounterRegistry();
+        AtomicCounter counter = registry.counter("requests", 5, 2, 0, 100);
+        assertSame(counter, registry.counter("requests"));
+        assertSame(counter, registry.counter("requests", 0, 1, 0, 1));
+        assertEquals(2, registry.counter("requests").getHop());
+        assertEquals(1, registry.size());
+    }
+
+    /**
+     * Tests whether null, empty and whitespace names are rejected.
+     */
+    @Test
+    public void shouldRejectInvalidNames() {
+        CounterRegistry registry = new CounterRegistry();
+        for (String name : new String[]{null, "", "a b", "tab\t"}) {
+            try {
+                registry.counter(name);
+                fail("Name should be rejected: " + name);
+            } catch (IllegalArgumentException e) {
+                assertEquals(CounterRegistry.ERROR_NAME, e.getMessage());
+            }
+        }
+        assertEquals(0, registry.size());
+    }
+
+    /**
+     * Tests whether snapshots are sorted by name and written in the text format.
+     *
+     * @throws Exception when writing fails
+     */
+    @Test
+    public void shouldWriteSnapshot() throws Exception {
+        CounterRegistry registry = new CounterRegistry();
+        registry.counter("sessions.active").incrementBy(12);
+        registry.counter("requests.total").incrementBy(1024);
+        Snapshot snapshot = registry.snapshot();
+        registry.counter("requests.total").increment();
+        assertEquals(2, snapshot.size());
+        assertEquals("requests.total", snapshot.getName(0));
+        assertEquals(1024, snapshot.getCount("requests.total"));
+        assertEquals(12, snapshot.getCount(1));
+        StringBuilder out = new StringBuilder();
+        snapshot.writeTo(out);
+        assertEquals("# timestamp " + snapshot.getTimestamp() + "\nrequests.total 1024\nsessions.active 12\n",
+                out.toString());
+        try {
+            snapshot.getCount("missing");
+            fail("Missing counters should be rejected");
+        } catch (IllegalArgumentException e) {
+            assertEquals(CounterRegistry.ERROR_NOT_FOUND, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package util;
+
+import be.thibaulthelsmoortel.helsmoortelUtil.util.Counter;
+import be.thibaulthelsmoortel.helsmoortelUtil.util.Counter.BoundPolicy;
+import be.thibaulthelsmoortel.helsmoortelUtil.util.Counter.Status;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test case for Counter.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class CounterTests {
+
+    /**
+     * Tests whether the default policy still throws when the bounds are exceeded.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowByDefault() {
+        Counter counter = new Counter(9, 1, 0, 10);
+        assertEquals(Status.UPDATED, counter.tryIncrement());
+        assertEquals(Status.REJECTED, counter.tryIncrement());
+        assertEquals(10, counter.getCount());
+        counter.increment();
+    }
+
+    /**
+     * Tests whether the count is clamped to the exceeded bound.
+     */
+    @Test
+    public void shouldSaturate() {
+        Counter counter = new Counter(8, 3, 0, 10, BoundPolicy.SATURATE);
+        assertEquals(Status.SATURATED, counter.tryIncrement());
+        assertEquals(10, counter.getCount());
+        counter.decrementBy(25);
+        assertEquals(0, counter.getCount());
+    }
+
+    /**
+     * Tests whether the count wraps around to the other bound.
+     */
+    @Test
+    public void shouldWrap() {
+        Counter counter = new Counter(9, 1, 0, 9, BoundPolicy.WRAP);
+        assertEquals(Status.WRAPPED, counter.tryIncrement());
+        assertEquals(0, counter.getCount());
+        assertEquals(Status.WRAPPED, counter.tryDecrementBy(13));
+        assertEquals(7, counter.getCount());
+    }
+
+    /**
+     * Tests whether out of bounds updates are silently ignored.
+     */
+    @Test
+    public void shouldReject() {
+        Counter counter = new Counter(10, 1, 0, 10, BoundPolicy.REJECT);
+        counter.increment();
+        assertEquals(10, counter.getCount());
+        assertEquals(Status.REJECTED, counter.tryIncrementBy(Integer.MAX_VALUE));
+        assertEquals(Status.UPDATED, counter.tryDecrement());
+        assertEquals(9, counter.getCount());
+    }
+}
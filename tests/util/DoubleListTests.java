@@ -0,0 +1,124 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package util;
+
+import be.thibaulthelsmoortel.helsmoortelUtil.util.DoubleList;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test case for DoubleList.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class DoubleListTests {
+
+    /**
+     * Tests whether the list keeps its values while growing, only replacing the backing array when full.
+     */
+    @Test
+    public void shouldGrow() {
+        DoubleList list = new DoubleList();
+        assertTrue(list.isEmpty());
+        double[] backing = null;
+        for (int i = 0; i < 1000; i++) {
+            list.add(i * 0.5);
+            if (i > 0 && list.size() <= backing.length) assertSame(backing, list.array());
+            backing = list.array();
+        }
+        assertEquals(1000, list.size());
+        for (int i = 0; i < 1000; i++) assertEquals(i * 0.5, list.get(i), 0);
+        assertEquals(499.5, list.set(999, -1), 0);
+        assertEquals(-1, list.get(999), 0);
+        list.trimToSize();
+        assertEquals(1000, list.array().length);
+        list.clear();
+        assertTrue(list.isEmpty());
+        list.trimToSize();
+        assertEquals(0, list.array().length);
+        DoubleList presized = new DoubleList(64);
+        presized.ensureCapacity(10);
+        assertEquals(64, presized.array().length);
+        presized.ensureCapacity(100);
+        assertEquals(100, presized.array().length);
+        try {
+            list.get(0);
+            fail("Reading past the size should throw");
+        } catch (IndexOutOfBoundsException e) {
+            assertEquals("Index: 0, Size: 0", e.getMessage());
+        }
+        try {
+            new DoubleList(-1);
+            fail("A negative capacity should throw");
+        } catch (IllegalArgumentException e) {
+            assertEquals(DoubleList.ERROR_CAPACITY, e.getMessage());
+        }
+    }
+
+    /**
+     * Tests whether arrays, ranges of arrays and lists, including the list itself, are appended.
+     */
+    @Test
+    public void shouldAddAll() {
+        DoubleList list = DoubleList.of(1, 2);
+        list.addAll(new double[]{3, 4, 5}, 1, 2);
+        list.addAll(new double[0]);
+        assertArrayEquals(new double[]{1, 2, 4, 5}, list.toArray(), 0);
+        list.addAll(list);
+        assertArrayEquals(new double[]{1, 2, 4, 5, 1, 2, 4, 5}, list.toArray(), 0);
+        try {
+            list.addAll(new double[3], 2, 2);
+            fail("Adding past the end of the array should throw");
+        } catch (IndexOutOfBoundsException e) {
+            assertEquals(8, list.size());
+        }
+    }
+
+    /**
+     * Tests whether sorting orders the values of the list only, like Arrays.sort.
+     */
+    @Test
+    public void shouldSort() {
+        DoubleList list = DoubleList.of(3, Double.NaN, -0.0, 0.0, -1, Double.NEGATIVE_INFINITY);
+        list.add(2);
+        list.ensureCapacity(100);
+        list.sort();
+        double[] expected = {3, Double.NaN, -0.0, 0.0, -1, Double.NEGATIVE_INFINITY, 2};
+        Arrays.sort(expected);
+        assertArrayEquals(expected, list.toArray(), 0);
+        assertEquals(-0.0, list.get(2), 0);
+        assertEquals(Double.doubleToLongBits(-0.0), Double.doubleToLongBits(list.get(2)));
+        assertEquals(0, list.array()[7], 0);
+    }
+
+    /**
+     * Tests whether equality and hash code depend on the values only, like those of a List of Doubles.
+     */
+    @Test
+    public void shouldCompareValues() {
+        DoubleList list = DoubleList.of(1, Double.NaN, 3);
+        DoubleList other = new DoubleList(100);
+        other.addAll(new double[]{1, Double.NaN, 3});
+        assertEquals(list, other);
+        assertEquals(list.hashCode(), other.hashCode());
+        assertEquals(Arrays.asList(1.0, Double.NaN, 3.0).hashCode(), list.hashCode());
+        assertEquals("[1.0, NaN, 3.0]", list.toString());
+        other.add(4);
+        assertNotEquals(list, other);
+        assertNotEquals(DoubleList.of(0.0), DoubleList.of(-0.0));
+        assertFalse(list.equals(Arrays.asList(1.0, Double.NaN, 3.0)));
+        assertEquals(new DoubleList(), new DoubleList(10));
+    }
+}
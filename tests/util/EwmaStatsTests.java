@@ -0,0 +1,141 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package util;
+
+import be.thibaulthelsmoortel.helsmoortelUtil.util.EwmaStats;
+import be.thibaulthelsmoortel.helsmoortelUtil.util.EwmaTable;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test case for EwmaStats and EwmaTable.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class EwmaStatsTests {
+
+    private static final double DELTA = 1e-9;
+    private static final long HALF_LIFE = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Tests whether mean, variance and weight match the closed form, where every value weighs
+     * 2^(-age / half-life) relative to the latest value, also for values added out of order.
+     */
+    @Test
+    public void shouldDecayLikeClosedForm() {
+        Random random = new Random(42);
+        EwmaStats stats = new EwmaStats(1, TimeUnit.SECONDS);
+        EwmaTable table = new EwmaTable(3, 1, TimeUnit.SECONDS);
+        int n = 500;
+        double[] values = new double[n];
+        long[] times = new long[n];
+        long time = random.nextLong();
+        for (int i = 0; i < n; i++) {
+            //Mostly increasing times, with bursts at the same time and some late values
+            time += i % 10 == 0 ? 0 : random.nextInt(50000000);
+            times[i] = i % 17 == 0 ? time - random.nextInt(500000000) : time;
+            values[i] = 100 + random.nextGaussian() * 10 + (i > n / 2 ? 50 : 0);
+            stats.add(values[i], times[i]);
+            table.add(1, values[i], times[i]);
+
+            long latest = Long.MIN_VALUE;
+            for (int j = 0; j <= i; j++) latest = java.lang.Math.max(latest, times[j] - times[0]);
+            double weight = 0.0, weighted = 0.0;
+            for (int j = 0; j <= i; j++) {
+                double w = java.lang.Math.pow(2, -(double) (latest - (times[j] - times[0])) / HALF_LIFE);
+                weight += w;
+                weighted += w * values[j];
+            }
+            double mean = weighted / weight, squares = 0.0;
+            for (int j = 0; j <= i; j++) {
+                double w = java.lang.Math.pow(2, -(double) (latest - (times[j] - times[0])) / HALF_LIFE);
+                squares += w * (values[j] - mean) * (values[j] - mean);
+            }
+            assertEquals(weight, stats.weight(), DELTA * weight);
+            assertEquals(mean, stats.mean(), DELTA * mean);
+            assertEquals(squares / weight, stats.var(), 1e-7 * (1 + squares / weight));
+            assertEquals(stats.weight(), table.weight(1), 0);
+            assertEquals(stats.mean(), table.mean(1), 0);
+            assertEquals(stats.var(), table.var(1), 0);
+        }
+        assertTrue(Double.isNaN(table.mean(0)));
+        assertEquals(0, table.weight(2), 0);
+    }
+
+    /**
+     * Tests whether the weight of a value halves every half-life.
+     */
+    @Test
+    public void shouldHalveEveryHalfLife() {
+        EwmaStats stats = new EwmaStats(250, TimeUnit.MILLISECONDS);
+        stats.add(10, 0);
+        stats.add(20, TimeUnit.MILLISECONDS.toNanos(250));
+        assertEquals(1.5, stats.weight(), DELTA);
+        assertEquals((10 * 0.5 + 20) / 1.5, stats.mean(), DELTA);
+        stats.add(20, TimeUnit.SECONDS.toNanos(1));
+        assertEquals(1 + 1.5 / 8, stats.weight(), DELTA);
+        stats.reset();
+        assertTrue(Double.isNaN(stats.mean()));
+        assertTrue(Double.isNaN(stats.var()));
+        try {
+            new EwmaStats(0, TimeUnit.SECONDS);
+            fail("A half-life of 0 should throw");
+        } catch (IllegalArgumentException e) {
+            assertEquals(EwmaStats.ERROR_HALF_LIFE, e.getMessage());
+        }
+    }
+
+    /**
+     * Tests whether concurrent updates of the same table entry are not lost, nor affect other entries.
+     *
+     * @throws Exception when a worker thread fails
+     */
+    @Test
+    public void shouldNotLoseTableUpdates() throws Exception {
+        final EwmaTable table = new EwmaTable(2, 1, TimeUnit.SECONDS);
+        final int threads = 8, adds = 10000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final double value = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                //Values added at the same time all weigh 1
+                for (int i = 0; i < adds; i++) table.add(0, value, 0L);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) future.get();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(threads * adds, table.weight(0), 0);
+        assertEquals((threads - 1) / 2.0, table.mean(0), DELTA);
+        assertEquals((threads * threads - 1) / 12.0, table.var(0), 1e-6);
+        assertEquals(0, table.weight(1), 0);
+        table.reset(0);
+        assertTrue(Double.isNaN(table.mean(0)));
+        try {
+            table.add(2, 1);
+            fail("Adding outside the table should throw");
+        } catch (IndexOutOfBoundsException e) {
+            assertEquals("2", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package util;
+
+import be.thibaulthelsmoortel.helsmoortelUtil.util.Histogram;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test case for Histogram.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class HistogramTests {
+
+    /**
+     * Tests whether fixed width buckets count their lower boundary but not their upper one, also when the
+     * boundaries cannot be represented exactly.
+     */
+    @Test
+    public void shouldPlaceFixedWidthBoundaries() {
+        Histogram histogram = Histogram.fixedWidth(0, 100, 10);
+        assertEquals(12, histogram.bucketCount());
+        assertEquals(0, histogram.bucketIndex(-Double.MIN_VALUE));
+        assertEquals(1, histogram.bucketIndex(0));
+        assertEquals(1, histogram.bucketIndex(-0.0));
+        assertEquals(1, histogram.bucketIndex(java.lang.Math.nextDown(10.0)));
+        assertEquals(2, histogram.bucketIndex(10));
+        assertEquals(10, histogram.bucketIndex(java.lang.Math.nextDown(100.0)));
+        assertEquals(11, histogram.bucketIndex(100));
+        assertEquals(11, histogram.bucketIndex(Double.NaN));
+        assertEquals(90, histogram.lowerBound(10), 0);
+        assertEquals(Double.POSITIVE_INFINITY, histogram.upperBound(11), 0);
+
+        Random random = new Random(42);
+        for (int round = 0; round < 1000; round++) {
+            double lowest = random.nextGaussian() * java.lang.Math.pow(10, random.nextInt(10) - 5);
+            double highest = lowest + random.nextDouble() * java.lang.Math.pow(10, random.nextInt(10) - 5);
+            if (!(lowest < highest)) continue;
+            checkBoundaries(Histogram.fixedWidth(lowest, highest, 1 + random.nextInt(200)));
+        }
+    }
+
+    /**
+     * Tests whether log-linear buckets hold every value once, with the promised relative precision, and count
+     * truncated doubles up to the upper boundary of the last bucket.
+     */
+    @Test
+    public void shouldPlaceLogLinearBoundaries() {
+        Histogram histogram = Histogram.logLinear(1000, 3);
+        for (int value = 0; value <= 1000; value++) {
+            int bucket = histogram.bucketIndex(value);
+            assertTrue(histogram.lowerBound(bucket) <= value && value < histogram.upperBound(bucket));
+            double width = histogram.upperBound(bucket) - histogram.lowerBound(bucket);
+            assertTrue(width <= java.lang.Math.max(1, histogram.lowerBound(bucket) / 4));
+            if (value < 8) assertEquals(value + 1, bucket);
+        }
+        int last = histogram.bucketCount() - 2;
+        assertEquals(1001, histogram.upperBound(last), 0);
+        assertEquals(last, histogram.bucketIndex(1000.5));
+        assertEquals(last + 1, histogram.bucketIndex(1001));
+        assertEquals(last + 1, histogram.bucketIndex(Double.NaN));
+        assertEquals(0, histogram.bucketIndex(-0.5));
+        checkBoundaries(histogram);
+        histogram.record(1000L);
+        histogram.record(1001L);
+        histogram.record(-1L);
+        assertEquals(1, histogram.count(last));
+        assertEquals(1, histogram.count(last + 1));
+        assertEquals(1, histogram.count(0));
+
+        Histogram large = Histogram.logLinear(Long.MAX_VALUE, 20);
+        assertEquals(large.bucketCount() - 2, large.bucketIndex(java.lang.Math.nextDown(0x1p63)));
+        assertEquals(large.bucketCount() - 1, large.bucketIndex(0x1p63));
+    }
+
+    /**
+     * Tests whether explicit buckets count their lower boundary but not their upper one.
+     */
+    @Test
+    public void shouldPlaceExplicitBoundaries() {
+        Histogram histogram = Histogram.explicit(-1, 0, 1, 5);
+        assertEquals(5, histogram.bucketCount());
+        assertEquals(0, histogram.bucketIndex(Double.NEGATIVE_INFINITY));
+        assertEquals(0, histogram.bucketIndex(java.lang.Math.nextDown(-1.0)));
+        assertEquals(1, histogram.bucketIndex(-1));
+        assertEquals(2, histogram.bucketIndex(0));
+        assertEquals(2, histogram.bucketIndex(-0.0));
+        assertEquals(3, histogram.bucketIndex(1));
+        assertEquals(3, histogram.bucketIndex(java.lang.Math.nextDown(5.0)));
+        assertEquals(4, histogram.bucketIndex(5));
+        assertEquals(4, histogram.bucketIndex(Double.NaN));
+        checkBoundaries(histogram);
+        try {
+            Histogram.explicit(0, 1, 1);
+            fail("Equal boundaries should throw");
+        } catch (IllegalArgumentException e) {
+            assertEquals(Histogram.ERROR_BOUNDARIES, e.getMessage());
+        }
+    }
+
+    /**
+     * Tests whether negative counts are rejected without changing the histogram.
+     */
+    @Test
+    public void shouldRejectNegativeCounts() {
+        Histogram histogram = Histogram.fixedWidth(0, 10, 10);
+        histogram.record(5, 3);
+        histogram.record(5, 0);
+        try {
+            histogram.record(5, -1);
+            fail("A negative count should throw");
+        } catch (IllegalArgumentException e) {
+            assertEquals(Histogram.ERROR_COUNT, e.getMessage());
+        }
+        assertEquals(3, histogram.totalCount());
+        assertEquals(3, histogram.count(6));
+    }
+
+    /**
+     * Tests whether no values are lost when many threads record into a striped histogram.
+     *
+     * @throws Exception when a worker thread fails
+     */
+    @Test
+    public void shouldNotLoseStripedUpdates() throws Exception {
+        final Histogram histogram = Histogram.fixedWidth(0, 8, 8).striped(4);
+        final int threads = 8, records = 100000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int value = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < records; i++) histogram.record(i % 2 == 0 ? 0 : value);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) future.get();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals((long) threads * records, histogram.totalCount());
+        assertEquals((long) threads * records / 2 + records / 2, histogram.count(1));
+        for (int bucket = 2; bucket <= threads; bucket++) assertEquals(records / 2, histogram.count(bucket));
+
+        Histogram merged = Histogram.fixedWidth(0, 8, 8);
+        merged.merge(histogram);
+        assertEquals(histogram.totalCount(), merged.totalCount());
+    }
+
+    /**
+     * Checks whether every regular bucket counts its lower boundary and the value right below its upper one.
+     */
+    private static void checkBoundaries(Histogram histogram) {
+        for (int bucket = 1; bucket < histogram.bucketCount() - 1; bucket++) {
+            double lower = histogram.lowerBound(bucket), upper = histogram.upperBound(bucket);
+            if (!(lower < upper)) continue;
+            assertEquals(bucket, histogram.bucketIndex(lower));
+            assertEquals(bucket, histogram.bucketIndex(java.lang.Math.nextDown(upper)));
+        }
+    }
+}
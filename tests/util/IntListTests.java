@@ -0,0 +1,119 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package util;
+
+import be.thibaulthelsmoortel.helsmoortelUtil.util.IntList;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test case for IntList.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class IntListTests {
+
+    /**
+     * Tests whether the list keeps its values while growing, only replacing the backing array when full.
+     */
+    @Test
+    public void shouldGrow() {
+        IntList list = new IntList();
+        assertTrue(list.isEmpty());
+        int[] backing = null;
+        for (int i = 0; i < 1000; i++) {
+            list.add(i * 3);
+            if (i > 0 && list.size() <= backing.length) assertSame(backing, list.array());
+            backing = list.array();
+        }
+        assertEquals(1000, list.size());
+        for (int i = 0; i < 1000; i++) assertEquals(i * 3, list.get(i));
+        assertEquals(2997, list.set(999, -1));
+        assertEquals(-1, list.get(999));
+        list.trimToSize();
+        assertEquals(1000, list.array().length);
+        list.clear();
+        assertTrue(list.isEmpty());
+        list.trimToSize();
+        assertEquals(0, list.array().length);
+        IntList presized = new IntList(64);
+        presized.ensureCapacity(10);
+        assertEquals(64, presized.array().length);
+        presized.ensureCapacity(100);
+        assertEquals(100, presized.array().length);
+        try {
+            list.get(0);
+            fail("Reading past the size should throw");
+        } catch (IndexOutOfBoundsException e) {
+            assertEquals("Index: 0, Size: 0", e.getMessage());
+        }
+        try {
+            new IntList(-1);
+            fail("A negative capacity should throw");
+        } catch (IllegalArgumentException e) {
+            assertEquals(IntList.ERROR_CAPACITY, e.getMessage());
+        }
+    }
+
+    /**
+     * Tests whether arrays, ranges of arrays and lists, including the list itself, are appended.
+     */
+    @Test
+    public void shouldAddAll() {
+        IntList list = IntList.of(1, 2);
+        list.addAll(new int[]{3, 4, 5}, 1, 2);
+        list.addAll(new int[0]);
+        assertArrayEquals(new int[]{1, 2, 4, 5}, list.toArray());
+        list.addAll(list);
+        assertArrayEquals(new int[]{1, 2, 4, 5, 1, 2, 4, 5}, list.toArray());
+        try {
+            list.addAll(new int[3], 2, 2);
+            fail("Adding past the end of the array should throw");
+        } catch (IndexOutOfBoundsException e) {
+            assertEquals(8, list.size());
+        }
+    }
+
+    /**
+     * Tests whether sorting orders the values of the list only, like Arrays.sort.
+     */
+    @Test
+    public void shouldSort() {
+        IntList list = IntList.of(3, Integer.MAX_VALUE, 0, -1, Integer.MIN_VALUE, 3);
+        list.add(2);
+        list.ensureCapacity(100);
+        list.sort();
+        assertArrayEquals(new int[]{Integer.MIN_VALUE, -1, 0, 2, 3, 3, Integer.MAX_VALUE}, list.toArray());
+        assertEquals(0, list.array()[7]);
+    }
+
+    /**
+     * Tests whether equality and hash code depend on the values only, like those of a List of Integers.
+     */
+    @Test
+    public void shouldCompareValues() {
+        IntList list = IntList.of(1, Integer.MIN_VALUE, 3);
+        IntList other = new IntList(100);
+        other.addAll(new int[]{1, Integer.MIN_VALUE, 3});
+        assertEquals(list, other);
+        assertEquals(list.hashCode(), other.hashCode());
+        assertEquals(Arrays.asList(1, Integer.MIN_VALUE, 3).hashCode(), list.hashCode());
+        assertEquals("[1, " + Integer.MIN_VALUE + ", 3]", list.toString());
+        other.add(4);
+        assertNotEquals(list, other);
+        assertFalse(list.equals(Arrays.asList(1, Integer.MIN_VALUE, 3)));
+        assertEquals(new IntList(), new IntList(10));
+    }
+}
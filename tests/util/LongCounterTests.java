@@ -0,0 +1,66 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package util;
+
+import be.thibaulthelsmoortel.helsmoortelUtil.util.Counter.BoundPolicy;
+import be.thibaulthelsmoortel.helsmoortelUtil.util.Counter.Status;
+import be.thibaulthelsmoortel.helsmoortelUtil.util.LongCounter;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test case for LongCounter.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class LongCounterTests {
+
+    /**
+     * Tests wrapping within ranges that fit in a long.
+     */
+    @Test
+    public void shouldWrap() {
+        LongCounter counter = new LongCounter(8, 5, -10, 10, BoundPolicy.WRAP);
+        assertEquals(Status.WRAPPED, counter.tryIncrement());
+        assertEquals(-8, counter.getCount());
+        assertEquals(Status.WRAPPED, counter.tryDecrementBy(3));
+        assertEquals(10, counter.getCount());
+    }
+
+    /**
+     * Tests wrapping when the range or the result do not fit in a long, which falls back to BigInteger.
+     */
+    @Test
+    public void shouldWrapBeyondLongRange() {
+        LongCounter full = new LongCounter(Long.MAX_VALUE - 1, 1, Long.MIN_VALUE, Long.MAX_VALUE, BoundPolicy.WRAP);
+        assertEquals(Status.WRAPPED, full.tryIncrementBy(3));
+        assertEquals(Long.MIN_VALUE + 1, full.getCount());
+        assertEquals(Status.WRAPPED, full.tryDecrementBy(2));
+        assertEquals(Long.MAX_VALUE, full.getCount());
+
+        //Range of Long.MAX_VALUE + 11 values, the result exceeding Long.MAX_VALUE by 4
+        LongCounter wide = new LongCounter(Long.MAX_VALUE - 1, 1, -10, Long.MAX_VALUE, BoundPolicy.WRAP);
+        assertEquals(Status.WRAPPED, wide.tryIncrementBy(5));
+        assertEquals(-7, wide.getCount());
+        assertEquals(Status.WRAPPED, wide.tryDecrementBy(Long.MAX_VALUE));
+        assertEquals(4, wide.getCount());
+    }
+
+    /**
+     * Tests saturation when the update overflows the range of long values.
+     */
+    @Test
+    public void shouldSaturateOnOverflow() {
+        LongCounter counter = new LongCounter(0, 1, Long.MIN_VALUE, Long.MAX_VALUE, BoundPolicy.SATURATE);
+        counter.incrementBy(Long.MAX_VALUE);
+        assertEquals(Status.SATURATED, counter.tryIncrement());
+        assertEquals(Long.MAX_VALUE, counter.getCount());
+        counter.resetTo(-5);
+        assertEquals(Status.SATURATED, counter.tryDecrementBy(Long.MAX_VALUE));
+        assertEquals(Long.MIN_VALUE, counter.getCount());
+    }
+}
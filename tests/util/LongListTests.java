@@ -0,0 +1,119 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package util;
+
+import be.thibaulthelsmoortel.helsmoortelUtil.util.LongList;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test case for LongList.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class LongListTests {
+
+    /**
+     * Tests whether the list keeps its values while growing, only replacing the backing array when full.
+     */
+    @Test
+    public void shouldGrow() {
+        LongList list = new LongList();
+        assertTrue(list.isEmpty());
+        long[] backing = null;
+        for (int i = 0; i < 1000; i++) {
+            list.add(i * 3L);
+            if (i > 0 && list.size() <= backing.length) assertSame(backing, list.array());
+            backing = list.array();
+        }
+        assertEquals(1000, list.size());
+        for (int i = 0; i < 1000; i++) assertEquals(i * 3L, list.get(i));
+        assertEquals(2997, list.set(999, -1));
+        assertEquals(-1, list.get(999));
+        list.trimToSize();
+        assertEquals(1000, list.array().length);
+        list.clear();
+        assertTrue(list.isEmpty());
+        list.trimToSize();
+        assertEquals(0, list.array().length);
+        LongList presized = new LongList(64);
+        presized.ensureCapacity(10);
+        assertEquals(64, presized.array().length);
+        presized.ensureCapacity(100);
+        assertEquals(100, presized.array().length);
+        try {
+            list.get(0);
+            fail("Reading past the size should throw");
+        } catch (IndexOutOfBoundsException e) {
+            assertEquals("Index: 0, Size: 0", e.getMessage());
+        }
+        try {
+            new LongList(-1);
+            fail("A negative capacity should throw");
+        } catch (IllegalArgumentException e) {
+            assertEquals(LongList.ERROR_CAPACITY, e.getMessage());
+        }
+    }
+
+    /**
+     * Tests whether arrays, ranges of arrays and lists, including the list itself, are appended.
+     */
+    @Test
+    public void shouldAddAll() {
+        LongList list = LongList.of(1, 2);
+        list.addAll(new long[]{3, 4, 5}, 1, 2);
+        list.addAll(new long[0]);
+        assertArrayEquals(new long[]{1, 2, 4, 5}, list.toArray());
+        list.addAll(list);
+        assertArrayEquals(new long[]{1, 2, 4, 5, 1, 2, 4, 5}, list.toArray());
+        try {
+            list.addAll(new long[3], 2, 2);
+            fail("Adding past the end of the array should throw");
+        } catch (IndexOutOfBoundsException e) {
+            assertEquals(8, list.size());
+        }
+    }
+
+    /**
+     * Tests whether sorting orders the values of the list only, like Arrays.sort.
+     */
+    @Test
+    public void shouldSort() {
+        LongList list = LongList.of(3, Long.MAX_VALUE, 0, -1, Long.MIN_VALUE, 3);
+        list.add(2);
+        list.ensureCapacity(100);
+        list.sort();
+        assertArrayEquals(new long[]{Long.MIN_VALUE, -1, 0, 2, 3, 3, Long.MAX_VALUE}, list.toArray());
+        assertEquals(0, list.array()[7]);
+    }
+
+    /**
+     * Tests whether equality and hash code depend on the values only, like those of a List of Longs.
+     */
+    @Test
+    public void shouldCompareValues() {
+        LongList list = LongList.of(1, Long.MIN_VALUE, 3);
+        LongList other = new LongList(100);
+        other.addAll(new long[]{1, Long.MIN_VALUE, 3});
+        assertEquals(list, other);
+        assertEquals(list.hashCode(), other.hashCode());
+        assertEquals(Arrays.asList(1L, Long.MIN_VALUE, 3L).hashCode(), list.hashCode());
+        assertEquals("[1, " + Long.MIN_VALUE + ", 3]", list.toString());
+        other.add(4);
+        assertNotEquals(list, other);
+        assertFalse(list.equals(Arrays.asList(1L, Long.MIN_VALUE, 3L)));
+        assertEquals(new LongList(), new LongList(10));
+    }
+}
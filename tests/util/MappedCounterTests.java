@@ -0,0 +1,117 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package util;
+
+import be.thibaulthelsmoortel.helsmoortelUtil.util.MappedCounter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Test case for MappedCounter.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class MappedCounterTests {
+
+    private Path directory;
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("mappedCounter");
+        file = directory.resolve("counter");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.delete(directory);
+    }
+
+    /**
+     * Tests whether the count and settings survive closing and reopening the file.
+     *
+     * @throws IOException when the file cannot be used
+     */
+    @Test
+    public void shouldKeepCountWhenReopened() throws IOException {
+        try (MappedCounter counter = MappedCounter.open(file, 5, 2, 0, 100)) {
+            counter.increment();
+            counter.incrementBy(10);
+            assertEquals(17, counter.getCount());
+        }
+        assertEquals(MappedCounter.FILE_SIZE, Files.size(file));
+        try (MappedCounter counter = MappedCounter.open(file, 0, 1, -1, 1)) {
+            assertEquals(17, counter.getCount());
+            assertEquals(2, counter.getHop());
+            assertEquals(100, counter.getMaxVal());
+            counter.reset();
+        }
+        try (MappedCounter counter = MappedCounter.open(file)) {
+            assertEquals(5, counter.getCount());
+        }
+    }
+
+    /**
+     * Tests whether a file left zero-filled by an interrupted creation is created anew.
+     *
+     * @throws IOException when the file cannot be used
+     */
+    @Test
+    public void shouldRecoverUnfinishedFile() throws IOException {
+        Files.write(file, new byte[MappedCounter.FILE_SIZE]);
+        try (MappedCounter counter = MappedCounter.open(file, 3, 1, 0, 10)) {
+            assertEquals(3, counter.getCount());
+            assertEquals(10, counter.getMaxVal());
+        }
+    }
+
+    /**
+     * Tests whether files that do not hold a counter are rejected.
+     *
+     * @throws IOException when the file cannot be used
+     */
+    @Test
+    public void shouldRejectMissingOrCorruptFiles() throws IOException {
+        try {
+            MappedCounter.open(file);
+            fail("A missing file should not be created");
+        } catch (NoSuchFileException e) {
+            assertEquals(false, Files.exists(file));
+        }
+        byte[] content = new byte[MappedCounter.FILE_SIZE];
+        content[0] = 1;
+        Files.write(file, content);
+        try {
+            MappedCounter.open(file);
+            fail("A corrupt file should be rejected");
+        } catch (IOException e) {
+            assertEquals(MappedCounter.ERROR_CORRUPT, e.getMessage());
+        }
+    }
+
+    /**
+     * Tests whether a closed counter can no longer be updated.
+     *
+     * @throws IOException when the file cannot be used
+     */
+    @Test(expected = IllegalStateException.class)
+    public void shouldRejectUpdatesWhenClosed() throws IOException {
+        MappedCounter counter = MappedCounter.open(file, 0, 1, 0, 10);
+        counter.close();
+        counter.close();
+        counter.increment();
+    }
+}
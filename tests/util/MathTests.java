@@ -0,0 +1,240 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package util;
+
+import be.thibaulthelsmoortel.helsmoortelUtil.util.Math;
+import be.thibaulthelsmoortel.helsmoortelUtil.util.PrimeSieve;
+import be.thibaulthelsmoortel.helsmoortelUtil.util.RandomSource;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test case for Math.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class MathTests {
+
+    /**
+     * Tests whether the binary greatest common divisor matches the one of BigInteger.
+     */
+    @Test
+    public void shouldComputeGreatestCommonDivisor() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            long a = random.nextLong() >> random.nextInt(64), b = random.nextLong() >> random.nextInt(64);
+            long expected = BigInteger.valueOf(a).gcd(BigInteger.valueOf(b)).longValue();
+            assertEquals(expected, Math.greatestCommonDivisor(a, b));
+            int c = (int) a, d = (int) b;
+            assertEquals(BigInteger.valueOf(c).gcd(BigInteger.valueOf(d)).intValue(), Math.greatestCommonDivisor(c, d));
+        }
+        assertEquals(6, Math.greatestCommonDivisor(-12, 18));
+        assertEquals(5, Math.greatestCommonDivisor(0, -5));
+        assertEquals(1 << 30, Math.greatestCommonDivisor(Integer.MIN_VALUE, 1 << 30));
+        assertEquals(4, Math.greatestCommonDivisor(new int[]{8, 12, -20}));
+        assertEquals(0, Math.greatestCommonDivisor(new long[0]));
+    }
+
+    /**
+     * Tests the least common multiple and its overflow detection.
+     */
+    @Test
+    public void shouldComputeLeastCommonMultiple() {
+        assertEquals(36, Math.leastCommonMultiple(-12, 18));
+        assertEquals(0, Math.leastCommonMultiple(0, 7));
+        assertEquals(60, Math.leastCommonMultiple(new long[]{3, 4, 5, 6}));
+        assertEquals(BigInteger.valueOf(36), Math.leastCommonMultiple(BigInteger.valueOf(12), BigInteger.valueOf(-18)));
+    }
+
+    /**
+     * Tests whether a least common multiple too large for an int is detected.
+     */
+    @Test(expected = ArithmeticException.class)
+    public void shouldDetectOverflow() {
+        Math.leastCommonMultiple(65537, 65539);
+    }
+
+    /**
+     * Tests the Miller-Rabin test against trial division and large known primes and pseudoprimes.
+     */
+    @Test
+    public void shouldTestPrimality() {
+        for (long n = -5; n < 10000; n++) {
+            boolean prime = n > 1;
+            for (long d = 2; d * d <= n && prime; d++) {
+                prime = n % d != 0;
+            }
+            assertEquals(prime, Math.isPrime(n));
+        }
+        assertTrue(Math.isPrime(Long.MAX_VALUE - 24));
+        assertTrue(Math.isPrime((1L << 61) - 1));
+        assertFalse(Math.isPrime(Long.MAX_VALUE));
+        assertFalse(Math.isPrime(3215031751L));
+        assertFalse(Math.isPrime(3825123056546413051L));
+        assertFalse(Math.isPrime(1000000007L * 1000000009L));
+    }
+
+    /**
+     * Tests the sieve over ranges spanning several segments.
+     */
+    @Test
+    public void shouldSievePrimes() {
+        assertEquals(78498, Math.countPrimes(0, 1000000));
+        assertEquals(0, Math.countPrimes(0, 1));
+        assertEquals(1, Math.countPrimes(2, 2));
+        long from = 999999000000L, to = from + 3000000, count = 0, previous = from - 1;
+        PrimitiveIterator.OfLong primes = Math.primes(from, to);
+        while (primes.hasNext()) {
+            long prime = primes.nextLong();
+            assertTrue(prime > previous && prime <= to && Math.isPrime(prime));
+            previous = prime;
+            count++;
+        }
+        assertEquals(count, Math.countPrimes(from, to));
+        PrimeSieve sieve = PrimeSieve.of(from, to);
+        assertEquals(count, sieve.count());
+        for (long n = from; n <= from + 10000; n++) {
+            assertEquals(Math.isPrime(n), sieve.isPrime(n));
+        }
+
+        //Small ranges, squares of primes and the highest range, where the base primes are largest
+        int expected = 0;
+        for (int n = 0; n <= 300; n++) {
+            if (Math.isPrime(n)) expected++;
+            assertEquals(expected, Math.countPrimes(0, n));
+        }
+        long square = 1000003L * 1000003L, highest = 1L << 50;
+        for (long[] range : new long[][]{{square - 1000, square}, {square, square + 1000}, {highest - 2000, highest}}) {
+            expected = 0;
+            for (long n = range[0]; n <= range[1]; n++) {
+                if (Math.isPrime(n)) expected++;
+            }
+            assertEquals(expected, Math.countPrimes(range[0], range[1]));
+            assertEquals(expected, PrimeSieve.of(range[0], range[1]).count());
+        }
+        try {
+            Math.countPrimes(0, highest + 1);
+            fail("A range beyond 2^50 should throw");
+        } catch (IllegalArgumentException e) {
+            assertEquals(PrimeSieve.ERROR_RANGE, e.getMessage());
+        }
+    }
+
+    /**
+     * Tests the array overloads against their scalar counterparts.
+     */
+    @Test
+    public void shouldComputeElementWise() {
+        double[] a = {1.5, -2, 0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, 3};
+        double[] b = {2, 1, 0, 7, 1, Double.POSITIVE_INFINITY, 3};
+        double[] out = new double[a.length];
+        Math.difference(a, b, out);
+        for (int i = 0; i < a.length; i++) {
+            assertEquals(Math.difference(a[i], b[i]), out[i], 0);
+        }
+        Math.bodyMassIndex(a, b, out, false);
+        for (int i = 0; i < a.length; i++) {
+            assertEquals(Math.bodyMassIndex(a[i], b[i], false), out[i], 1e-12);
+        }
+        double[] values = new double[130];
+        int[] ints = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 3 == 0 ? -i : i;
+            ints[i] = (int) values[i];
+        }
+        long[] positive = new long[3], negative = {-1, -1, -1}, intPositive = new long[3];
+        Math.isPositive(values, positive);
+        Math.isNegative(values, negative);
+        Math.isPositive(ints, intPositive);
+        for (int i = 0; i < 192; i++) {
+            boolean bit = (positive[i / 64] & (1L << i)) != 0;
+            assertEquals(i < values.length && Math.isPositive(values[i]), bit);
+            assertEquals(i < values.length && Math.isNegative(values[i]), (negative[i / 64] & (1L << i)) != 0);
+            assertEquals(bit, (intPositive[i / 64] & (1L << i)) != 0);
+        }
+        long[] proportion = new long[1];
+        Math.isProportion(new int[]{1, 1, 2}, new int[]{2, 3, 4}, new int[]{2, 2, 3}, new int[]{4, 4, 6}, proportion);
+        assertEquals(0b101, proportion[0]);
+    }
+
+    /**
+     * Tests whether arrays of different lengths are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectDifferentLengths() {
+        Math.difference(new double[2], new double[3], new double[2]);
+    }
+
+    /**
+     * Tests whether random values lie from the lower bound (inclusive) up to the upper bound (exclusive).
+     */
+    @Test
+    public void shouldDrawRandomBetweenBounds() {
+        for (int i = 0; i < 10000; i++) {
+            double value = Math.randomBetween(-3, 5);
+            assertTrue(value >= -3 && value < 5);
+            value = Math.randomBetween(10.5, 10.75);
+            assertTrue(value >= 10.5 && value < 10.75);
+            value = Math.randomBetween(1.0, java.lang.Math.nextUp(1.0));
+            assertEquals(1.0, value, 0);
+            value = Math.randomBetween(-Double.MAX_VALUE, Double.MAX_VALUE);
+            assertTrue(value >= -Double.MAX_VALUE && value < Double.MAX_VALUE);
+        }
+        assertEquals(4, Math.randomBetween(4, 4), 0);
+        try {
+            Math.randomBetween(5, 4);
+            fail("A lower bound above the upper bound should throw");
+        } catch (IllegalArgumentException e) {
+            assertEquals(RandomSource.ERROR_BOUNDS, e.getMessage());
+        }
+    }
+
+    /**
+     * Tests factorials and binomial coefficients against products of BigIntegers, and their overflow detection.
+     */
+    @Test
+    public void shouldComputeCombinatorics() {
+        BigInteger[] factorials = new BigInteger[200];
+        factorials[0] = BigInteger.ONE;
+        for (int i = 1; i < factorials.length; i++) {
+            factorials[i] = factorials[i - 1].multiply(BigInteger.valueOf(i));
+        }
+        for (int n = 0; n < factorials.length; n++) {
+            assertEquals(factorials[n], Math.factorialAsBigInteger(n));
+            assertEquals(factorials[n].doubleValue(), Math.factorialAsDouble(n), 0);
+            for (int k = 0; k <= n; k++) {
+                BigInteger binomial = factorials[n].divide(factorials[k].multiply(factorials[n - k]));
+                assertEquals(binomial, Math.binomialAsBigInteger(n, k));
+                double accuracy = n <= 170 ? 1e-14 : 1e-11;
+                assertEquals(binomial.doubleValue(), Math.binomialAsDouble(n, k), binomial.doubleValue() * accuracy);
+                if (binomial.bitLength() < 64) assertEquals(binomial.longValue(), Math.binomial(n, k));
+            }
+        }
+        assertEquals(2432902008176640000L, Math.factorial(20));
+        assertEquals(0, Math.binomial(5, 6));
+        assertEquals(java.lang.Math.log(Math.factorialAsDouble(170)) + java.lang.Math.log(171), Math.logFactorial(171),
+                1e-12);
+        assertEquals(1260, Math.multinomial(2, 3, 4));
+        assertEquals(BigInteger.valueOf(1260), Math.multinomialAsBigInteger(4, 3, 2));
+        assertEquals(factorials[150].divide(factorials[50].pow(3)), Math.multinomialAsBigInteger(50, 50, 50));
+    }
+
+    /**
+     * Tests whether a binomial coefficient too large for a long is detected.
+     */
+    @Test(expected = ArithmeticException.class)
+    public void shouldDetectBinomialOverflow() {
+        Math.binomial(68, 34);
+    }
+}
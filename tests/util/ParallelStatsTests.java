@@ -0,0 +1,146 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package util;
+
+import be.thibaulthelsmoortel.helsmoortelUtil.util.ParallelStats;
+import be.thibaulthelsmoortel.helsmoortelUtil.util.Stats;
+import be.thibaulthelsmoortel.helsmoortelUtil.util.StatsAccumulator;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test case for ParallelStats.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class ParallelStatsTests {
+
+    private static final double DELTA = 1e-9;
+    private static final int THRESHOLD = 1000;
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+    //Empty, single, below, at and well above the threshold, and not a multiple of it
+    private static final int[] LENGTHS = {0, 1, THRESHOLD - 1, THRESHOLD, 100003};
+
+    @AfterClass
+    public static void shutdown() {
+        POOL.shutdown();
+    }
+
+    /**
+     * Tests whether the statistics of double arrays match the sequential ones, below and above the threshold.
+     */
+    @Test
+    public void shouldMatchSequentialDoubles() {
+        Random random = new Random(42);
+        ParallelStats parallel = new ParallelStats(POOL, THRESHOLD);
+        for (int length : LENGTHS) {
+            double[] a = new double[length];
+            for (int i = 0; i < length; i++) a[i] = random.nextDouble() * 50 - 20;
+            assertEquals(Stats.max(a), parallel.max(a), 0);
+            assertEquals(Stats.min(a), parallel.min(a), 0);
+            assertClose(Stats.sum(a), parallel.sum(a));
+            assertClose(Stats.mean(a), parallel.mean(a));
+            assertClose(Stats.var(a), parallel.var(a));
+            assertClose(Stats.varp(a), parallel.varp(a));
+            assertClose(Stats.stddev(a), parallel.stddev(a));
+            assertClose(Stats.stddevp(a), parallel.stddevp(a));
+            StatsAccumulator accumulator = parallel.accumulate(a);
+            assertEquals(length, accumulator.count());
+            assertClose(Stats.sum(a), accumulator.sum());
+            if (length == 0) continue;
+            int lo = length / 3, hi = length - 1 - length / 5;
+            assertEquals(Stats.max(a, lo, hi), parallel.max(a, lo, hi), 0);
+            assertEquals(Stats.min(a, lo, hi), parallel.min(a, lo, hi), 0);
+            assertClose(Stats.sum(a, lo, hi), parallel.sum(a, lo, hi));
+            assertClose(Stats.mean(a, lo, hi), parallel.mean(a, lo, hi));
+            assertClose(Stats.varp(a, lo, hi), parallel.varp(a, lo, hi));
+            assertEquals(hi - lo + 1, parallel.accumulate(a, lo, hi).count());
+            assertEquals(a[lo], parallel.max(a, lo, lo), 0);
+        }
+    }
+
+    /**
+     * Tests whether the statistics of int arrays match the sequential ones, with sums wrapping the same way.
+     */
+    @Test
+    public void shouldMatchSequentialInts() {
+        Random random = new Random(7);
+        ParallelStats parallel = new ParallelStats(POOL, THRESHOLD);
+        for (int length : LENGTHS) {
+            int[] a = new int[length];
+            for (int i = 0; i < length; i++) a[i] = random.nextInt();
+            assertEquals(Stats.max(a), parallel.max(a));
+            assertEquals(Stats.min(a), parallel.min(a));
+            assertEquals(Stats.sum(a), parallel.sum(a));
+            assertClose(Stats.mean(a), parallel.mean(a));
+            assertClose(Stats.var(a), parallel.var(a));
+            assertClose(Stats.stddev(a), parallel.stddev(a));
+            assertEquals(length, parallel.accumulate(a).count());
+        }
+    }
+
+    /**
+     * Tests whether a NaN anywhere in a large array reaches the result.
+     */
+    @Test
+    public void shouldPropagateNaN() {
+        ParallelStats parallel = new ParallelStats(POOL, THRESHOLD);
+        double[] a = new double[100000];
+        a[77777] = Double.NaN;
+        assertTrue(Double.isNaN(parallel.max(a)));
+        assertTrue(Double.isNaN(parallel.min(a)));
+        assertTrue(Double.isNaN(parallel.sum(a)));
+        assertTrue(Double.isNaN(parallel.var(a)));
+        assertEquals(0, parallel.max(a, 0, 77776), 0);
+    }
+
+    /**
+     * Tests whether the shared instance uses the default threshold and computes the same statistics.
+     */
+    @Test
+    public void shouldOfferCommonPoolInstance() {
+        ParallelStats parallel = Stats.parallel();
+        assertSame(parallel, Stats.parallel());
+        assertEquals(ParallelStats.DEFAULT_THRESHOLD, parallel.getThreshold());
+        double[] a = new double[3 * ParallelStats.DEFAULT_THRESHOLD + 17];
+        for (int i = 0; i < a.length; i++) a[i] = i % 1000;
+        assertClose(Stats.mean(a), parallel.mean(a));
+        assertClose(Stats.var(a), parallel.var(a));
+        assertEquals(999, parallel.max(a), 0);
+    }
+
+    /**
+     * Tests whether invalid thresholds and indices are rejected.
+     */
+    @Test
+    public void shouldRejectInvalidArguments() {
+        try {
+            new ParallelStats(POOL, 0);
+            fail("A threshold of 0 should throw");
+        } catch (IllegalArgumentException e) {
+            assertEquals(ParallelStats.ERROR_THRESHOLD, e.getMessage());
+        }
+        ParallelStats parallel = new ParallelStats(POOL, THRESHOLD);
+        try {
+            parallel.sum(new double[10], 5, 10);
+            fail("Indices beyond the array should throw");
+        } catch (RuntimeException e) {
+            assertEquals("Subarray indices out of bounds", e.getMessage());
+        }
+    }
+
+    private static void assertClose(double expected, double actual) {
+        assertEquals(expected, actual, DELTA * (1 + java.lang.Math.abs(expected)));
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package util;
+
+import be.thibaulthelsmoortel.helsmoortelUtil.util.QuantileSketch;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test case for QuantileSketch.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class QuantileSketchTests {
+
+    /**
+     * Tests whether the estimated quantiles stay within the relative accuracy of the exact ones.
+     */
+    @Test
+    public void shouldStayWithinRelativeAccuracy() {
+        Random random = new Random(42);
+        double[] a = new double[100000];
+        for (int i = 0; i < a.length; i++) a[i] = java.lang.Math.exp(random.nextGaussian() * 3);
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.addAll(a);
+        Arrays.sort(a);
+        for (double q : new double[]{0.0, 0.01, 0.25, 0.5, 0.9, 0.99, 0.999, 1.0}) {
+            double exact = a[(int) java.lang.Math.floor(q * (a.length - 1))];
+            assertEquals(exact, sketch.quantile(q), exact * sketch.getRelativeAccuracy());
+        }
+    }
+
+    /**
+     * Tests whether merged and deserialized sketches give the same quantiles.
+     */
+    @Test
+    public void shouldMergeAndSerialize() {
+        QuantileSketch all = new QuantileSketch(), low = new QuantileSketch(), high = new QuantileSketch();
+        for (int i = -500; i < 1000; i++) {
+            all.add(i);
+            if (i < 250) low.add(i);
+            else high.add(i);
+        }
+        low.merge(high);
+        QuantileSketch copy = QuantileSketch.fromByteArray(low.toByteArray());
+        assertEquals(all.count(), copy.count());
+        assertTrue(low.toByteArray().length < 3000);
+        for (double q = 0; q <= 1; q += 0.05) {
+            assertEquals(all.quantile(q), low.quantile(q), 0);
+            assertEquals(all.quantile(q), copy.quantile(q), 0);
+        }
+    }
+
+    /**
+     * Tests whether collapsing buckets keeps the highest quantiles accurate.
+     */
+    @Test
+    public void shouldCollapseLowestBuckets() {
+        QuantileSketch sketch = new QuantileSketch(0.01, 64);
+        for (int i = 1; i <= 1000000; i *= 10) {
+            for (int j = 0; j < 10; j++) sketch.add(i + j);
+        }
+        assertEquals(1000009, sketch.quantile(1), 0);
+        assertEquals(1000000, sketch.quantile(0.95), 1000000 * 0.01);
+        assertEquals(1, sketch.quantile(0), 0);
+    }
+
+    /**
+     * Tests whether infinite values and too fine accuracies are rejected, leaving the sketch usable.
+     */
+    @Test
+    public void shouldRejectInfiniteValues() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(Double.MAX_VALUE);
+        sketch.add(-Double.MAX_VALUE);
+        for (double value : new double[]{Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NaN}) {
+            try {
+                sketch.add(value);
+                fail("Adding " + value + " should throw");
+            } catch (IllegalArgumentException e) {
+                assertEquals(QuantileSketch.ERROR_VALUE, e.getMessage());
+            }
+        }
+        assertEquals(2, sketch.count());
+        QuantileSketch copy = QuantileSketch.fromByteArray(sketch.toByteArray());
+        copy.merge(sketch);
+        assertEquals(4, copy.count());
+        assertEquals(Double.MAX_VALUE, copy.quantile(1), Double.MAX_VALUE * 0.01);
+        assertEquals(-Double.MAX_VALUE, copy.quantile(0), Double.MAX_VALUE * 0.01);
+
+        QuantileSketch fine = new QuantileSketch(1e-6, 16);
+        fine.add(Double.MAX_VALUE);
+        fine.add(Double.MIN_NORMAL * 2);
+        assertEquals(2, QuantileSketch.fromByteArray(fine.toByteArray()).count());
+        try {
+            new QuantileSketch(1e-9, 16);
+            fail("Too fine an accuracy should throw");
+        } catch (IllegalArgumentException e) {
+            assertEquals(QuantileSketch.ERROR_ACCURACY, e.getMessage());
+        }
+    }
+}
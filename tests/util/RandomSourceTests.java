@@ -0,0 +1,129 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package util;
+
+import be.thibaulthelsmoortel.helsmoortelUtil.util.RandomSource;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test case for RandomSource.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class RandomSourceTests {
+
+    /**
+     * Tests whether sources with the same seed, and sources split from them, give the same numbers.
+     */
+    @Test
+    public void shouldReproduceSeededSources() {
+        RandomSource first = RandomSource.seeded(42), second = RandomSource.seeded(42);
+        assertArrayEquals(draw(first), draw(second), 0);
+        RandomSource firstSplit = first.split(), secondSplit = second.split();
+        assertArrayEquals(draw(firstSplit), draw(secondSplit), 0);
+        //Splitting does not leave the parents out of step either
+        assertArrayEquals(draw(first), draw(second), 0);
+        assertFalse(Arrays.equals(draw(first.split()), draw(first)));
+        assertFalse(Arrays.equals(draw(RandomSource.seeded(43)), draw(RandomSource.seeded(42))));
+    }
+
+    /**
+     * Tests whether every value lies from the lower bound (inclusive) up to the upper bound (exclusive), also for
+     * ranges of a single value and ranges wider than the largest double.
+     */
+    @Test
+    public void shouldStayWithinBounds() {
+        RandomSource source = RandomSource.seeded(7);
+        double[][] ranges = {{0, 1}, {-5, 5}, {1, java.lang.Math.nextUp(1.0)}, {1e300, 1e301},
+                {-Double.MAX_VALUE, Double.MAX_VALUE}, {-1e-300, -Double.MIN_VALUE}};
+        double[] out = new double[1000];
+        for (double[] range : ranges) {
+            source.fill(out, range[0], range[1]);
+            for (double value : out) {
+                assertTrue(value >= range[0] && value < range[1]);
+                double single = source.nextDouble(range[0], range[1]);
+                assertTrue(single >= range[0] && single < range[1]);
+            }
+        }
+        //The widest range should be spread out, not stuck at one of its bounds
+        source.fill(out, -Double.MAX_VALUE, Double.MAX_VALUE);
+        Arrays.sort(out);
+        assertTrue(out[100] < -1e307 && out[900] > 1e307);
+        int[][] intRanges = {{0, 1}, {-3, 3}, {Integer.MIN_VALUE, Integer.MAX_VALUE}};
+        int[] ints = new int[1000];
+        for (int[] range : intRanges) {
+            source.ints(ints, range[0], range[1]);
+            for (int value : ints) {
+                assertTrue(value >= range[0] && value < range[1]);
+                int single = source.nextInt(range[0], range[1]);
+                assertTrue(single >= range[0] && single < range[1]);
+            }
+        }
+        source.ints(ints, 3);
+        for (int value : ints) assertTrue(value >= 0 && value < 3);
+        source.fill(out);
+        for (double value : out) assertTrue(value >= 0 && value < 1);
+        try {
+            source.nextDouble(1, 1);
+            fail("Equal bounds should throw");
+        } catch (IllegalArgumentException e) {
+            assertEquals(RandomSource.ERROR_BOUNDS, e.getMessage());
+        }
+        try {
+            source.ints(ints, 0);
+            fail("A bound of 0 should throw");
+        } catch (IllegalArgumentException e) {
+            assertEquals(RandomSource.ERROR_BOUND, e.getMessage());
+        }
+    }
+
+    /**
+     * Tests whether every thread gets its own source.
+     *
+     * @throws Exception when the other thread fails
+     */
+    @Test
+    public void shouldKeepSourcePerThread() throws Exception {
+        RandomSource current = RandomSource.current();
+        assertSame(current, RandomSource.current());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<RandomSource> other = executor.submit(RandomSource::current);
+            assertNotSame(current, other.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static double[] draw(RandomSource source) {
+        double[] values = new double[20];
+        int[] ints = new int[4];
+        for (int i = 0; i < 4; i++) {
+            values[i] = source.nextDouble();
+            values[4 + i] = source.nextInt(1000);
+            values[8 + i] = source.nextLong();
+        }
+        source.ints(ints, -10, 10);
+        for (int i = 0; i < 4; i++) values[12 + i] = ints[i];
+        double[] filled = new double[4];
+        source.fill(filled, -1, 1);
+        System.arraycopy(filled, 0, values, 16, 4);
+        return values;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package util;
+
+import be.thibaulthelsmoortel.helsmoortelUtil.util.RollingStats;
+import be.thibaulthelsmoortel.helsmoortelUtil.util.Stats;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test case for RollingStats.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class RollingStatsTests {
+
+    private static final double DELTA = 1e-9;
+
+    /**
+     * Tests whether every statistic matches the one recomputed over the window, while values are evicted.
+     */
+    @Test
+    public void shouldMatchRecomputedWindow() {
+        Random random = new Random(42);
+        for (int window : new int[]{1, 2, 3, 7, 64}) {
+            double[] a = new double[1000];
+            for (int i = 0; i < a.length; i++) {
+                //Alternate noise, rising and falling runs and duplicates, which stress the min and max deques
+                switch ((i / 50) % 4) {
+                    case 0: a[i] = 1000 + random.nextGaussian() * 100; break;
+                    case 1: a[i] = i; break;
+                    case 2: a[i] = -i; break;
+                    default: a[i] = random.nextInt(3);
+                }
+            }
+            RollingStats stats = new RollingStats(window);
+            for (int i = 0; i < a.length; i++) {
+                stats.add(a[i]);
+                int lo = java.lang.Math.max(0, i - window + 1);
+                assertEquals(i - lo + 1, stats.count());
+                assertEquals(i + 1 >= window, stats.isFull());
+                assertEquals(Stats.min(a, lo, i), stats.min(), 0);
+                assertEquals(Stats.max(a, lo, i), stats.max(), 0);
+                assertClose(Stats.mean(a, lo, i), stats.mean());
+                assertClose(Stats.sum(a, lo, i), stats.sum());
+                assertClose(Stats.varp(a, lo, i), stats.varp());
+                if (i > lo) assertClose(Stats.var(a, lo, i), stats.var());
+            }
+            assertArrayEquals(expectedMeans(a, window), RollingStats.means(a, window), 1e-6);
+        }
+    }
+
+    /**
+     * Tests whether an infinite value stops affecting the statistics once it has left the window.
+     */
+    @Test
+    public void shouldRecoverFromInfiniteValues() {
+        RollingStats stats = new RollingStats(4);
+        stats.add(1);
+        stats.add(Double.POSITIVE_INFINITY);
+        assertEquals(Double.POSITIVE_INFINITY, stats.max(), 0);
+        assertEquals(1, stats.min(), 0);
+        for (int i = 0; i < 8; i++) stats.add(i);
+        assertEquals(7, stats.max(), 0);
+        assertEquals(4, stats.min(), 0);
+        assertEquals(5.5, stats.mean(), DELTA);
+        assertEquals(1.25, stats.varp(), DELTA);
+    }
+
+    /**
+     * Tests whether an empty window, also after a reset, has the documented statistics.
+     */
+    @Test
+    public void shouldResetWindow() {
+        RollingStats stats = new RollingStats(3);
+        for (int i = 0; i < 5; i++) stats.add(i);
+        stats.reset();
+        assertEquals(0, stats.count());
+        assertFalse(stats.isFull());
+        assertTrue(Double.isNaN(stats.mean()));
+        assertTrue(Double.isNaN(stats.var()));
+        assertEquals(Double.POSITIVE_INFINITY, stats.min(), 0);
+        assertEquals(Double.NEGATIVE_INFINITY, stats.max(), 0);
+        stats.add(5);
+        stats.add(2);
+        assertEquals(2, stats.min(), 0);
+        assertEquals(5, stats.max(), 0);
+        assertEquals(3.5, stats.mean(), DELTA);
+    }
+
+    private static void assertClose(double expected, double actual) {
+        assertEquals(expected, actual, DELTA * (1 + java.lang.Math.abs(expected)));
+    }
+
+    private static double[] expectedMeans(double[] a, int window) {
+        double[] means = new double[a.length];
+        for (int i = 0; i < a.length; i++) {
+            means[i] = Stats.mean(a, java.lang.Math.max(0, i - window + 1), i);
+        }
+        return means;
+    }
+}
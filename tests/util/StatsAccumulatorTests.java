@@ -0,0 +1,84 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package util;
+
+import be.thibaulthelsmoortel.helsmoortelUtil.util.ParallelStats;
+import be.thibaulthelsmoortel.helsmoortelUtil.util.Stats;
+import be.thibaulthelsmoortel.helsmoortelUtil.util.StatsAccumulator;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test case for StatsAccumulator.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class StatsAccumulatorTests {
+
+    private static final double DELTA = 1e-9;
+
+    /**
+     * Tests whether the single pass statistics match the ones of Stats.
+     */
+    @Test
+    public void shouldMatchStats() {
+        Random random = new Random(42);
+        double[] a = new double[10000];
+        for (int i = 0; i < a.length; i++) a[i] = random.nextGaussian() * 100 + 1e6;
+        StatsAccumulator accumulator = Stats.accumulate(a);
+        assertEquals(a.length, accumulator.count());
+        assertEquals(Stats.sum(a), accumulator.sum(), DELTA * a.length * 1e6);
+        assertEquals(Stats.mean(a), accumulator.mean(), 1e-6);
+        assertEquals(Stats.var(a), accumulator.var(), 1e-6);
+        assertEquals(Stats.varp(a), accumulator.varp(), 1e-6);
+        assertEquals(Stats.stddev(a), accumulator.stddev(), DELTA);
+        assertEquals(Stats.max(a), accumulator.max(), 0);
+        assertEquals(Stats.min(a), accumulator.min(), 0);
+
+        StatsAccumulator range = Stats.accumulate(a, 10, 99);
+        assertEquals(Stats.mean(a, 10, 99), range.mean(), 1e-6);
+        assertEquals(Stats.var(a, 10, 99), range.var(), 1e-6);
+    }
+
+    /**
+     * Tests whether NaN and empty inputs behave like Stats.
+     */
+    @Test
+    public void shouldHandleSpecialValues() {
+        StatsAccumulator accumulator = new StatsAccumulator();
+        assertTrue(Double.isNaN(accumulator.mean()));
+        assertEquals(Double.NEGATIVE_INFINITY, accumulator.max(), 0);
+        accumulator.addAll(new double[]{1, Double.NaN, 3});
+        assertTrue(Double.isNaN(accumulator.max()));
+        assertTrue(Double.isNaN(accumulator.min()));
+        accumulator.reset();
+        accumulator.addAll(new int[]{2, 4, 6});
+        assertEquals(4, accumulator.mean(), DELTA);
+        assertEquals(4, accumulator.var(), DELTA);
+    }
+
+    /**
+     * Tests whether statistics of merged chunks match the sequential ones.
+     */
+    @Test
+    public void shouldMergeChunks() {
+        Random random = new Random(7);
+        double[] a = new double[100000];
+        for (int i = 0; i < a.length; i++) a[i] = random.nextDouble() * 50 - 20;
+        ParallelStats parallel = new ParallelStats(ForkJoinPool.commonPool(), 1000);
+        assertEquals(Stats.var(a), parallel.var(a), 1e-9);
+        assertEquals(Stats.mean(a, 3, 77777), parallel.mean(a, 3, 77777), 1e-9);
+        assertEquals(Stats.max(a), parallel.max(a), 0);
+        assertEquals(Stats.min(a, 500, 60000), parallel.min(a, 500, 60000), 0);
+        a[4242] = Double.NaN;
+        assertTrue(Double.isNaN(parallel.max(a)));
+    }
+}
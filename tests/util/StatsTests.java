@@ -0,0 +1,317 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package util;
+
+import be.thibaulthelsmoortel.helsmoortelUtil.util.ParallelStats;
+import be.thibaulthelsmoortel.helsmoortelUtil.util.Stats;
+import be.thibaulthelsmoortel.helsmoortelUtil.util.StatsAccumulator;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Test case for Stats.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class StatsTests {
+
+    private static final double DELTA = 1e-12;
+
+    /**
+     * Tests whether selection matches sorting, also for many duplicates and sorted input.
+     */
+    @Test
+    public void shouldSelectLikeSorting() {
+        Random random = new Random(42);
+        for (int round = 0; round < 100; round++) {
+            double[] a = new double[1 + random.nextInt(1000)];
+            for (int i = 0; i < a.length; i++) {
+                a[i] = round % 3 == 0 ? random.nextGaussian() : round % 3 == 1 ? random.nextInt(3) : i;
+            }
+            double[] sorted = a.clone();
+            Arrays.sort(sorted);
+            int k = random.nextInt(a.length);
+            assertEquals(sorted[k], Stats.select(a.clone(), k), 0);
+        }
+    }
+
+    /**
+     * Tests the median, percentiles and trimmed mean of small arrays.
+     */
+    @Test
+    public void shouldComputePercentiles() {
+        double[] a = {5, 1, 4, 2, 3, 100};
+        double[] copy = a.clone();
+        assertEquals(3.5, Stats.median(a), DELTA);
+        assertEquals(1, Stats.percentile(a, 0), DELTA);
+        assertEquals(100, Stats.percentile(a, 100), DELTA);
+        assertEquals(4.5, Stats.percentile(a, 70), DELTA);
+        assertEquals(3.5, Stats.trimmedMean(a, 0.2), DELTA);
+        assertArrayEquals(copy, a, 0);
+        assertEquals(3, Stats.median(a, 0, 4), DELTA);
+        assertEquals(2, Stats.median(new int[]{3, 1, 2}), DELTA);
+        assertEquals(Double.NaN, Stats.median(new double[]{1, Double.NaN}), 0);
+        assertEquals(Double.NaN, Stats.median(new double[0]), 0);
+    }
+
+    /**
+     * Tests whether the wide and compensated sums avoid overflow and cancellation.
+     */
+    @Test
+    public void shouldSumWithoutLoss() {
+        int[] ints = {Integer.MAX_VALUE, Integer.MAX_VALUE, 2};
+        assertEquals(2L * Integer.MAX_VALUE + 2, Stats.longSum(ints));
+        assertEquals(Integer.MAX_VALUE, Stats.longSum(ints, 1, 1));
+        double[] doubles = {1e100, 1, 2, 3, 4, 5, -1e100};
+        assertEquals(15, Stats.sumCompensated(doubles), 0);
+        assertEquals(1e100, Stats.sumCompensated(doubles, 0, 5), 0);
+        double inf = Double.POSITIVE_INFINITY;
+        assertEquals(inf, Stats.sumCompensated(new double[]{inf}), 0);
+        assertEquals(-inf, Stats.sumCompensated(new double[]{1, 2, -inf, 3, 4, 5, 6}), 0);
+        assertEquals(inf, Stats.sumCompensated(new double[]{1e308, 1e308}), 0);
+        assertEquals(-inf, Stats.sumCompensated(new double[]{-1e308, 1, 2, 3, -1e308, 4, 5, 6}), 0);
+        assertEquals(inf, Stats.sumCompensated(new double[]{1e308, 1e308, 1, 2, 3}, 0, 3), 0);
+        assertEquals(Double.NaN, Stats.sumCompensated(new double[]{inf, -inf}), 0);
+        assertEquals(Double.NaN, Stats.sumCompensated(new double[]{1, 2, 3, 4, Double.NaN}), 0);
+    }
+
+    /**
+     * Tests whether the covariance and correlation matrices match a naive two-pass computation, for both layouts
+     * and in parallel, with correlations of constant columns being NaN.
+     */
+    @Test
+    public void shouldComputeCovarianceMatrices() {
+        Random random = new Random(42);
+        ParallelStats parallel = new ParallelStats(new ForkJoinPool(4), 64);
+        //Sizes around the row blocks and column tiles of the implementation
+        for (int[] size : new int[][]{{1, 1}, {2, 3}, {1000, 37}, {513, 16}, {300, 1}}) {
+            int n = size[0], p = size[1];
+            double[][] columns = new double[p][n];
+            double[] rows = new double[n * p];
+            for (int c = 0; c < p; c++) {
+                double offset = c % 5 == 0 ? 1e6 : 0;
+                for (int r = 0; r < n; r++) {
+                    if (c % 7 == 3) columns[c][r] = 0.1;
+                    else if (c > 0 && c % 2 == 0) columns[c][r] = columns[c - 1][r] * 2 + random.nextGaussian();
+                    else columns[c][r] = offset + random.nextGaussian() * (c + 1);
+                    rows[r * p + c] = columns[c][r];
+                }
+            }
+            double[] expected = naiveCovariances(columns);
+            double[][] covariances = {Stats.covarianceMatrix(columns), Stats.covarianceMatrix(rows, p),
+                    parallel.covarianceMatrix(columns), parallel.covarianceMatrix(rows, p)};
+            double[][] correlations = {Stats.correlationMatrix(columns), Stats.correlationMatrix(rows, p),
+                    parallel.correlationMatrix(columns), parallel.correlationMatrix(rows, p)};
+            for (int i = 0; i < p; i++) {
+                for (int j = 0; j < p; j++) {
+                    double scale = java.lang.Math.sqrt(expected[i * p + i] * expected[j * p + j]);
+                    boolean constant = n == 1 || i % 7 == 3 || j % 7 == 3;
+                    for (double[] covariance : covariances) {
+                        if (n == 1) assertEquals(Double.NaN, covariance[i * p + j], 0);
+                        else assertEquals(expected[i * p + j], covariance[i * p + j], 1e-9 * scale + 1e-15);
+                    }
+                    for (double[] correlation : correlations) {
+                        if (constant) assertEquals(Double.NaN, correlation[i * p + j], 0);
+                        else assertEquals(expected[i * p + j] / scale, correlation[i * p + j], 1e-9);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests whether buffer statistics cover the values from the position up to the limit, spanning several
+     * chunks, for heap and direct buffers, and leave the position unchanged.
+     */
+    @Test
+    public void shouldReadBuffersFromTheirPosition() {
+        Random random = new Random(42);
+        double[] a = new double[5000];
+        int[] ints = new int[a.length];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = random.nextGaussian() * 10;
+            ints[i] = random.nextInt(2001) - 1000;
+        }
+        //Extremes outside of the remaining values should be ignored
+        a[0] = ints[0] = 100000;
+        a[a.length - 1] = ints[a.length - 1] = -100000;
+        int lo = 7, hi = a.length - 3;
+        DoubleBuffer direct = ByteBuffer.allocateDirect(a.length * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                .asDoubleBuffer();
+        direct.put(a);
+        IntBuffer directInts = ByteBuffer.allocateDirect(ints.length * Integer.BYTES).asIntBuffer();
+        directInts.put(ints);
+        for (DoubleBuffer b : new DoubleBuffer[]{DoubleBuffer.wrap(a), direct}) {
+            b.limit(hi + 1).position(lo);
+            assertEquals(Stats.sum(a, lo, hi), Stats.sum(b), 1e-9);
+            assertEquals(Stats.mean(a, lo, hi), Stats.mean(b), DELTA);
+            assertEquals(Stats.var(a, lo, hi), Stats.var(b), 1e-9);
+            assertEquals(Stats.varp(a, lo, hi), Stats.varp(b), 1e-9);
+            assertEquals(Stats.max(a, lo, hi), Stats.max(b), 0);
+            assertEquals(Stats.min(a, lo, hi), Stats.min(b), 0);
+            assertEquals(hi - lo + 1, Stats.accumulate(b).count());
+            assertEquals(lo, b.position());
+            b.position(b.limit());
+            assertEquals(Double.NaN, Stats.mean(b), 0);
+            assertEquals(Double.NEGATIVE_INFINITY, Stats.max(b), 0);
+        }
+        long sum = 0;
+        int max = Integer.MIN_VALUE, min = Integer.MAX_VALUE;
+        for (int i = lo; i <= hi; i++) {
+            sum += ints[i];
+            max = java.lang.Math.max(max, ints[i]);
+            min = java.lang.Math.min(min, ints[i]);
+        }
+        for (IntBuffer b : new IntBuffer[]{IntBuffer.wrap(ints), directInts}) {
+            b.limit(hi + 1).position(lo);
+            assertEquals(sum, Stats.sum(b));
+            assertEquals((double) sum / (hi - lo + 1), Stats.mean(b), DELTA);
+            assertEquals(max, Stats.max(b));
+            assertEquals(min, Stats.min(b));
+            assertEquals(sum, Stats.longSum(b));
+            assertEquals(sum, Stats.accumulate(b).sum(), 0);
+            assertEquals(lo, b.position());
+        }
+        IntBuffer large = IntBuffer.wrap(new int[]{Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, 2, 7});
+        large.limit(4).position(1);
+        assertEquals(2L * Integer.MAX_VALUE + 2, Stats.longSum(large));
+        assertEquals(0, Stats.sum(large));
+        assertEquals(0, Stats.longSum(IntBuffer.allocate(0)));
+    }
+
+    /**
+     * Tests whether a file larger than a single mapped segment of 1 GB is read completely. The file is sparse,
+     * holding zeros apart from a few values around the end of the first segment.
+     *
+     * @throws IOException when the temporary file cannot be written
+     */
+    @Test
+    public void shouldAccumulateFileAcrossSegments() throws IOException {
+        Path path = Files.createTempFile("stats", ".bin");
+        try {
+            long size = (1L << 30) + 64;
+            try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+                file.setLength(size);
+                file.seek((1L << 30) - 8);
+                //Big-endian, the last value of the first segment and the first one of the second segment
+                file.writeDouble(5);
+                file.writeDouble(-3);
+                file.seek(size - 8);
+                file.writeDouble(0.5);
+            }
+            StatsAccumulator accumulator = Stats.accumulate(path, ByteOrder.BIG_ENDIAN);
+            assertEquals(size / Double.BYTES, accumulator.count());
+            assertEquals(2.5, accumulator.sum(), 0);
+            assertEquals(5, accumulator.max(), 0);
+            assertEquals(-3, accumulator.min(), 0);
+            assertEquals(2.5 / accumulator.count(), accumulator.mean(), DELTA);
+
+            try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+                file.setLength(12);
+            }
+            try {
+                Stats.accumulate(path, ByteOrder.BIG_ENDIAN);
+                fail("A partial double should throw");
+            } catch (IllegalArgumentException e) {
+                assertEquals(Stats.ERROR_FILE, e.getMessage());
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    /**
+     * Tests whether sum, max and min match plain loops for every length of the unrolled tail and every alignment
+     * of the subarray, with a NaN in the unrolled body or in the tail, and with infinities but no NaN.
+     */
+    @Test
+    public void shouldMatchPlainLoops() {
+        Random random = new Random(42);
+        for (int length = 0; length <= 11; length++) {
+            double[] a = new double[length];
+            //Integer values, so every order of summation is exact
+            for (int i = 0; i < length; i++) a[i] = random.nextInt(2001) - 1000;
+            checkPlainLoops(a);
+            for (int nan = 0; nan < length; nan++) {
+                double[] withNaN = a.clone();
+                withNaN[nan] = Double.NaN;
+                checkPlainLoops(withNaN);
+            }
+            if (length < 2) continue;
+            for (int position = 0; position < length; position++) {
+                if (position == length - 1 - position) continue;
+                double[] infinite = a.clone();
+                infinite[position] = Double.POSITIVE_INFINITY;
+                infinite[length - 1 - position] = Double.NEGATIVE_INFINITY;
+                checkPlainLoops(infinite);
+                assertEquals(Double.POSITIVE_INFINITY, Stats.max(infinite), 0);
+                assertEquals(Double.NEGATIVE_INFINITY, Stats.min(infinite), 0);
+            }
+        }
+        assertEquals(Double.POSITIVE_INFINITY, Stats.sum(new double[]{1, Double.POSITIVE_INFINITY, 2, 3, 4}), 0);
+    }
+
+    /**
+     * Checks the whole array and every subarray against plain loops.
+     */
+    private static void checkPlainLoops(double[] a) {
+        checkPlainLoops(a, 0, a.length - 1, Stats.sum(a), Stats.max(a), Stats.min(a));
+        for (int lo = 0; lo < a.length; lo++) {
+            for (int hi = lo; hi < a.length; hi++) {
+                checkPlainLoops(a, lo, hi, Stats.sum(a, lo, hi), Stats.max(a, lo, hi), Stats.min(a, lo, hi));
+            }
+        }
+    }
+
+    private static void checkPlainLoops(double[] a, int lo, int hi, double sum, double max, double min) {
+        double expectedSum = 0.0, expectedMax = Double.NEGATIVE_INFINITY, expectedMin = Double.POSITIVE_INFINITY;
+        boolean nan = false;
+        for (int i = lo; i <= hi; i++) {
+            expectedSum += a[i];
+            nan |= Double.isNaN(a[i]);
+            if (a[i] > expectedMax) expectedMax = a[i];
+            if (a[i] < expectedMin) expectedMin = a[i];
+        }
+        String range = Arrays.toString(a) + "[" + lo + ".." + hi + "]";
+        assertEquals(range, expectedSum, sum, 0);
+        assertEquals(range, nan ? Double.NaN : expectedMax, max, 0);
+        assertEquals(range, nan ? Double.NaN : expectedMin, min, 0);
+    }
+
+    private static double[] naiveCovariances(double[][] columns) {
+        int p = columns.length, n = columns[0].length;
+        double[] means = new double[p];
+        for (int c = 0; c < p; c++) {
+            for (double value : columns[c]) means[c] += value;
+            means[c] /= n;
+        }
+        double[] covariances = new double[p * p];
+        for (int i = 0; i < p; i++) {
+            for (int j = 0; j < p; j++) {
+                for (int r = 0; r < n; r++) {
+                    covariances[i * p + j] += (columns[i][r] - means[i]) * (columns[j][r] - means[j]);
+                }
+                covariances[i * p + j] /= n - 1;
+            }
+        }
+        return covariances;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package util;
+
+import be.thibaulthelsmoortel.helsmoortelUtil.util.StripedCounter;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test case for StripedCounter.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class StripedCounterTests {
+
+    private static final int THREADS = 8;
+    private static final int UPDATES = 50000;
+    private static final int MAX_VAL = 1000;
+
+    /**
+     * Tests whether the count equals the net accepted updates of threads mostly incrementing or mostly
+     * decrementing, and whether both bounds are enforced.
+     *
+     * @throws Exception when a worker thread fails
+     */
+    @Test
+    public void shouldKeepExactCountWithinBounds() throws Exception {
+        final StripedCounter counter = new StripedCounter(MAX_VAL / 2, 1, 0, MAX_VAL);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            futures.add(executor.submit(() -> {
+                SplittableRandom random = new SplittableRandom(thread);
+                //Net accepted change, rejected increments, rejected decrements
+                long[] result = new long[3];
+                start.await();
+                for (int i = 0; i < UPDATES; i++) {
+                    //The threads lean towards the maximum for a while, then towards the minimum
+                    boolean up = random.nextInt(10) < ((i / 5000) % 2 == 0 ? 7 : 3);
+                    int amount = 1 + random.nextInt(3);
+                    try {
+                        if (up) {
+                            counter.incrementBy(amount);
+                            result[0] += amount;
+                        } else {
+                            counter.decrementBy(amount);
+                            result[0] -= amount;
+                        }
+                    } catch (IllegalArgumentException e) {
+                        result[up ? 1 : 2]++;
+                    }
+                }
+                return result;
+            }));
+        }
+        start.countDown();
+        long net = 0, rejectedUp = 0, rejectedDown = 0;
+        for (Future<long[]> future : futures) {
+            long[] result = future.get();
+            net += result[0];
+            rejectedUp += result[1];
+            rejectedDown += result[2];
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(MAX_VAL / 2 + net, counter.getCount());
+        assertTrue(counter.getCount() >= 0 && counter.getCount() <= MAX_VAL);
+        assertTrue(rejectedUp > 0);
+        assertTrue(rejectedDown > 0);
+    }
+
+    /**
+     * Tests whether a reset restores the initial count and all permits.
+     */
+    @Test
+    public void shouldReset() {
+        StripedCounter counter = new StripedCounter(10, 5, 0, 100);
+        for (int i = 0; i < 18; i++) {
+            counter.increment();
+        }
+        assertEquals(100, counter.getCount());
+        counter.reset();
+        assertEquals(10, counter.getCount());
+        counter.incrementBy(90);
+        assertEquals(100, counter.getCount());
+        try {
+            counter.increment();
+            fail("Exceeding the maximum should throw");
+        } catch (IllegalArgumentException e) {
+            assertEquals(100, counter.getCount());
+        }
+        counter.reset();
+        counter.decrementBy(10);
+        assertEquals(0, counter.getCount());
+        try {
+            counter.decrement();
+            fail("Exceeding the minimum should throw");
+        } catch (IllegalArgumentException e) {
+            assertEquals(0, counter.getCount());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package util;
+
+import be.thibaulthelsmoortel.helsmoortelUtil.util.TokenBucket;
+import be.thibaulthelsmoortel.helsmoortelUtil.util.TokenBucketMap;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test case for TokenBucketMap.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class TokenBucketMapTests {
+
+    /**
+     * Tests whether full buckets are evicted before buckets of throttled keys.
+     */
+    @Test
+    public void shouldEvictFullBucketsFirst() {
+        TokenBucketMap<String> map = new TokenBucketMap<>(3, 2, 1, 1, TimeUnit.HOURS);
+        TokenBucket throttled = map.bucket("throttled");
+        assertTrue(map.tryAcquire("throttled", 2));
+        map.bucket("idle");
+        TokenBucket busy = map.bucket("busy");
+        assertTrue(map.tryAcquire("busy"));
+        for (int i = 0; i < 20; i++) {
+            map.bucket("new" + i);
+            assertEquals(3, map.size());
+        }
+        assertSame(throttled, map.bucket("throttled"));
+        assertSame(busy, map.bucket("busy"));
+        assertFalse(map.tryAcquire("throttled"));
+    }
+
+    /**
+     * Tests whether the maximum number of keys holds while many threads add keys at once.
+     *
+     * @throws Exception when a worker thread fails
+     */
+    @Test
+    public void shouldRespectMaximumUnderContention() throws Exception {
+        final TokenBucketMap<Integer> map = new TokenBucketMap<>(100, 10, 1, 1, TimeUnit.SECONDS);
+        final AtomicInteger exceeded = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        final CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < 8; t++) {
+            final int thread = t;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 5000; i++) {
+                    map.tryAcquire(thread * 5000 + i % 500);
+                    if (map.size() > 100) exceeded.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        assertEquals(0, exceeded.get());
+        assertEquals(100, map.size());
+    }
+}
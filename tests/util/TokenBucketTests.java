@@ -0,0 +1,82 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package util;
+
+import be.thibaulthelsmoortel.helsmoortelUtil.util.TokenBucket;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test case for TokenBucket.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class TokenBucketTests {
+
+    /**
+     * Tests whether a full bucket allows a burst of its capacity and then refuses tokens.
+     */
+    @Test
+    public void shouldAllowBurstOfCapacity() {
+        TokenBucket bucket = new TokenBucket(10, 1, 1, TimeUnit.HOURS);
+        assertTrue(bucket.isFull());
+        assertTrue(bucket.tryAcquire(4));
+        assertEquals(6, bucket.availableTokens());
+        for (int i = 0; i < 6; i++) {
+            assertTrue(bucket.tryAcquire());
+        }
+        assertFalse(bucket.tryAcquire());
+        assertFalse(bucket.isFull());
+    }
+
+    /**
+     * Tests whether tokens are refilled over time, and whether waiting acquires wait for them.
+     *
+     * @throws InterruptedException when interrupted while waiting
+     */
+    @Test
+    public void shouldRefillOverTime() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(5, 100, 1, TimeUnit.SECONDS);
+        assertTrue(bucket.tryAcquire(5));
+        assertFalse(bucket.tryAcquire(5, 1, TimeUnit.MILLISECONDS));
+        long start = System.nanoTime();
+        assertTrue(bucket.tryAcquire(2, 1, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(15));
+        TimeUnit.MILLISECONDS.sleep(60);
+        assertTrue(bucket.isFull());
+    }
+
+    /**
+     * Tests whether invalid settings and token counts are rejected.
+     */
+    @Test
+    public void shouldRejectInvalidArguments() {
+        try {
+            new TokenBucket(0, 1, 1, TimeUnit.SECONDS);
+            fail("Capacity should be positive");
+        } catch (IllegalArgumentException e) {
+            assertEquals(TokenBucket.ERROR_CAPACITY, e.getMessage());
+        }
+        try {
+            new TokenBucket(1, 1, 0, TimeUnit.SECONDS);
+            fail("Period should be positive");
+        } catch (IllegalArgumentException e) {
+            assertEquals(TokenBucket.ERROR_RATE, e.getMessage());
+        }
+        try {
+            new TokenBucket(3, 1, 1, TimeUnit.SECONDS).tryAcquire(4);
+            fail("More tokens than the capacity should be rejected");
+        } catch (IllegalArgumentException e) {
+            assertEquals(TokenBucket.ERROR_TOKENS, e.getMessage());
+        }
+    }
+}
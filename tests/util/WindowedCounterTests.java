@@ -0,0 +1,126 @@
+/*
+ * This code has been entirely written by Thibault Helsmoortel.
+ * Do not copy or (re)distribute without written permission.
+ */
+
+package util;
+
+import be.thibaulthelsmoortel.helsmoortelUtil.util.WindowedCounter;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test case for WindowedCounter.
+ *
+ * @author Thibault Helsmoortel
+ */
+public class WindowedCounterTests {
+
+    private static final int THREADS = 8;
+    private static final int INCREMENTS = 20000;
+
+    /**
+     * Tests whether no events are lost when many threads increment at once.
+     *
+     * @throws Exception when a worker thread fails
+     */
+    @Test
+    public void shouldNotLoseEvents() throws Exception {
+        final WindowedCounter counter = new WindowedCounter(1, 1, TimeUnit.HOURS);
+        int accepted = runConcurrently(() -> {
+            int succeeded = 0;
+            for (int i = 0; i < INCREMENTS; i++) {
+                if (counter.tryIncrement()) succeeded++;
+            }
+            return succeeded;
+        });
+        assertEquals(THREADS * INCREMENTS, accepted);
+        assertEquals(THREADS * INCREMENTS, counter.sumOverWindow());
+    }
+
+    /**
+     * Tests whether the maximum value is never exceeded when many threads increment at once.
+     *
+     * @throws Exception when a worker thread fails
+     */
+    @Test
+    public void shouldRefuseEventsBeyondMaximum() throws Exception {
+        final WindowedCounter counter = new WindowedCounter(60, 1, TimeUnit.MINUTES, 0, 1000);
+        int accepted = runConcurrently(() -> {
+            int succeeded = 0;
+            for (int i = 0; i < INCREMENTS; i++) {
+                if (counter.tryIncrementBy(1 + i % 3)) succeeded += 1 + i % 3;
+            }
+            return succeeded;
+        });
+        assertTrue(accepted <= 1000 && accepted > 990);
+        assertEquals(accepted, counter.sumOverWindow());
+        assertEquals(1000 - accepted, counter.distanceToMaxVal());
+        assertFalse(counter.tryIncrementBy(1001 - accepted));
+    }
+
+    /**
+     * Tests whether events leave the window once it has passed, making room for new events.
+     *
+     * @throws InterruptedException when interrupted while waiting
+     */
+    @Test
+    public void shouldForgetEventsOutsideWindow() throws InterruptedException {
+        WindowedCounter counter = new WindowedCounter(200, 50, TimeUnit.MILLISECONDS, 0, 10);
+        counter.incrementBy(10);
+        assertFalse(counter.tryIncrement());
+        TimeUnit.MILLISECONDS.sleep(300);
+        assertEquals(0, counter.sumOverWindow());
+        assertTrue(counter.tryIncrementBy(10));
+        assertEquals(10, counter.sumOverWindow());
+        counter.reset();
+        assertEquals(0, counter.sumOverWindow());
+    }
+
+    /**
+     * Tests whether a window too fine for its duration is rejected, and a coarse window close to the range of
+     * nanoseconds accepted.
+     */
+    @Test
+    public void shouldValidateBucketCount() {
+        try {
+            new WindowedCounter(Long.MAX_VALUE, 1, TimeUnit.NANOSECONDS);
+            assertTrue("Too many buckets should be rejected", false);
+        } catch (IllegalArgumentException e) {
+            assertEquals(WindowedCounter.ERROR_RESOLUTION, e.getMessage());
+        }
+        WindowedCounter counter = new WindowedCounter(Long.MAX_VALUE, TimeUnit.DAYS.toNanos(1), TimeUnit.NANOSECONDS);
+        counter.increment();
+        assertEquals(1, counter.sumOverWindow());
+    }
+
+    private int runConcurrently(Callable<Integer> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        int total = 0;
+        for (Future<Integer> future : futures) total += future.get();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        return total;
+    }
+}